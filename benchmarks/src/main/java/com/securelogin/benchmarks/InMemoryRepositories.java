@@ -0,0 +1,61 @@
+package com.securelogin.benchmarks;
+
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.entity.User;
+import com.securelogin.repository.LoginAttemptRepository;
+import com.securelogin.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Substitutos em memória dos repositórios, sem MongoDB.
+ * Apenas os métodos usados pelos benchmarks são implementados.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static UserRepository users(Map<String, User> usersByUsername) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByUsername":
+                            return Optional.ofNullable(usersByUsername.get((String) args[0]));
+                        case "existsByUsername":
+                            return usersByUsername.containsKey((String) args[0]);
+                        case "toString":
+                            return "InMemoryUserRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Descarta as tentativas gravadas em lote, contando quantas chegaram
+     */
+    static LoginAttemptRepository loginAttempts(LongAdder inserted) {
+        return (LoginAttemptRepository) Proxy.newProxyInstance(LoginAttemptRepository.class.getClassLoader(),
+                new Class<?>[]{LoginAttemptRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "insert":
+                            if (args[0] instanceof Iterable) {
+                                for (Object ignored : (Iterable<?>) args[0]) {
+                                    inserted.increment();
+                                }
+                            } else if (args[0] instanceof LoginAttempt) {
+                                inserted.increment();
+                            }
+                            return args[0];
+                        case "toString":
+                            return "InMemoryLoginAttemptRepository";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
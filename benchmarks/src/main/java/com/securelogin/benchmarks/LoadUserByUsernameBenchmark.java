@@ -0,0 +1,92 @@
+package com.securelogin.benchmarks;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.entity.User;
+import com.securelogin.repository.UserRepository;
+import com.securelogin.service.LockExpiryService;
+import com.securelogin.service.LoginLockoutService;
+import com.securelogin.service.PrincipalCache;
+import com.securelogin.service.RoleRegistry;
+import com.securelogin.service.RoleSetInterner;
+import com.securelogin.service.UserService;
+import com.securelogin.service.UsernameBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.loadUserByUsername com um repositório em memória.
+ * <p>
+ * {@code cached} mede o acerto no cache de principais, {@code uncached} desliga o cache
+ * e {@code unknown} mede a rejeição de um nome inexistente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadUserByUsernameBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"cached", "uncached", "unknown"})
+    private String scenario;
+
+    private UserService userService;
+    private String[] usernames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, User> users = new ConcurrentHashMap<>();
+        usernames = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            String username = "user" + i;
+            users.put(username, new User(username, username + "@securelogin.com", "hash", "Usuário " + i,
+                    new HashSet<>(Arrays.asList("USER"))));
+            usernames[i] = "unknown".equals(scenario) ? "ghost" + i : username;
+        }
+
+        AppProperties properties = new AppProperties();
+        UserRepository userRepository = InMemoryRepositories.users(users);
+        PrincipalCache principalCache = "uncached".equals(scenario)
+                ? new PrincipalCache(0, Duration.ofMinutes(5))
+                : new PrincipalCache(USERS, Duration.ofMinutes(5));
+        UsernameBloomFilter usernameFilter = new UsernameBloomFilter(properties, null);
+        LockExpiryService lockExpiryService = new LockExpiryService(null, principalCache, properties);
+        LoginLockoutService loginLockoutService = new LoginLockoutService(properties, userRepository, principalCache,
+                usernameFilter, lockExpiryService);
+
+        // Sem MongoTemplate: loadUserByUsername só consulta o repositório
+        userService = new UserService(userRepository, null, principalCache, usernameFilter, loginLockoutService,
+                new RoleRegistry(null, new RoleSetInterner()), null);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        String username = usernames[next++ % USERS];
+        try {
+            return userService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
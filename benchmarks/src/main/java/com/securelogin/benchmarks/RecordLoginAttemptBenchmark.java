@@ -0,0 +1,64 @@
+package com.securelogin.benchmarks;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.service.LoginAttemptCounters;
+import com.securelogin.service.LoginAttemptService;
+import com.securelogin.service.LoginAttemptWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Custo de LoginAttemptService.recordLoginAttempt na thread da requisição,
+ * com o gravador em lote descartando os registros em vez de usar o MongoDB
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RecordLoginAttemptBenchmark {
+
+    private final LongAdder inserted = new LongAdder();
+
+    private LoginAttemptWriter loginAttemptWriter;
+    private LoginAttemptService loginAttemptService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppProperties properties = new AppProperties();
+        loginAttemptWriter = new LoginAttemptWriter(InMemoryRepositories.loginAttempts(inserted), properties);
+        loginAttemptWriter.start();
+        loginAttemptService = new LoginAttemptService(null, loginAttemptWriter, new LoginAttemptCounters(null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loginAttemptWriter.stop();
+    }
+
+    @Benchmark
+    public void recordSuccess() {
+        loginAttemptService.recordLoginAttempt("benchmark", "10.0.0.1", true, "JMH");
+    }
+
+    @Benchmark
+    public void recordFailure() {
+        loginAttemptService.recordLoginAttempt("benchmark", "10.0.0.1", false, "JMH", "invalid_credentials");
+    }
+}
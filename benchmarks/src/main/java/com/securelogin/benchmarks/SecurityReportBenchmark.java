@@ -0,0 +1,50 @@
+package com.securelogin.benchmarks;
+
+import com.securelogin.service.LoginAttemptCounters;
+import com.securelogin.service.LoginAttemptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generateSecurityReport com 10 mil, 1 milhão e 10 milhões de tentativas nas últimas 24 horas.
+ * O tempo deve ser o mesmo para qualquer volume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityReportBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int attempts;
+
+    private LoginAttemptService loginAttemptService;
+
+    @Setup
+    public void setUp() {
+        LoginAttemptCounters counters = new LoginAttemptCounters(null);
+        for (int i = 0; i < attempts; i++) {
+            // Uma falha a cada dez tentativas
+            counters.record(i % 10 != 0);
+        }
+        loginAttemptService = new LoginAttemptService(null, null, counters);
+    }
+
+    @Benchmark
+    public LoginAttemptService.SecurityReport generateSecurityReport() {
+        return loginAttemptService.generateSecurityReport();
+    }
+}
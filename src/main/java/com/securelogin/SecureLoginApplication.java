@@ -1,12 +1,21 @@
 package com.securelogin;
 
+import com.securelogin.config.UserImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SecureLoginApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(SecureLoginApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(SecureLoginApplication.class, args);
+
+        // Importação pela linha de comando: encerra com o código de saída do UserImportRunner
+        if (!context.getBeansOfType(UserImportRunner.class).isEmpty()) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
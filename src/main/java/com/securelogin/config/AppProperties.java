@@ -0,0 +1,343 @@
+package com.securelogin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da aplicação declaradas sob o prefixo {@code app.*}
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app")
+public class AppProperties {
+
+    private final Security security = new Security();
+
+    private final Mongodb mongodb = new Mongodb();
+
+    private final Audit audit = new Audit();
+
+    private final Session session = new Session();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final BulkJobs bulkJobs = new BulkJobs();
+
+    @Data
+    public static class Security {
+        private int maxLoginAttempts = 5;
+        private int lockTimeMinutes = 30;
+        private int sessionTimeoutMinutes = 30;
+
+        /**
+         * Janela deslizante em que as falhas de login são contadas
+         */
+        private int failureWindowMinutes = 15;
+
+        /**
+         * Falhas aceitas de um mesmo IP dentro da janela antes do bloqueio do IP
+         */
+        private int maxIpAttempts = 50;
+
+        /**
+         * Expressão regular com os IPs dos proxies reversos cujo X-Forwarded-For é aceito.
+         * Por padrão só o loopback; inclua o balanceador para que o bloqueio por IP e a
+         * auditoria vejam o cliente, e não o proxy
+         */
+        private String trustedProxies = "127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|0:0:0:0:0:0:0:1|::1";
+        private final Hashing hashing = new Hashing();
+        private final PrincipalCache principalCache = new PrincipalCache();
+        private final UsernameFilter usernameFilter = new UsernameFilter();
+        private final Token token = new Token();
+        private final Roles roles = new Roles();
+        private final LockExpiry lockExpiry = new LockExpiry();
+        private final UserChanges userChanges = new UserChanges();
+    }
+
+    @Data
+    public static class Token {
+        /**
+         * Chave HMAC-SHA256 em Base64, com pelo menos 256 bits. Obrigatória fora do perfil dev,
+         * onde vazia gera uma chave aleatória: os tokens não sobrevivem a reinícios nem valem em
+         * outros nós.
+         */
+        private String secret = "";
+
+        /**
+         * Valor da claim iss emitida e exigida na validação
+         */
+        private String issuer = "secure-login-system";
+
+        /**
+         * Validade do token de acesso enviado em cada requisição a /api/**
+         */
+        private Duration accessTtl = Duration.ofMinutes(15);
+
+        /**
+         * Validade do token de renovação aceito por /api/auth/refresh
+         */
+        private Duration refreshTtl = Duration.ofDays(7);
+
+        /**
+         * Tokens de acesso já validados mantidos em memória
+         */
+        private long cacheMaximumSize = 10000;
+    }
+
+    @Data
+    public static class PrincipalCache {
+        /**
+         * Número máximo de usuários mantidos em memória
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Tempo de vida de uma entrada desde o carregamento. Alterações chegam antes pelo
+         * UserChangeWatcher; o TTL limita apenas as que ele não vê (remoções sem replica set).
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Hashing {
+        /**
+         * Algoritmo usado para novos hashes (bcrypt ou pbkdf2)
+         */
+        private String algorithm = "bcrypt";
+
+        /**
+         * Mede o host na inicialização para escolher o custo do BCrypt
+         */
+        private boolean calibrate = true;
+
+        /**
+         * Custo do BCrypt quando a calibração está desligada
+         */
+        private int strength = 12;
+
+        /**
+         * Menor e maior custo aceitos pela calibração
+         */
+        private int minStrength = 10;
+        private int maxStrength = 16;
+
+        /**
+         * Latência alvo de uma verificação de senha
+         */
+        private Duration targetLatency = Duration.ofMillis(250);
+
+        /**
+         * Threads dedicadas ao hashing de senhas (0 = número de núcleos)
+         */
+        private int poolSize = 0;
+
+        /**
+         * Verificações aguardando uma thread livre antes de rejeitar novas requisições
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Tempo máximo entre a submissão e o fim da verificação
+         */
+        private Duration deadline = Duration.ofSeconds(2);
+
+        /**
+         * Valor do header Retry-After enviado quando a verificação é rejeitada
+         */
+        private int retryAfterSeconds = 2;
+    }
+
+    @Data
+    public static class UsernameFilter {
+        /**
+         * Número de usuários para o qual o filtro é dimensionado
+         */
+        private long expectedInsertions = 10_000_000;
+
+        /**
+         * Taxa de falsos positivos aceita quando o filtro está cheio
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Intervalo entre reconstruções completas a partir da coleção users
+         */
+        private Duration rebuildInterval = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class UserChanges {
+        /**
+         * Intervalo de consulta da coleção users quando o MongoDB não oferece change streams
+         * (instância fora de replica set)
+         */
+        private Duration pollInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Roles {
+        /**
+         * Intervalo entre recargas da coleção roles
+         */
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class LockExpiry {
+        /**
+         * Resolução da roda de temporização: bloqueios expiram com até um tick de atraso
+         */
+        private Duration tick = Duration.ofSeconds(1);
+
+        /**
+         * Máximo de usuários desbloqueados por updateMany
+         */
+        private int batchSize = 1000;
+    }
+
+    @Data
+    public static class Audit {
+        /**
+         * Tentativas de login aguardando gravação antes do descarte
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Tamanho máximo de cada lote gravado com insertMany
+         */
+        private int batchSize = 500;
+
+        /**
+         * Tempo máximo que uma tentativa aguarda até o lote ser gravado
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Tempo que o login espera por espaço na fila cheia antes de descartar o registro
+         */
+        private Duration offerTimeout = Duration.ofMillis(5);
+
+        /**
+         * Tempo que cada tentativa fica em login_attempts antes de o índice TTL removê-la
+         */
+        private Duration retention = Duration.ofDays(90);
+
+        /**
+         * Intervalo entre execuções da consolidação horária e do arquivamento
+         */
+        private Duration rollupInterval = Duration.ofHours(1);
+
+        /**
+         * Intervalo entre as recontagens do relatório de segurança com as tentativas de todos os nós
+         */
+        private Duration reportRefreshInterval = Duration.ofSeconds(30);
+
+        /**
+         * Prazo da WebAsyncTask de GET /admin/export/login-attempts; as demais respostas
+         * assíncronas seguem spring.mvc.async.request-timeout
+         */
+        private Duration exportTimeout = Duration.ofHours(1);
+
+        private final Archive archive = new Archive();
+    }
+
+    @Data
+    public static class Archive {
+        /**
+         * Diretório dos arquivos .jsonl.gz; vazio desliga o arquivamento
+         */
+        private String directory = "archive/login-attempts";
+
+        /**
+         * Antecedência, em relação à remoção pelo TTL, com que cada hora é arquivada
+         */
+        private Duration lead = Duration.ofDays(1);
+    }
+
+    @Data
+    public static class Session {
+        /**
+         * Armazenamento das sessões HTTP: mongo (compartilhado entre os nós) ou memory (Tomcat)
+         */
+        private String store = "mongo";
+
+        /**
+         * Intervalo mínimo entre gravações do último acesso; requisições que só leem a sessão
+         * não gravam nada dentro dele. A sessão pode expirar até este intervalo antes do timeout.
+         */
+        private Duration touchInterval = Duration.ofMinutes(1);
+
+        /**
+         * Tempo que uma sessão lida do MongoDB é reaproveitada no nó sem nova consulta
+         */
+        private Duration nearCacheTtl = Duration.ofSeconds(5);
+
+        private long nearCacheMaximumSize = 10000;
+
+        /**
+         * Intervalo de consulta do registro de sessões quando o MongoDB não oferece change
+         * streams (instância fora de replica set)
+         */
+        private Duration registryPollInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class BulkImport {
+        /**
+         * Linhas com senha calculada e inseridas em cada operação em lote
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Threads de hashing da importação; 0 usa o número de processadores
+         */
+        private int parallelism = 0;
+
+        /**
+         * Linhas rejeitadas descritas no relatório; as demais são apenas contadas
+         */
+        private int maxReportedErrors = 1000;
+
+        /**
+         * Importações concluídas mantidas em memória para consulta
+         */
+        private int retainedJobs = 100;
+
+        /**
+         * Arquivo (.csv ou .jsonl) importado na inicialização; a aplicação encerra ao final
+         */
+        private String file;
+
+        /**
+         * Linhas de dados do arquivo ignoradas, para retomar uma importação interrompida
+         */
+        private long offset = 0;
+    }
+
+    @Data
+    public static class BulkJobs {
+        /**
+         * Usuários alterados por operação no banco; o progresso é atualizado a cada bloco
+         */
+        private int chunkSize = 10000;
+
+        /**
+         * Operações concluídas mantidas em memória para consulta
+         */
+        private int retainedJobs = 100;
+    }
+
+    @Data
+    public static class Mongodb {
+        private int connectionTimeout = 10000;
+        private int socketTimeout = 10000;
+
+        /**
+         * Executa explain() nas consultas dos repositórios e falha se alguma usar COLLSCAN
+         */
+        private boolean verifyQueryPlans = false;
+    }
+}
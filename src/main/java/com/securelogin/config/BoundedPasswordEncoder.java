@@ -0,0 +1,54 @@
+package com.securelogin.config;
+
+import com.securelogin.service.PasswordHashingExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Encaminha as operações custosas do encoder para o pool dedicado de hashing
+ */
+@RequiredArgsConstructor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Calcula o hash na thread chamadora, fora do pool de login; para a importação em
+     * massa, que tem pool próprio
+     */
+    public String encodeInCurrentThread(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    /**
+     * Versão não bloqueante de {@link #encode(CharSequence)} para o modo reativo
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return executor.submit(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Versão não bloqueante de {@link #matches(CharSequence, String)} para o modo reativo
+     */
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return executor.submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
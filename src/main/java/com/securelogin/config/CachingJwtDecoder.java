@@ -0,0 +1,105 @@
+package com.securelogin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Mantém em memória os tokens de acesso já validados, até o instante de expiração de cada um.
+ * <p>
+ * Um cliente reutiliza o mesmo token em todas as requisições: a partir da segunda, a
+ * autorização é uma consulta ao mapa, sem verificar a assinatura nem decodificar o JSON.
+ * Tokens inválidos não são armazenados.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+    private final Clock clock;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this(delegate, maximumSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+                        return remainingNanos(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return remainingNanos(jwt);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = cache.getIfPresent(token);
+        // A expiração do Caffeine é aproximada: confere o exp antes de aceitar a entrada
+        if (cached != null && isValid(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        cache.put(token, jwt);
+        return jwt;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    private boolean isValid(Jwt jwt) {
+        return jwt.getExpiresAt() == null || clock.instant().isBefore(jwt.getExpiresAt());
+    }
+
+    private long remainingNanos(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private long size;
+        private long hits;
+        private long misses;
+        private double hitRate;
+        private long evictions;
+    }
+}
@@ -0,0 +1,511 @@
+package com.securelogin.config;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.session.SessionProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.core.session.SessionDestroyedEvent;
+import org.springframework.security.core.session.SessionIdChangedEvent;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.session.SessionFixationProtectionEvent;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de sessões compartilhado pelos nós, usado no limite de uma sessão por usuário.
+ * <p>
+ * Cada nó mantém em memória todas as sessões registradas, indexadas por id e por usuário,
+ * e o {@code ConcurrentSessionFilter} consulta apenas esse índice a cada requisição. Registros,
+ * expirações e remoções são gravados na coleção session_registry e chegam aos outros nós por
+ * change streams. Fora de um replica set a coleção é consultada a cada
+ * {@code registry-poll-interval}. No login a lista de sessões do usuário é lida do MongoDB,
+ * de modo que uma sessão aberta em outro nó é expirada mesmo antes de o evento chegar.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClusteredSessionRegistry implements SessionRegistry, SmartLifecycle {
+
+    static final String ID = "_id";
+    static final String PRINCIPAL = "principal";
+    static final String LAST_REQUEST = "last_request";
+    static final String EXPIRED = "expired";
+    static final String EXPIRE_AT = "expire_at";
+    static final String UPDATED_AT = "updated_at";
+
+    enum Mode { STARTING, CHANGE_STREAM, POLLING }
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<MongoSessionRepository> sessionRepository;
+    private final Duration sessionTimeout;
+    private final Duration touchInterval;
+    private final Duration pollInterval;
+    private final Clock clock;
+
+    private final Map<String, ClusterSessionInformation> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByPrincipal = new ConcurrentHashMap<>();
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder remoteChanges = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile Mode mode = Mode.STARTING;
+    private volatile boolean running;
+    private Thread watcher;
+    private BsonDocument resumeToken;
+    private Instant lastPoll;
+
+    @Autowired
+    public ClusteredSessionRegistry(MongoTemplate mongoTemplate, ObjectProvider<MongoSessionRepository> sessionRepository,
+                                    AppProperties appProperties, SessionProperties sessionProperties,
+                                    ServerProperties serverProperties) {
+        this(mongoTemplate, sessionRepository, appProperties,
+                sessionProperties.determineTimeout(() -> serverProperties.getServlet().getSession().getTimeout()),
+                Clock.systemUTC());
+    }
+
+    ClusteredSessionRegistry(MongoTemplate mongoTemplate, ObjectProvider<MongoSessionRepository> sessionRepository,
+                             AppProperties appProperties, Duration sessionTimeout, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.sessionRepository = sessionRepository;
+        this.sessionTimeout = sessionTimeout;
+        this.touchInterval = appProperties.getSession().getTouchInterval();
+        this.pollInterval = appProperties.getSession().getRegistryPollInterval();
+        this.clock = clock;
+    }
+
+    @Override
+    public List<Object> getAllPrincipals() {
+        return new ArrayList<>(sessionsByPrincipal.keySet());
+    }
+
+    /**
+     * Lê as sessões do usuário no MongoDB; chamado no login, não a cada requisição
+     */
+    @Override
+    public List<SessionInformation> getAllSessions(Object principal, boolean includeExpiredSessions) {
+        String name = principalName(principal);
+        List<SessionInformation> result = new ArrayList<>();
+
+        try {
+            for (Document document : collection().find(Filters.eq(PRINCIPAL, name))) {
+                ClusterSessionInformation information = apply(document);
+                if (information != null && (includeExpiredSessions || !information.isExpired())) {
+                    result.add(information);
+                }
+            }
+            return result;
+        } catch (MongoException e) {
+            failures.increment();
+            log.warn("Falha ao ler as sessões de '{}' no MongoDB, usando o registro local: {}", name, e.getMessage());
+        }
+
+        for (String sessionId : sessionsByPrincipal.getOrDefault(name, ConcurrentHashMap.newKeySet())) {
+            ClusterSessionInformation information = sessions.get(sessionId);
+            if (information != null && (includeExpiredSessions || !information.isExpired())) {
+                result.add(information);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SessionInformation getSessionInformation(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /**
+     * Atualiza o último acesso em memória; grava no MongoDB no máximo a cada touch-interval
+     */
+    @Override
+    public void refreshLastRequest(String sessionId) {
+        ClusterSessionInformation information = sessions.get(sessionId);
+        if (information == null) {
+            return;
+        }
+        information.refreshLastRequest();
+
+        Instant now = clock.instant();
+        if (!now.isBefore(information.persistedAt.plus(touchInterval))) {
+            information.persistedAt = now;
+            write(() -> collection().updateOne(Filters.eq(ID, sessionId), Updates.combine(
+                    Updates.set(LAST_REQUEST, Date.from(now)),
+                    Updates.set(EXPIRE_AT, expireAt(now)),
+                    Updates.set(UPDATED_AT, Date.from(now)))));
+        }
+    }
+
+    @Override
+    public void registerNewSession(String sessionId, Object principal) {
+        Instant now = clock.instant();
+        String name = principalName(principal);
+        ClusterSessionInformation information = new ClusterSessionInformation(name, sessionId, Date.from(now), now);
+        putLocal(information);
+
+        Document document = new Document(ID, sessionId)
+                .append(PRINCIPAL, name)
+                .append(LAST_REQUEST, Date.from(now))
+                .append(EXPIRED, false)
+                .append(EXPIRE_AT, expireAt(now))
+                .append(UPDATED_AT, Date.from(now));
+        write(() -> collection().replaceOne(Filters.eq(ID, sessionId), document, new ReplaceOptions().upsert(true)));
+        log.debug("Sessão registrada para o usuário: {}", name);
+    }
+
+    @Override
+    public void removeSessionInformation(String sessionId) {
+        removeLocal(sessionId);
+        write(() -> collection().deleteOne(Filters.eq(ID, sessionId)));
+    }
+
+    /**
+     * Sessão invalidada no Tomcat (app.session.store=memory)
+     */
+    @EventListener
+    public void onSessionDestroyed(SessionDestroyedEvent event) {
+        removeSessionInformation(event.getId());
+    }
+
+    /**
+     * Sessão removida do MongoDB por logout ou invalidação
+     */
+    @EventListener
+    public void onSessionDeleted(org.springframework.session.events.SessionDestroyedEvent event) {
+        removeSessionInformation(event.getSessionId());
+    }
+
+    @EventListener
+    public void onSessionIdChanged(SessionIdChangedEvent event) {
+        // O novo id é registrado pela estratégia de login em seguida
+        removeSessionInformation(event.getOldSessionId());
+    }
+
+    @EventListener
+    public void onSessionFixationProtection(SessionFixationProtectionEvent event) {
+        removeSessionInformation(event.getOldSessionId());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        watcher = new Thread(this::watch, "session-registry-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (watcher == null) {
+            return;
+        }
+
+        watcher.interrupt();
+        try {
+            watcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Stats getStats() {
+        return new Stats(mode.name(), sessions.size(), sessionsByPrincipal.size(),
+                writes.sum(), remoteChanges.sum(), failures.sum());
+    }
+
+    /**
+     * Acompanha a coleção por change streams; sem replica set passa a consultá-la periodicamente
+     */
+    private void watch() {
+        while (running) {
+            try {
+                if (mode == Mode.POLLING) {
+                    poll();
+                } else {
+                    followChangeStream();
+                }
+            } catch (MongoCommandException e) {
+                if (resumeToken != null) {
+                    // Token fora do oplog: recomeça com uma carga completa
+                    log.warn("Change stream do registro de sessões não pôde ser retomado: {}", e.getErrorMessage());
+                    resumeToken = null;
+                } else if (mode != Mode.POLLING) {
+                    log.info("Change streams indisponíveis ({}); registro de sessões consultado a cada {}",
+                            e.getErrorMessage(), pollInterval);
+                    mode = Mode.POLLING;
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                failures.increment();
+                log.warn("Falha ao acompanhar o registro de sessões: {}", e.getMessage());
+                sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * Abre o change stream antes da carga completa, para não perder alterações feitas entre as duas
+     */
+    private void followChangeStream() {
+        ChangeStreamIterable<Document> stream = collection().watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            if (resumeToken == null) {
+                reload();
+            }
+            if (mode != Mode.CHANGE_STREAM) {
+                mode = Mode.CHANGE_STREAM;
+                log.info("Registro de sessões acompanhando alterações por change streams");
+            }
+
+            long nextSweep = System.nanoTime() + pollInterval.toNanos();
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    apply(change);
+                }
+                if (cursor.getResumeToken() != null) {
+                    resumeToken = cursor.getResumeToken();
+                }
+                if (System.nanoTime() >= nextSweep) {
+                    sweep();
+                    nextSweep = System.nanoTime() + pollInterval.toNanos();
+                }
+            }
+        }
+    }
+
+    private void poll() throws InterruptedException {
+        Instant since = lastPoll;
+        lastPoll = clock.instant();
+        if (since == null) {
+            reload();
+        } else {
+            // Margem de um intervalo para gravações com relógio levemente atrasado
+            for (Document document : collection().find(Filters.gte(UPDATED_AT, Date.from(since.minus(pollInterval))))) {
+                apply(document);
+            }
+        }
+        sweep();
+        Thread.sleep(pollInterval.toMillis());
+    }
+
+    void reload() {
+        for (Document document : collection().find()) {
+            apply(document);
+        }
+        log.info("Registro de sessões carregado: {} sessões de {} usuários", sessions.size(), sessionsByPrincipal.size());
+    }
+
+    void apply(ChangeStreamDocument<Document> change) {
+        remoteChanges.increment();
+        OperationType operation = change.getOperationType();
+
+        if (operation == OperationType.DELETE) {
+            String sessionId = change.getDocumentKey().getString(ID).getValue();
+            removeLocal(sessionId);
+            evictSession(sessionId);
+        } else if (change.getFullDocument() != null) {
+            ClusterSessionInformation information = apply(change.getFullDocument());
+            if (information != null && information.isExpired()) {
+                evictSession(information.getSessionId());
+            }
+        }
+    }
+
+    /**
+     * Incorpora o estado gravado por qualquer nó ao registro local
+     *
+     * @return a entrada local correspondente, ou null se o documento já expirou
+     */
+    ClusterSessionInformation apply(Document document) {
+        String sessionId = document.getString(ID);
+        Instant expireAt = document.getDate(EXPIRE_AT).toInstant();
+        if (clock.instant().isAfter(expireAt)) {
+            removeLocal(sessionId);
+            return null;
+        }
+
+        Date lastRequest = document.getDate(LAST_REQUEST);
+        ClusterSessionInformation current = sessions.get(sessionId);
+        ClusterSessionInformation information = current;
+        if (current == null || current.getLastRequest().before(lastRequest)) {
+            information = new ClusterSessionInformation(document.getString(PRINCIPAL), sessionId, lastRequest,
+                    lastRequest.toInstant());
+            if (current != null && current.isExpired()) {
+                information.markExpired();
+            }
+            putLocal(information);
+        }
+        if (document.getBoolean(EXPIRED, false)) {
+            information.markExpired();
+        }
+        return information;
+    }
+
+    /**
+     * Descarta entradas cujas sessões já expiraram por inatividade
+     */
+    void sweep() {
+        Instant limit = clock.instant().minus(sessionTimeout).minus(touchInterval);
+        for (ClusterSessionInformation information : sessions.values()) {
+            if (information.getLastRequest().toInstant().isBefore(limit)) {
+                removeLocal(information.getSessionId());
+            }
+        }
+    }
+
+    private void expire(ClusterSessionInformation information) {
+        Instant now = clock.instant();
+        write(() -> collection().updateOne(Filters.eq(ID, information.getSessionId()), Updates.combine(
+                Updates.set(EXPIRED, true),
+                Updates.set(UPDATED_AT, Date.from(now)))));
+        evictSession(information.getSessionId());
+        log.debug("Sessão expirada pelo limite de sessões do usuário: {}", information.getPrincipal());
+    }
+
+    private void putLocal(ClusterSessionInformation information) {
+        String principal = (String) information.getPrincipal();
+        sessions.put(information.getSessionId(), information);
+        sessionsByPrincipal.computeIfAbsent(principal, key -> ConcurrentHashMap.newKeySet())
+                .add(information.getSessionId());
+    }
+
+    private void removeLocal(String sessionId) {
+        ClusterSessionInformation information = sessions.remove(sessionId);
+        if (information == null) {
+            return;
+        }
+        sessionsByPrincipal.computeIfPresent((String) information.getPrincipal(), (principal, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void evictSession(String sessionId) {
+        MongoSessionRepository repository = sessionRepository.getIfAvailable();
+        if (repository != null) {
+            repository.evict(sessionId);
+        }
+    }
+
+    private void write(Runnable operation) {
+        try {
+            operation.run();
+            writes.increment();
+        } catch (MongoException e) {
+            failures.increment();
+            log.warn("Falha ao gravar no registro de sessões: {}", e.getMessage());
+        }
+    }
+
+    private Date expireAt(Instant lastRequest) {
+        // Margem de um touch-interval, já que o último acesso só é gravado nesse intervalo
+        return Date.from(lastRequest.plus(sessionTimeout).plus(touchInterval));
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(MongoIndexManager.SESSION_REGISTRY);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String principalName(Object principal) {
+        if (principal instanceof UserDetails) {
+            return ((UserDetails) principal).getUsername();
+        }
+        if (principal instanceof Principal) {
+            return ((Principal) principal).getName();
+        }
+        return String.valueOf(principal);
+    }
+
+    /**
+     * Entrada do registro local; expirar pelo Spring Security grava e propaga a expiração
+     */
+    final class ClusterSessionInformation extends SessionInformation {
+
+        private static final long serialVersionUID = 1L;
+
+        private volatile Instant persistedAt;
+
+        ClusterSessionInformation(String principal, String sessionId, Date lastRequest, Instant persistedAt) {
+            super(principal, sessionId, lastRequest);
+            this.persistedAt = persistedAt;
+        }
+
+        @Override
+        public void expireNow() {
+            markExpired();
+            expire(this);
+        }
+
+        void markExpired() {
+            super.expireNow();
+        }
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private String mode;
+        private int sessions;
+        private int principals;
+        private long writes;
+        private long remoteChanges;
+        private long failures;
+    }
+}
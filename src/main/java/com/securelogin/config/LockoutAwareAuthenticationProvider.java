@@ -0,0 +1,63 @@
+package com.securelogin.config;
+
+import com.securelogin.service.AuthenticationMetrics;
+import com.securelogin.service.LoginLockoutService;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Rejeita usuários e IPs bloqueados antes da busca do usuário e da verificação da senha
+ * e mede a duração total e a da verificação da senha. O principal autenticado guarda só o
+ * nome, os estados da conta e as autoridades: ele é serializado na sessão, e o hash da
+ * senha não deve sair do documento do usuário.
+ */
+public class LockoutAwareAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final LoginLockoutService loginLockoutService;
+    private final AuthenticationMetrics authenticationMetrics;
+
+    public LockoutAwareAuthenticationProvider(LoginLockoutService loginLockoutService,
+                                              AuthenticationMetrics authenticationMetrics) {
+        this.loginLockoutService = loginLockoutService;
+        this.authenticationMetrics = authenticationMetrics;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        return authenticationMetrics.record(AuthenticationMetrics.Phase.TOTAL, () -> {
+            if (loginLockoutService.isLocked(authentication.getName(), LoginLockoutService.remoteAddress(authentication))) {
+                throw new LockedException("Conta temporariamente bloqueada");
+            }
+            return super.authenticate(authentication);
+        });
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        return super.createSuccessAuthentication(sessionPrincipal(user), authentication, user);
+    }
+
+    /**
+     * Cópia do usuário sem a senha; a entidade continua intacta no cache de usuários
+     */
+    static UserDetails sessionPrincipal(UserDetails user) {
+        User principal = new User(user.getUsername(), "", user.isEnabled(), user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(), user.isAccountNonLocked(), user.getAuthorities());
+        principal.eraseCredentials();
+        return principal;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        authenticationMetrics.record(AuthenticationMetrics.Phase.PASSWORD,
+                () -> super.additionalAuthenticationChecks(userDetails, authentication));
+    }
+}
@@ -0,0 +1,120 @@
+package com.securelogin.config;
+
+import com.securelogin.service.AuthenticationMetrics;
+import com.securelogin.service.LoginLockoutService;
+import com.securelogin.service.ReactiveUserService;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Consumer;
+
+/**
+ * Equivalente reativo de {@link LockoutAwareAuthenticationProvider}.
+ * <p>
+ * Rejeita usuários e IPs bloqueados antes da busca do usuário, verifica a senha no pool
+ * limitado de hashing e publica os mesmos eventos de autenticação do modo servlet. Os
+ * ouvintes desses eventos gravam o bloqueio no MongoDB de forma síncrona, por isso são
+ * executados no scheduler {@code boundedElastic}, fora do event loop.
+ */
+public class LockoutAwareReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveUserService userService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final LoginLockoutService loginLockoutService;
+    private final AuthenticationEventPublisher eventPublisher;
+    private final AuthenticationMetrics authenticationMetrics;
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    private Scheduler eventScheduler = Schedulers.boundedElastic();
+
+    public LockoutAwareReactiveAuthenticationManager(ReactiveUserService userService,
+                                                     BoundedPasswordEncoder passwordEncoder,
+                                                     LoginLockoutService loginLockoutService,
+                                                     AuthenticationEventPublisher eventPublisher,
+                                                     AuthenticationMetrics authenticationMetrics) {
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.loginLockoutService = loginLockoutService;
+        this.eventPublisher = eventPublisher;
+        this.authenticationMetrics = authenticationMetrics;
+    }
+
+    /**
+     * Scheduler em que os eventos de autenticação são publicados
+     */
+    public void setEventScheduler(Scheduler eventScheduler) {
+        this.eventScheduler = eventScheduler;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return lookupAndVerify(authentication)
+                    .doOnEach(elapsed(AuthenticationMetrics.Phase.TOTAL, start));
+        })
+                .publishOn(eventScheduler)
+                .doOnNext(eventPublisher::publishAuthenticationSuccess)
+                .doOnError(AuthenticationException.class,
+                        e -> eventPublisher.publishAuthenticationFailure(e, authentication));
+    }
+
+    private Mono<Authentication> lookupAndVerify(Authentication authentication) {
+        String username = authentication.getName();
+        if (loginLockoutService.isLocked(username, LoginLockoutService.remoteAddress(authentication))) {
+            return Mono.error(new LockedException("Conta temporariamente bloqueada"));
+        }
+
+        return userService.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Credenciais inválidas")))
+                .doOnNext(userDetailsChecker::check)
+                .flatMap(user -> verifyPassword(user, String.valueOf(authentication.getCredentials())))
+                .map(user -> createSuccessAuthentication(user, authentication));
+    }
+
+    private Mono<UserDetails> verifyPassword(UserDetails user, String presentedPassword) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.fromFuture(() -> passwordEncoder.matchesAsync(presentedPassword, user.getPassword()))
+                    .doOnEach(elapsed(AuthenticationMetrics.Phase.PASSWORD, start));
+        })
+                .flatMap(matches -> matches
+                        ? upgradeEncodingIfNeeded(user, presentedPassword)
+                        : Mono.error(new BadCredentialsException("Credenciais inválidas")));
+    }
+
+    private Mono<UserDetails> upgradeEncodingIfNeeded(UserDetails user, String presentedPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return Mono.just(user);
+        }
+        return Mono.fromFuture(() -> passwordEncoder.encodeAsync(presentedPassword))
+                .flatMap(encodedPassword -> userService.updatePassword(user, encodedPassword));
+    }
+
+    private <T> Consumer<Signal<T>> elapsed(AuthenticationMetrics.Phase phase, long start) {
+        return signal -> {
+            if (signal.isOnNext() || signal.isOnError()) {
+                authenticationMetrics.record(phase, System.nanoTime() - start, signal.isOnNext());
+            }
+        };
+    }
+
+    private static Authentication createSuccessAuthentication(UserDetails user, Authentication authentication) {
+        UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                LockoutAwareAuthenticationProvider.sessionPrincipal(user), null, user.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+    }
+}
@@ -0,0 +1,30 @@
+package com.securelogin.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Detalhes do formulário de login, incluindo o User-Agent para a auditoria
+ */
+public class LoginAttemptDetails extends WebAuthenticationDetails {
+
+    private final String userAgent;
+
+    public LoginAttemptDetails(HttpServletRequest request) {
+        super(request);
+        this.userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+    }
+
+    /**
+     * Detalhes montados a partir de uma requisição WebFlux, sem sessão associada
+     */
+    public LoginAttemptDetails(String remoteAddress, String userAgent) {
+        super(remoteAddress, null);
+        this.userAgent = userAgent;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+}
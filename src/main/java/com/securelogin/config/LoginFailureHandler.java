@@ -0,0 +1,52 @@
+package com.securelogin.config;
+
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Trata falhas de login, respondendo 503 quando o pool de hashing está saturado
+ * e indicando o bloqueio temporário da conta
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LoginFailureHandler extends SimpleUrlAuthenticationFailureHandler {
+
+    private final AppProperties appProperties;
+
+    public LoginFailureHandler(AppProperties appProperties) {
+        super("/login?error=true");
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof HashingRejectedException) {
+            log.warn("Login rejeitado por sobrecarga: {}", ((HashingRejectedException) exception).getReason());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor sobrecarregado. Tente novamente em instantes.");
+            return;
+        }
+        
+        if (exception instanceof LockedException) {
+            getRedirectStrategy().sendRedirect(request, response, "/login?error=account_locked");
+            return;
+        }
+        
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
@@ -0,0 +1,122 @@
+package com.securelogin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+/**
+ * Associa cada comando do MongoDB ao método de repositório que o originou.
+ * <p>
+ * Um interceptor guarda o método em execução na thread atual e o provedor de tags do
+ * {@code MongoMetricsCommandListener} o acrescenta como tag {@code repository.method} de
+ * {@code mongodb.driver.commands}. Comandos emitidos fora dos repositórios recebem {@code none}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String REPOSITORY_METHOD_TAG = "repository.method";
+    static final String NO_REPOSITORY_METHOD = "none";
+
+    private static final ThreadLocal<String> CURRENT_REPOSITORY_METHOD = new ThreadLocal<>();
+
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new RepositoryMethodCommandTagsProvider();
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(repositoryMethodInterceptor(
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static MethodInterceptor repositoryMethodInterceptor(String repositoryName) {
+        return invocation -> {
+            String previous = CURRENT_REPOSITORY_METHOD.get();
+            CURRENT_REPOSITORY_METHOD.set(repositoryName + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT_REPOSITORY_METHOD.remove();
+                } else {
+                    CURRENT_REPOSITORY_METHOD.set(previous);
+                }
+            }
+        };
+    }
+
+    static String currentRepositoryMethod() {
+        String method = CURRENT_REPOSITORY_METHOD.get();
+        return method != null ? method : NO_REPOSITORY_METHOD;
+    }
+
+    /**
+     * Tags padrão do Micrometer mais o método de repositório capturado no início do comando,
+     * que ainda roda na thread da chamada.
+     * <p>
+     * A entrada sai do mapa quando o comando termina; comandos que nunca geram o evento de
+     * sucesso ou falha (conexão fechada no meio, listener removido) expiram depois de
+     * {@link #IN_FLIGHT_TTL}, e o tamanho fica limitado a {@link #MAX_IN_FLIGHT}.
+     */
+    static class RepositoryMethodCommandTagsProvider extends DefaultMongoCommandTagsProvider {
+
+        static final Duration IN_FLIGHT_TTL = Duration.ofMinutes(10);
+        static final long MAX_IN_FLIGHT = 10_000;
+
+        private final Cache<Integer, String> methodsByRequestId;
+
+        RepositoryMethodCommandTagsProvider() {
+            this(Ticker.systemTicker());
+        }
+
+        RepositoryMethodCommandTagsProvider(Ticker ticker) {
+            this.methodsByRequestId = Caffeine.newBuilder()
+                    .maximumSize(MAX_IN_FLIGHT)
+                    .expireAfterWrite(IN_FLIGHT_TTL)
+                    .ticker(ticker)
+                    .build();
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            super.commandStarted(event);
+            methodsByRequestId.put(event.getRequestId(), currentRepositoryMethod());
+        }
+
+        @Override
+        public Iterable<Tag> commandTags(CommandEvent event) {
+            String method = methodsByRequestId.asMap().remove(event.getRequestId());
+            return Tags.of(super.commandTags(event))
+                    .and(REPOSITORY_METHOD_TAG, method != null ? method : NO_REPOSITORY_METHOD);
+        }
+
+        long inFlight() {
+            methodsByRequestId.cleanUp();
+            return methodsByRequestId.estimatedSize();
+        }
+    }
+}
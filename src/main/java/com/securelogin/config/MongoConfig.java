@@ -3,12 +3,17 @@ package com.securelogin.config;
 import com.securelogin.entity.Role;
 import com.securelogin.entity.User;
 import com.securelogin.repository.UserRepository;
+import com.securelogin.service.RoleRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -24,11 +29,15 @@ public class MongoConfig {
     private final MongoTemplate mongoTemplate;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MongoIndexManager mongoIndexManager;
+    private final RoleRegistry roleRegistry;
     
     /**
-     * Inicializa dados básicos do sistema
+     * Inicializa dados básicos do sistema, antes dos demais runners (importação pela linha
+     * de comando)
      */
     @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     public CommandLineRunner initializeData() {
         return args -> {
             log.info("Inicializando dados do sistema...");
@@ -36,11 +45,15 @@ public class MongoConfig {
             // Cria coleções se não existirem
             createCollectionsIfNotExists();
             
+            // Cria índices das consultas dos repositórios
+            mongoIndexManager.initialize();
+            
             // Cria usuário administrador padrão
             createDefaultAdminUser();
             
-            // Cria roles padrão
+            // Cria roles padrão e recarrega o registro, cuja primeira carga pode ter visto a coleção vazia
             createDefaultRoles();
+            roleRegistry.refresh();
             
             log.info("Inicialização de dados concluída com sucesso!");
         };
@@ -101,9 +114,9 @@ public class MongoConfig {
         for (int i = 0; i < roleNames.length; i++) {
             String roleName = roleNames[i];
             
-            // Verifica se a role já existe
-            boolean roleExists = mongoTemplate.collectionExists("roles") &&
-                    mongoTemplate.findById(roleName, Role.class, "roles") != null;
+            // Verifica se a role já existe (o _id é gerado, então a busca é pelo nome)
+            boolean roleExists = mongoTemplate.exists(
+                    Query.query(Criteria.where("name").is(roleName)), Role.class, "roles");
             
             if (!roleExists) {
                 Role role = new Role();
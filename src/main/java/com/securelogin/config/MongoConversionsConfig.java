@@ -0,0 +1,45 @@
+package com.securelogin.config;
+
+import com.securelogin.entity.RoleSet;
+import com.securelogin.service.RoleSetInterner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conversões do mapeamento do MongoDB, usadas pelo MongoTemplate e pelo ReactiveMongoTemplate.
+ * <p>
+ * Fica fora do MongoConfig porque aquela configuração depende do próprio MongoTemplate.
+ */
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(RoleSetInterner roleSetInterner) {
+        return new MongoCustomConversions(Collections.singletonList(new RoleSetReadingConverter(roleSetInterner)));
+    }
+
+    /**
+     * Lê o array roles como a combinação compartilhada. Na escrita não há conversor: RoleSet
+     * é um {@code Set<String>} e é gravado como o mesmo array de nomes.
+     */
+    @ReadingConverter
+    static class RoleSetReadingConverter implements Converter<List<String>, RoleSet> {
+
+        private final RoleSetInterner roleSetInterner;
+
+        RoleSetReadingConverter(RoleSetInterner roleSetInterner) {
+            this.roleSetInterner = roleSetInterner;
+        }
+
+        @Override
+        public RoleSet convert(List<String> roles) {
+            return roleSetInterner.intern(roles);
+        }
+    }
+}
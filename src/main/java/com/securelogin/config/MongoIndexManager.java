@@ -0,0 +1,366 @@
+package com.securelogin.config;
+
+import com.mongodb.client.FindIterable;
+import com.securelogin.dto.LoginAttemptExportRequest;
+import com.securelogin.dto.LoginHistoryView;
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.entity.User;
+import com.securelogin.repository.LoginAttemptRepository;
+import com.securelogin.repository.UserRepository;
+import com.securelogin.service.LockExpiryService;
+import com.securelogin.service.LoginAttemptExportService;
+import com.securelogin.service.LoginAttemptRetentionService;
+import com.securelogin.service.RefreshTokenStore;
+import com.securelogin.service.UserChangeWatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.query.ConvertingParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoParametersParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoQueryMethod;
+import org.springframework.data.mongodb.repository.query.PartTreeMongoQuery;
+import org.springframework.data.mongodb.repository.query.StringBasedMongoQuery;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declara os índices das coleções users, login_attempts, sessions, session_registry e
+ * refresh_tokens.
+ * <p>
+ * Com {@code auto-index-creation} desligado, os índices são criados aqui de forma idempotente,
+ * um para cada consulta dos repositórios. No modo de verificação as consultas montadas pelos
+ * repositórios e serviços são executadas com explain() e a inicialização falha se algum plano
+ * vencedor for COLLSCAN.
+ * <p>
+ * O índice TTL de login_attempts é criado pelo LoginAttemptRetentionService, só depois que as
+ * tentativas a expirar foram consolidadas e arquivadas.
+ */
+@Slf4j
+@Component
+public class MongoIndexManager {
+
+    static final String USERS = "users";
+    static final String LOGIN_ATTEMPTS = "login_attempts";
+    static final String SESSIONS = "sessions";
+    static final String SESSION_REGISTRY = "session_registry";
+
+    // Substituídos pelos índices attempt_time_1__id_1 e TTL em attempt_time, e pelos de
+    // histórico com _id no fim, que desempata a paginação por cursor
+    private static final List<String> LEGACY_ATTEMPT_INDEXES = Arrays.asList(
+            "attempt_time_-1", "username_1_success_1_attempt_time_-1", "username_1_attempt_time_-1");
+
+    private final MongoTemplate mongoTemplate;
+    private final AppProperties appProperties;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate, AppProperties appProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Cria os índices ausentes e, se configurado, verifica os planos de consulta
+     */
+    public void initialize() {
+        ensureIndexes();
+        if (appProperties.getMongodb().isVerifyQueryPlans()) {
+            verifyQueryPlans();
+        }
+    }
+
+    public void ensureIndexes() {
+        for (String legacy : LEGACY_ATTEMPT_INDEXES) {
+            dropIndexIfPresent(LOGIN_ATTEMPTS, legacy);
+        }
+
+        for (Map.Entry<String, List<IndexDefinition>> entry : indexDefinitions().entrySet()) {
+            for (IndexDefinition index : entry.getValue()) {
+                String name = mongoTemplate.indexOps(entry.getKey()).ensureIndex(index);
+                log.debug("Índice '{}' garantido na coleção '{}'", name, entry.getKey());
+            }
+        }
+        log.info("Índices das coleções {} verificados", indexDefinitions().keySet());
+    }
+
+    private void dropIndexIfPresent(String collection, String name) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            if (index.getName().equals(name)) {
+                indexOps.dropIndex(name);
+                log.info("Índice obsoleto '{}' removido da coleção '{}'", name, collection);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Executa explain() nas consultas dos repositórios e serviços
+     *
+     * @throws IllegalStateException se alguma consulta usar varredura completa da coleção
+     */
+    public void verifyQueryPlans() {
+        List<String> collectionScans = new ArrayList<>();
+
+        List<QueryPlanCheck> checks = queryPlanChecks();
+        for (QueryPlanCheck check : checks) {
+            FindIterable<Document> find = mongoTemplate.getCollection(check.collection)
+                    .find(check.filter)
+                    .sort(check.sort);
+            if (check.hint != null) {
+                find.hintString(check.hint);
+            }
+            Document explain = find.explain();
+            Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+            if (containsCollectionScan(winningPlan)) {
+                collectionScans.add(check.name);
+            }
+        }
+
+        if (!collectionScans.isEmpty()) {
+            throw new IllegalStateException("Consultas sem índice (COLLSCAN): " + collectionScans);
+        }
+        log.info("Planos de {} consultas verificados sem COLLSCAN", checks.size());
+    }
+
+    static Map<String, List<IndexDefinition>> indexDefinitions() {
+        Map<String, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+
+        // Mesmos nomes gerados por @Indexed, para não conflitar com auto-index-creation
+        indexes.put(USERS, Arrays.<IndexDefinition>asList(
+                new Index().on("username", Sort.Direction.ASC).unique().named("username"),
+                new Index().on("email", Sort.Direction.ASC).unique().named("email"),
+                new Index().on("is_active", Sort.Direction.ASC),
+                new Index().on("roles", Sort.Direction.ASC),
+                new Index().on("locked_until", Sort.Direction.ASC),
+                new Index().on("created_at", Sort.Direction.ASC),
+                new Index().on("updated_at", Sort.Direction.ASC)));
+
+        indexes.put(LOGIN_ATTEMPTS, Arrays.<IndexDefinition>asList(
+                new Index().on("username", Sort.Direction.ASC).on("success", Sort.Direction.ASC)
+                        .on("attempt_time", Sort.Direction.DESC).on("_id", Sort.Direction.DESC),
+                new Index().on("username", Sort.Direction.ASC).on("attempt_time", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC),
+                new Index().on("ip_address", Sort.Direction.ASC).on("success", Sort.Direction.ASC)
+                        .on("attempt_time", Sort.Direction.DESC),
+                new Index().on("success", Sort.Direction.ASC).on("attempt_time", Sort.Direction.DESC),
+                // Consultas por período (tentativas recentes, arquivamento e consolidação)
+                new Index().on("attempt_time", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)));
+
+        // TTL: o MongoDB remove a sessão quando expire_at passa
+        indexes.put(SESSIONS, Arrays.<IndexDefinition>asList(
+                new Index().on(MongoSessionRepository.EXPIRE_AT, Sort.Direction.ASC).expire(Duration.ZERO)));
+
+        indexes.put(SESSION_REGISTRY, Arrays.<IndexDefinition>asList(
+                new Index().on(ClusteredSessionRegistry.PRINCIPAL, Sort.Direction.ASC),
+                new Index().on(ClusteredSessionRegistry.UPDATED_AT, Sort.Direction.ASC),
+                new Index().on(ClusteredSessionRegistry.EXPIRE_AT, Sort.Direction.ASC).expire(Duration.ZERO)));
+
+        indexes.put(RefreshTokenStore.REFRESH_TOKENS, Arrays.<IndexDefinition>asList(
+                new Index().on(RefreshTokenStore.FAMILY, Sort.Direction.ASC),
+                new Index().on(RefreshTokenStore.EXPIRE_AT, Sort.Direction.ASC).expire(Duration.ZERO)));
+
+        return indexes;
+    }
+
+    /**
+     * Consultas verificadas. As dos repositórios são montadas pelo próprio Spring Data a partir
+     * dos métodos, e as dos serviços pelos mesmos métodos que eles usam; todas passam pelo
+     * mapeamento de campos do MongoTemplate antes do explain()
+     */
+    List<QueryPlanCheck> queryPlanChecks() {
+        Instant now = Instant.now();
+        LocalDateTime localNow = LocalDateTime.now();
+        Limit page = Limit.of(20);
+        ObjectId cursorId = new ObjectId();
+
+        LoginAttemptExportRequest export = new LoginAttemptExportRequest();
+        export.setFrom(localNow.minusDays(1));
+
+        return Arrays.asList(
+                repositoryCheck(UserRepository.class, "findByUsername", "admin"),
+                repositoryCheck(UserRepository.class, "findByEmail", "admin@securelogin.com"),
+                repositoryCheck(UserRepository.class, "findByIsActiveTrue"),
+                repositoryCheck(UserRepository.class, "findByRole", "ADMIN"),
+                repositoryCheck(UserRepository.class, "findLockedUsers", localNow),
+                repositoryCheck(UserRepository.class, "findByCreatedAtBetween", localNow.minusDays(1), localNow),
+                entityCheck("LockExpiryService.rebuild", User.class, LockExpiryService.lockedUsersQuery()),
+                new QueryPlanCheck("UserChangeWatcher.poll", USERS, UserChangeWatcher.updatedSince(now), new Document(), null),
+                repositoryCheck(LoginAttemptRepository.class, "findByUsernameOrderByAttemptTimeDescIdDesc",
+                        "admin", page, LoginHistoryView.class),
+                repositoryCheck(LoginAttemptRepository.class, "findAttemptsBefore",
+                        "admin", localNow, cursorId, page, LoginHistoryView.class),
+                repositoryCheck(LoginAttemptRepository.class, "findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc",
+                        "admin", false, page),
+                repositoryCheck(LoginAttemptRepository.class, "findAttemptsByResultBefore",
+                        "admin", true, localNow, cursorId, page),
+                repositoryCheck(LoginAttemptRepository.class, "findRecentAttempts", localNow),
+                repositoryCheck(LoginAttemptRepository.class, "findFailedAttemptsSince", localNow),
+                repositoryCheck(LoginAttemptRepository.class, "findFailedAttemptsByIpSince", "127.0.0.1", localNow),
+                entityCheck("LoginAttemptRetentionService.archive", LoginAttempt.class,
+                        LoginAttemptRetentionService.archiveQuery(now.truncatedTo(ChronoUnit.HOURS))),
+                entityCheck("LoginAttemptExportService.export", LoginAttempt.class,
+                        LoginAttemptExportService.toQuery(export, Clock.systemDefaultZone())),
+                new QueryPlanCheck("ClusteredSessionRegistry.getAllSessions", SESSION_REGISTRY,
+                        new Document(ClusteredSessionRegistry.PRINCIPAL, "admin"), new Document(), null),
+                new QueryPlanCheck("ClusteredSessionRegistry.poll", SESSION_REGISTRY,
+                        new Document(ClusteredSessionRegistry.UPDATED_AT, new Document("$gte", Date.from(now))),
+                        new Document(), null),
+                new QueryPlanCheck("RefreshTokenStore.revokeFamily", RefreshTokenStore.REFRESH_TOKENS,
+                        RefreshTokenStore.family("family"), new Document(), null));
+    }
+
+    /**
+     * Consulta do método do repositório com os argumentos informados, como na execução
+     */
+    QueryPlanCheck repositoryCheck(Class<?> repository, String methodName, Object... args) {
+        Method method = findMethod(repository, methodName, args);
+        MongoQueryMethod queryMethod = new MongoQueryMethod(method, AbstractRepositoryMetadata.getMetadata(repository),
+                new SpelAwareProxyProjectionFactory(), mongoTemplate.getConverter().getMappingContext());
+        ConvertingParameterAccessor accessor = new ConvertingParameterAccessor(mongoTemplate.getConverter(),
+                new MongoParametersParameterAccessor(queryMethod, args));
+
+        Query query = queryMethod.hasAnnotatedQuery()
+                ? new AnnotatedQuery(queryMethod, mongoTemplate).create(accessor)
+                : new DerivedQuery(queryMethod, mongoTemplate).create(accessor);
+        return entityCheck(repository.getSimpleName() + "." + methodName,
+                queryMethod.getEntityInformation().getJavaType(), query);
+    }
+
+    /**
+     * Filtro e ordenação com os nomes de campo gravados, como o MongoTemplate os envia
+     */
+    QueryPlanCheck entityCheck(String name, Class<?> entityType, Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entityType);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        return new QueryPlanCheck(name, entity.getCollection(),
+                mapper.getMappedObject(query.getQueryObject(), entity),
+                mapper.getMappedSort(query.getSortObject(), entity),
+                query.getHint());
+    }
+
+    /**
+     * Sobrecarga cujos parâmetros aceitam os argumentos; as de projeção dinâmica têm um a mais
+     */
+    private static Method findMethod(Class<?> repository, String name, Object[] args) {
+        for (Method method : repository.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == args.length
+                    && accepts(method.getParameterTypes(), args)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Método não encontrado: " + repository.getSimpleName() + "." + name);
+    }
+
+    private static boolean accepts(Class<?>[] types, Object[] args) {
+        for (int i = 0; i < types.length; i++) {
+            if (!ClassUtils.isAssignableValue(types[i], args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Procura um estágio COLLSCAN em qualquer nível do plano, inclusive no formato do SBE
+     */
+    static boolean containsCollectionScan(Object plan) {
+        if (plan instanceof Document) {
+            Document document = (Document) plan;
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (containsCollectionScan(value)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List) {
+            for (Object value : (List<?>) plan) {
+                if (containsCollectionScan(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static class QueryPlanCheck {
+        private final String name;
+        private final String collection;
+        private final Bson filter;
+        private final Document sort;
+        private final String hint;
+
+        QueryPlanCheck(String name, String collection, Bson filter, Document sort, String hint) {
+            this.name = name;
+            this.collection = collection;
+            this.filter = filter;
+            this.sort = sort;
+            this.hint = hint;
+        }
+    }
+
+    /**
+     * Expõe a consulta montada pelo Spring Data para métodos derivados do nome
+     */
+    private static final class DerivedQuery extends PartTreeMongoQuery {
+
+        DerivedQuery(MongoQueryMethod method, MongoOperations operations) {
+            super(method, operations, new SpelExpressionParser(), QueryMethodEvaluationContextProvider.DEFAULT);
+        }
+
+        Query create(ConvertingParameterAccessor accessor) {
+            return createQuery(accessor);
+        }
+    }
+
+    /**
+     * Expõe a consulta montada pelo Spring Data para métodos com @Query, com a ordenação da
+     * anotação, que o Spring Data só aplica ao executar
+     */
+    private static final class AnnotatedQuery extends StringBasedMongoQuery {
+
+        AnnotatedQuery(MongoQueryMethod method, MongoOperations operations) {
+            super(method, operations, new SpelExpressionParser(), QueryMethodEvaluationContextProvider.DEFAULT);
+        }
+
+        Query create(ConvertingParameterAccessor accessor) {
+            Query query = createQuery(accessor);
+            if (getQueryMethod().hasAnnotatedSort() && query instanceof BasicQuery) {
+                ((BasicQuery) query).setSortObject(Document.parse(getQueryMethod().getAnnotatedSort()));
+            }
+            return query;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.securelogin.config;
+
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Sessão HTTP guardada em um documento da coleção sessions.
+ * <p>
+ * Os atributos continuam serializados até o primeiro {@link #getAttribute(String)}, e o
+ * repositório grava apenas os atributos alterados durante a requisição.
+ */
+public final class MongoSession implements Session {
+
+    private final Function<byte[], Object> deserializer;
+    private final Instant creationTime;
+    private final Map<String, byte[]> serializedAttributes;
+
+    // Atributos lidos ou alterados nesta requisição; valor null indica atributo removido
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final Set<String> changedAttributes = new HashSet<>();
+
+    private String id;
+    private String originalId;
+    private Instant lastAccessedTime;
+    private Instant persistedLastAccessedTime;
+    private Duration maxInactiveInterval;
+    private boolean maxInactiveIntervalChanged;
+
+    /**
+     * Nova sessão, ainda não gravada
+     */
+    MongoSession(Instant now, Duration maxInactiveInterval) {
+        this.deserializer = bytes -> null;
+        this.id = generateId();
+        this.creationTime = now;
+        this.lastAccessedTime = now;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.serializedAttributes = new HashMap<>();
+    }
+
+    /**
+     * Sessão existente, a partir do estado lido do MongoDB ou do cache local
+     */
+    MongoSession(Snapshot snapshot, Function<byte[], Object> deserializer) {
+        this.deserializer = deserializer;
+        this.id = snapshot.id;
+        this.originalId = snapshot.id;
+        this.creationTime = snapshot.creationTime;
+        this.lastAccessedTime = snapshot.lastAccessedTime;
+        this.persistedLastAccessedTime = snapshot.lastAccessedTime;
+        this.maxInactiveInterval = snapshot.maxInactiveInterval;
+        this.serializedAttributes = new HashMap<>(snapshot.attributes);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        id = generateId();
+        return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        if (attributes.containsKey(attributeName)) {
+            return (T) attributes.get(attributeName);
+        }
+        byte[] serialized = serializedAttributes.get(attributeName);
+        if (serialized == null) {
+            return null;
+        }
+        Object value = deserializer.apply(serialized);
+        attributes.put(attributeName, value);
+        return (T) value;
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        Set<String> names = new HashSet<>(serializedAttributes.keySet());
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (entry.getValue() == null) {
+                names.remove(entry.getKey());
+            } else {
+                names.add(entry.getKey());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        attributes.put(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        setAttribute(attributeName, null);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(maxInactiveInterval)) {
+            maxInactiveInterval = interval;
+            maxInactiveIntervalChanged = true;
+        }
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return expired(lastAccessedTime, maxInactiveInterval, Instant.now());
+    }
+
+    boolean isNew() {
+        return originalId == null;
+    }
+
+    boolean isIdChanged() {
+        return originalId != null && !originalId.equals(id);
+    }
+
+    String getOriginalId() {
+        return originalId;
+    }
+
+    /**
+     * Atributos alterados nesta requisição; valor null indica atributo removido
+     */
+    Map<String, Object> getChangedAttributes() {
+        Map<String, Object> changed = new HashMap<>();
+        for (String name : changedAttributes) {
+            changed.put(name, attributes.get(name));
+        }
+        return changed;
+    }
+
+    Map<String, byte[]> getSerializedAttributes() {
+        return Collections.unmodifiableMap(serializedAttributes);
+    }
+
+    boolean isMaxInactiveIntervalChanged() {
+        return maxInactiveIntervalChanged;
+    }
+
+    /**
+     * Há algo a gravar: atributos, timeout ou último acesso mais antigo que o intervalo de toque
+     */
+    boolean isDirty(Duration touchInterval) {
+        return !changedAttributes.isEmpty()
+                || maxInactiveIntervalChanged
+                || !lastAccessedTime.isBefore(persistedLastAccessedTime.plus(touchInterval));
+    }
+
+    /**
+     * Registra o estado gravado, para que um novo save() só grave alterações posteriores
+     *
+     * @param written atributos serializados na gravação; valor null indica atributo removido
+     */
+    void markPersisted(Map<String, byte[]> written) {
+        for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+            if (entry.getValue() == null) {
+                serializedAttributes.remove(entry.getKey());
+            } else {
+                serializedAttributes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        changedAttributes.clear();
+        originalId = id;
+        persistedLastAccessedTime = lastAccessedTime;
+        maxInactiveIntervalChanged = false;
+    }
+
+    Snapshot toSnapshot() {
+        return new Snapshot(id, creationTime, persistedLastAccessedTime, maxInactiveInterval, serializedAttributes);
+    }
+
+    static boolean expired(Instant lastAccessedTime, Duration maxInactiveInterval, Instant now) {
+        return !maxInactiveInterval.isNegative() && now.isAfter(lastAccessedTime.plus(maxInactiveInterval));
+    }
+
+    private static String generateId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Estado imutável de uma sessão gravada, compartilhado entre requisições pelo cache local
+     */
+    static final class Snapshot {
+        private final String id;
+        private final Instant creationTime;
+        private final Instant lastAccessedTime;
+        private final Duration maxInactiveInterval;
+        private final Map<String, byte[]> attributes;
+
+        Snapshot(String id, Instant creationTime, Instant lastAccessedTime, Duration maxInactiveInterval,
+                 Map<String, byte[]> attributes) {
+            this.id = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.maxInactiveInterval = maxInactiveInterval;
+            this.attributes = Collections.unmodifiableMap(new HashMap<>(attributes));
+        }
+
+        boolean isExpired(Instant now) {
+            return expired(lastAccessedTime, maxInactiveInterval, now);
+        }
+
+        /**
+         * Aplica uma gravação parcial, preservando atributos gravados por requisições concorrentes
+         */
+        Snapshot merge(Map<String, byte[]> written, Instant lastAccessedTime, Duration maxInactiveInterval) {
+            Map<String, byte[]> merged = new HashMap<>(attributes);
+            for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+                if (entry.getValue() == null) {
+                    merged.remove(entry.getKey());
+                } else {
+                    merged.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Instant latest = lastAccessedTime.isAfter(this.lastAccessedTime) ? lastAccessedTime : this.lastAccessedTime;
+            return new Snapshot(id, creationTime, latest, maxInactiveInterval, merged);
+        }
+    }
+}
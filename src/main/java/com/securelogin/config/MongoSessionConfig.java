@@ -0,0 +1,38 @@
+package com.securelogin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.session.SessionProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+
+/**
+ * Sessões HTTP no MongoDB, para que qualquer nó atenda qualquer requisição sem balanceamento
+ * com afinidade. Com {@code app.session.store=memory} as sessões voltam para a memória do Tomcat.
+ */
+@Slf4j
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.session", name = "store", havingValue = "mongo", matchIfMissing = true)
+public class MongoSessionConfig {
+    
+    @Bean
+    public MongoSessionRepository sessionRepository(MongoTemplate mongoTemplate, AppProperties appProperties,
+                                                    SessionProperties sessionProperties,
+                                                    ServerProperties serverProperties) {
+        Duration timeout = sessionProperties.determineTimeout(
+                () -> serverProperties.getServlet().getSession().getTimeout());
+        AppProperties.Session properties = appProperties.getSession();
+        
+        log.info("Sessões HTTP no MongoDB: timeout {}, gravação do último acesso a cada {}, cache local de {}",
+                timeout, properties.getTouchInterval(), properties.getNearCacheTtl());
+        return new MongoSessionRepository(mongoTemplate, timeout, properties);
+    }
+}
@@ -0,0 +1,300 @@
+package com.securelogin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.events.SessionDeletedEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repositório de sessões HTTP na coleção sessions, compartilhado por todos os nós.
+ * <p>
+ * Cada atributo é um campo do documento, gravado com {@code $set}/{@code $unset} apenas
+ * quando alterado. O último acesso só é gravado depois de {@code touch-interval}, então
+ * requisições que apenas leem a sessão não geram escrita. Sessões lidas ficam em um cache
+ * local por {@code near-cache-ttl}; alterações feitas em outro nó podem levar esse tempo
+ * para aparecer aqui. O índice TTL em expire_at remove as sessões expiradas.
+ */
+@Slf4j
+public class MongoSessionRepository implements SessionRepository<MongoSession>, ApplicationEventPublisherAware {
+
+    static final String ID = "_id";
+    static final String CREATED_AT = "created_at";
+    static final String LAST_ACCESSED_AT = "last_accessed_at";
+    static final String MAX_INACTIVE_SECONDS = "max_inactive_seconds";
+    static final String EXPIRE_AT = "expire_at";
+    static final String ATTRIBUTES = "attributes";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration defaultMaxInactiveInterval;
+    private final Duration touchInterval;
+    private final Cache<String, MongoSession.Snapshot> nearCache;
+    private final Clock clock;
+    private ApplicationEventPublisher eventPublisher = event -> { };
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer =
+            new DeserializingConverter(MongoSessionRepository.class.getClassLoader());
+
+    private final LongAdder inserts = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+    private final LongAdder deletes = new LongAdder();
+
+    public MongoSessionRepository(MongoTemplate mongoTemplate, Duration defaultMaxInactiveInterval,
+                                  AppProperties.Session properties) {
+        this(mongoTemplate, defaultMaxInactiveInterval, properties, Clock.systemUTC());
+    }
+
+    MongoSessionRepository(MongoTemplate mongoTemplate, Duration defaultMaxInactiveInterval,
+                           AppProperties.Session properties, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchInterval = properties.getTouchInterval();
+        this.clock = clock;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(properties.getNearCacheMaximumSize())
+                .expireAfterWrite(properties.getNearCacheTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public MongoSession createSession() {
+        return new MongoSession(clock.instant(), defaultMaxInactiveInterval);
+    }
+
+    @Override
+    public void save(MongoSession session) {
+        if (session.isNew() || session.isIdChanged()) {
+            insert(session);
+            return;
+        }
+        if (!session.isDirty(touchInterval)) {
+            skippedWrites.increment();
+            return;
+        }
+
+        Map<String, byte[]> written = serializeChanges(session);
+        List<Bson> changes = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+            String field = ATTRIBUTES + "." + encodeAttributeName(entry.getKey());
+            changes.add(entry.getValue() == null ? Updates.unset(field) : Updates.set(field, new Binary(entry.getValue())));
+        }
+        if (session.isMaxInactiveIntervalChanged()) {
+            changes.add(Updates.set(MAX_INACTIVE_SECONDS, session.getMaxInactiveInterval().getSeconds()));
+        }
+        changes.add(Updates.set(LAST_ACCESSED_AT, Date.from(session.getLastAccessedTime())));
+        changes.add(expireAtUpdate(session));
+
+        UpdateResult result = collection().updateOne(Filters.eq(ID, session.getId()), Updates.combine(changes));
+        updates.increment();
+        session.markPersisted(written);
+
+        if (result.getMatchedCount() == 0) {
+            // Removida por logout ou expiração; não recria um documento parcial
+            log.debug("Sessão {} não existe mais; alterações descartadas", session.getId());
+            nearCache.invalidate(session.getId());
+            return;
+        }
+        nearCache.asMap().computeIfPresent(session.getId(), (id, cached) ->
+                cached.merge(written, session.getLastAccessedTime(), session.getMaxInactiveInterval()));
+    }
+
+    @Override
+    public MongoSession findById(String id) {
+        Instant now = clock.instant();
+        MongoSession.Snapshot snapshot = nearCache.getIfPresent(id);
+        if (snapshot != null && snapshot.isExpired(now)) {
+            // Outro nó pode ter gravado um acesso mais recente
+            nearCache.invalidate(id);
+            snapshot = null;
+        }
+        if (snapshot == null) {
+            Document document = collection().find(Filters.eq(ID, id)).first();
+            if (document == null) {
+                return null;
+            }
+            snapshot = toSnapshot(document);
+            if (snapshot.isExpired(now)) {
+                // O índice TTL remove o documento
+                return null;
+            }
+            nearCache.put(id, snapshot);
+        }
+        return new MongoSession(snapshot, this::deserialize);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        collection().deleteOne(Filters.eq(ID, id));
+        nearCache.invalidate(id);
+        deletes.increment();
+        eventPublisher.publishEvent(new SessionDeletedEvent(this, new MapSession(id)));
+    }
+
+    /**
+     * Descarta a cópia local de uma sessão alterada ou removida em outro nó
+     */
+    public void evict(String id) {
+        nearCache.invalidate(id);
+    }
+
+    public Stats getStats() {
+        CacheStats stats = nearCache.stats();
+        return new Stats(
+                nearCache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                inserts.sum(),
+                updates.sum(),
+                skippedWrites.sum(),
+                deletes.sum()
+        );
+    }
+
+    private void insert(MongoSession session) {
+        Map<String, byte[]> written = serializeChanges(session);
+        Map<String, byte[]> attributes = new HashMap<>(session.getSerializedAttributes());
+        for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+            if (entry.getValue() == null) {
+                attributes.remove(entry.getKey());
+            } else {
+                attributes.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Document encodedAttributes = new Document();
+        attributes.forEach((name, value) -> encodedAttributes.put(encodeAttributeName(name), new Binary(value)));
+        Document document = new Document(ID, session.getId())
+                .append(CREATED_AT, Date.from(session.getCreationTime()))
+                .append(LAST_ACCESSED_AT, Date.from(session.getLastAccessedTime()))
+                .append(MAX_INACTIVE_SECONDS, session.getMaxInactiveInterval().getSeconds())
+                .append(ATTRIBUTES, encodedAttributes);
+        Date expireAt = expireAt(session);
+        if (expireAt != null) {
+            document.append(EXPIRE_AT, expireAt);
+        }
+
+        collection().insertOne(document);
+        inserts.increment();
+
+        // Nova identificação após o login (proteção contra fixação de sessão)
+        if (session.isIdChanged()) {
+            String originalId = session.getOriginalId();
+            collection().deleteOne(Filters.eq(ID, originalId));
+            nearCache.invalidate(originalId);
+        }
+
+        session.markPersisted(written);
+        nearCache.put(session.getId(), session.toSnapshot());
+    }
+
+    private Map<String, byte[]> serializeChanges(MongoSession session) {
+        Map<String, byte[]> written = new HashMap<>();
+        for (Map.Entry<String, Object> entry : session.getChangedAttributes().entrySet()) {
+            written.put(entry.getKey(), entry.getValue() == null ? null : serializer.convert(entry.getValue()));
+        }
+        return written;
+    }
+
+    private Object deserialize(byte[] serialized) {
+        try {
+            return deserializer.convert(serialized);
+        } catch (SerializationFailedException e) {
+            // Classe alterada entre versões: o atributo é tratado como ausente
+            log.warn("Atributo de sessão ignorado por falha na desserialização: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private MongoSession.Snapshot toSnapshot(Document document) {
+        Map<String, byte[]> attributes = new HashMap<>();
+        Document encodedAttributes = document.get(ATTRIBUTES, Document.class);
+        if (encodedAttributes != null) {
+            for (Map.Entry<String, Object> entry : encodedAttributes.entrySet()) {
+                attributes.put(decodeAttributeName(entry.getKey()), ((Binary) entry.getValue()).getData());
+            }
+        }
+        return new MongoSession.Snapshot(
+                document.getString(ID),
+                document.getDate(CREATED_AT).toInstant(),
+                document.getDate(LAST_ACCESSED_AT).toInstant(),
+                Duration.ofSeconds(((Number) document.get(MAX_INACTIVE_SECONDS)).longValue()),
+                attributes);
+    }
+
+    private static Bson expireAtUpdate(MongoSession session) {
+        Date expireAt = expireAt(session);
+        return expireAt == null ? Updates.unset(EXPIRE_AT) : Updates.set(EXPIRE_AT, expireAt);
+    }
+
+    /**
+     * Instante em que o índice TTL remove a sessão; null para sessões sem timeout
+     */
+    private static Date expireAt(MongoSession session) {
+        Duration maxInactiveInterval = session.getMaxInactiveInterval();
+        return maxInactiveInterval.isNegative()
+                ? null
+                : Date.from(session.getLastAccessedTime().plus(maxInactiveInterval));
+    }
+
+    /**
+     * Nomes de campo do MongoDB não aceitam '.' nem '$'; '%' é escapado para a volta ser exata
+     */
+    static String encodeAttributeName(String name) {
+        return name.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    static String decodeAttributeName(String field) {
+        return field.replace("%2E", ".").replace("%24", "$").replace("%25", "%");
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(MongoIndexManager.SESSIONS);
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private long nearCacheSize;
+        private long nearCacheHits;
+        private long nearCacheMisses;
+        private double nearCacheHitRate;
+        private long inserts;
+        private long updates;
+        private long skippedWrites;
+        private long deletes;
+    }
+}
@@ -1,15 +1,87 @@
 package com.securelogin.config;
 
+import com.securelogin.service.PasswordHashingExecutor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Configuration
 public class PasswordConfig {
-    
+
+    private static final String CALIBRATION_PASSWORD = "calibracao-do-custo-de-hash";
+    private static final int CALIBRATION_SAMPLES = 2;
+
+    /**
+     * Encoder com prefixo {id}: novos hashes usam o algoritmo configurado e hashes
+     * antigos (custo menor, outro algoritmo ou sem prefixo) são regravados no próximo login
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor, AppProperties appProperties) {
+        AppProperties.Hashing hashing = appProperties.getSecurity().getHashing();
+        int strength = hashing.isCalibrate() ? calibrateBcryptStrength(hashing) : hashing.getStrength();
+        log.info("Custo do BCrypt definido em {}", strength);
+
+        return new BoundedPasswordEncoder(createDelegatingEncoder(hashing.getAlgorithm(), strength), passwordHashingExecutor);
+    }
+
+    static PasswordEncoder createDelegatingEncoder(String algorithm, int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes gravados antes da adoção do prefixo {id} são BCrypt puros
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+        return encoder;
+    }
+
+    /**
+     * Escolhe o maior custo cuja verificação cabe na latência alvo neste host,
+     * sem descer abaixo do custo mínimo configurado
+     */
+    static int calibrateBcryptStrength(AppProperties.Hashing hashing) {
+        long targetNanos = hashing.getTargetLatency().toNanos();
+        int chosen = hashing.getMinStrength();
+
+        // Aquecimento para que o JIT não distorça a primeira medição
+        measureBcrypt(hashing.getMinStrength());
+
+        for (int strength = hashing.getMinStrength(); strength <= hashing.getMaxStrength(); strength++) {
+            long elapsed = measureBcrypt(strength);
+            log.debug("Calibração do BCrypt: custo {} levou {} ms", strength, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+            if (elapsed > targetNanos) {
+                if (strength == hashing.getMinStrength()) {
+                    log.warn("Custo mínimo {} excede a latência alvo de {} neste host",
+                            strength, hashing.getTargetLatency());
+                }
+                break;
+            }
+            chosen = strength;
+        }
+
+        return chosen;
+    }
+
+    private static long measureBcrypt(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
     }
 }
@@ -0,0 +1,53 @@
+package com.securelogin.config;
+
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.DefaultServerRedirectStrategy;
+import org.springframework.security.web.server.ServerRedirectStrategy;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.ServerAuthenticationFailureHandler;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Equivalente reativo de {@link LoginFailureHandler}: responde 503 quando o pool de hashing
+ * está saturado e indica o bloqueio temporário da conta
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLoginFailureHandler implements ServerAuthenticationFailureHandler {
+
+    private final AppProperties appProperties;
+    private final ServerRedirectStrategy redirectStrategy = new DefaultServerRedirectStrategy();
+
+    public ReactiveLoginFailureHandler(AppProperties appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public Mono<Void> onAuthenticationFailure(WebFilterExchange webFilterExchange, AuthenticationException exception) {
+        if (exception instanceof HashingRejectedException) {
+            log.warn("Login rejeitado por sobrecarga: {}", ((HashingRejectedException) exception).getReason());
+            ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()));
+            return response.setComplete();
+        }
+        
+        if (exception instanceof LockedException) {
+            return redirectStrategy.sendRedirect(webFilterExchange.getExchange(), URI.create("/login?error=account_locked"));
+        }
+        
+        return redirectStrategy.sendRedirect(webFilterExchange.getExchange(), URI.create("/login?error=true"));
+    }
+}
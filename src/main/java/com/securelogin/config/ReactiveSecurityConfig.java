@@ -0,0 +1,158 @@
+package com.securelogin.config;
+
+import com.securelogin.service.AuthenticationMetrics;
+import com.securelogin.service.LoginLockoutService;
+import com.securelogin.service.ReactiveUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.DefaultServerRedirectStrategy;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerRedirectStrategy;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.RedirectServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.RedirectServerAuthenticationSuccessHandler;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.authentication.ServerFormLoginAuthenticationConverter;
+import org.springframework.security.web.server.authentication.logout.RedirectServerLogoutSuccessHandler;
+import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Equivalente WebFlux de {@link SecurityConfig}, ativo apenas no perfil reactive
+ * ({@code spring.main.web-application-type=reactive})
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+    
+    private final ReactiveUserService userService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ReactiveLoginFailureHandler loginFailureHandler;
+    private final LoginLockoutService loginLockoutService;
+    private final AuthenticationEventPublisher authenticationEventPublisher;
+    private final AuthenticationMetrics authenticationMetrics;
+    
+    @Bean
+    public LockoutAwareReactiveAuthenticationManager reactiveAuthenticationManager() {
+        return new LockoutAwareReactiveAuthenticationManager(userService, passwordEncoder, loginLockoutService,
+                authenticationEventPublisher, authenticationMetrics);
+    }
+    
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        WebSessionServerSecurityContextRepository securityContextRepository = new WebSessionServerSecurityContextRepository();
+        ServerRedirectStrategy redirectStrategy = new DefaultServerRedirectStrategy();
+        
+        // Login por formulário com IP e User-Agent nos detalhes, como no modo servlet
+        AuthenticationWebFilter loginFilter = new AuthenticationWebFilter(reactiveAuthenticationManager());
+        loginFilter.setRequiresAuthenticationMatcher(ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/login"));
+        loginFilter.setServerAuthenticationConverter(loginFormConverter());
+        loginFilter.setSecurityContextRepository(securityContextRepository);
+        loginFilter.setAuthenticationSuccessHandler(new RedirectServerAuthenticationSuccessHandler("/dashboard"));
+        loginFilter.setAuthenticationFailureHandler(loginFailureHandler);
+        
+        RedirectServerLogoutSuccessHandler logoutSuccessHandler = new RedirectServerLogoutSuccessHandler();
+        logoutSuccessHandler.setLogoutSuccessUrl(URI.create("/login?logout=true"));
+        
+        http
+            // Desabilita CSRF, como no modo servlet
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            
+            // Configuração de autorização
+            .authorizeExchange(exchanges -> exchanges
+                // Recursos públicos
+                .pathMatchers(
+                    "/",
+                    "/login",
+                    "/register",
+                    "/register/**",
+                    "/css/**",
+                    "/js/**",
+                    "/images/**",
+                    "/favicon.ico",
+                    "/error"
+                ).permitAll()
+                
+                // Health check público; demais endpoints do Actuator (inclusive Prometheus) só para ADMIN
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")
+                
+                // Rotas administrativas
+                .pathMatchers("/admin/**").hasRole("ADMIN")
+                
+                // Rotas de usuário autenticado
+                .pathMatchers("/dashboard/**", "/profile/**").hasAnyRole("USER", "ADMIN")
+                
+                // APIs públicas (se necessário)
+                .pathMatchers("/api/public/**").permitAll()
+                
+                // APIs protegidas
+                .pathMatchers("/api/**").hasAnyRole("USER", "ADMIN")
+                
+                // Todas as outras requisições requerem autenticação
+                .anyExchange().authenticated()
+            )
+            
+            // Usuário anônimo para que as páginas públicas avaliem #authentication como no modo servlet
+            .anonymous(Customizer.withDefaults())
+            
+            .securityContextRepository(securityContextRepository)
+            .addFilterAt(loginFilter, SecurityWebFiltersOrder.FORM_LOGIN)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            
+            // Configuração de logout
+            .logout(logout -> logout
+                .logoutUrl("/logout")
+                .logoutSuccessHandler(logoutSuccessHandler)
+            )
+            
+            // Configuração de headers de segurança
+            .headers(headers -> headers
+                .frameOptions(frameOptions -> frameOptions
+                    .mode(XFrameOptionsServerHttpHeadersWriter.Mode.DENY))
+                .hsts(hsts -> hsts.maxAge(Duration.ofSeconds(31536000)))
+            )
+            
+            // Configuração de exceções
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new RedirectServerAuthenticationEntryPoint("/login?error=unauthorized"))
+                .accessDeniedHandler((exchange, denied) ->
+                    redirectStrategy.sendRedirect(exchange, URI.create("/access-denied")))
+            );
+        
+        return http.build();
+    }
+    
+    private static ServerAuthenticationConverter loginFormConverter() {
+        ServerFormLoginAuthenticationConverter formConverter = new ServerFormLoginAuthenticationConverter();
+        return exchange -> formConverter.convert(exchange)
+                .map(authentication -> {
+                    ServerHttpRequest request = exchange.getRequest();
+                    InetSocketAddress remoteAddress = request.getRemoteAddress();
+                    ((UsernamePasswordAuthenticationToken) authentication)
+                            .setDetails(new LoginAttemptDetails(
+                                    remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null,
+                                    request.getHeaders().getFirst(HttpHeaders.USER_AGENT)));
+                    return authentication;
+                });
+    }
+}
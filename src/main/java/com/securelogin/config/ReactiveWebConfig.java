@@ -0,0 +1,53 @@
+package com.securelogin.config;
+
+import io.netty.util.NetUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.stream.Collectors;
+
+/**
+ * Servidor do perfil reactive. Com o Tomcat também no classpath (modo servlet padrão),
+ * o Spring Boot o escolheria para o WebFlux; o Netty atende as conexões com poucas
+ * threads de event loop.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().collect(Collectors.toList()));
+        return factory;
+    }
+
+    /**
+     * IP do cliente atrás de proxies confiáveis, pela mesma regra do RemoteIpValve do modo
+     * servlet. Substitui o tratamento padrão do Netty, que aceitaria o cabeçalho de qualquer conexão
+     */
+    @Bean
+    public NettyServerCustomizer forwardedForCustomizer(AppProperties appProperties) {
+        TrustedProxies trustedProxies = new TrustedProxies(appProperties.getSecurity().getTrustedProxies());
+        return server -> server.forwarded((connection, request) -> {
+            InetSocketAddress peer = connection.getRemoteAddress();
+            if (peer == null || peer.getAddress() == null) {
+                return connection;
+            }
+
+            String client = trustedProxies.clientAddress(peer.getAddress().getHostAddress(),
+                    request.headers().getAll(TrustedProxies.X_FORWARDED_FOR));
+            // Apenas IPs literais: um nome no cabeçalho faria uma consulta DNS no event loop
+            InetAddress address = NetUtil.createInetAddressFromIpAddressString(client);
+            return address == null || address.equals(peer.getAddress())
+                    ? connection
+                    : connection.withRemoteAddress(new InetSocketAddress(address, peer.getPort()));
+        });
+    }
+}
@@ -1,9 +1,14 @@
 package com.securelogin.config;
 
+import com.securelogin.service.AuthenticationMetrics;
+import com.securelogin.service.LoginLockoutService;
 import com.securelogin.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,17 +16,25 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
 
 /**
  * Configuração de Segurança do Spring Security
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
@@ -29,13 +42,17 @@ public class SecurityConfig {
     
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
-    
+    private final LoginFailureHandler loginFailureHandler;
+    private final LoginLockoutService loginLockoutService;
+    private final AuthenticationMetrics authenticationMetrics;
     
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userService);
+        DaoAuthenticationProvider authProvider = new LockoutAwareAuthenticationProvider(loginLockoutService, authenticationMetrics);
+        authProvider.setUserDetailsService(username -> authenticationMetrics.record(
+                AuthenticationMetrics.Phase.USER_LOOKUP, () -> userService.loadUserByUsername(username)));
         authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
     
@@ -43,8 +60,56 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
+    /**
+     * Cadeia sem estado para /api/**: tokens de acesso assinados, validados em memória,
+     * sem sessão e sem consulta ao MongoDB por requisição
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, CachingJwtDecoder jwtDecoder) throws Exception {
+        // Papéis já vêm com o prefixo ROLE_ de User.getAuthorities()
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(TokenConfig.ROLES_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("");
+        JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+        authenticationConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        
+        http
+            .securityMatcher("/api/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            
+            .authorizeHttpRequests(auth -> auth
+                // Emissão, renovação e revogação de tokens e APIs públicas
+                .requestMatchers("/api/auth/token", "/api/auth/refresh", "/api/auth/revoke", "/api/public/**").permitAll()
+                
+                // APIs protegidas
+                .anyRequest().hasAnyRole("USER", "ADMIN")
+            )
+            
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt
+                    .decoder(jwtDecoder)
+                    .jwtAuthenticationConverter(authenticationConverter)
+                )
+            );
+        
+        return http.build();
+    }
+    
+    /**
+     * Leva a invalidação das sessões do Tomcat ao registro de sessões (app.session.store=memory)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.session", name = "store", havingValue = "memory")
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
+    }
+    
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http, ClusteredSessionRegistry sessionRegistry) throws Exception {
         http
             // Desabilita CSRF para APIs REST (opcional, pode ser habilitado)
             .csrf(AbstractHttpConfigurer::disable)
@@ -64,27 +129,35 @@ public class SecurityConfig {
                     "/error"
                 ).permitAll()
                 
+                // Health check público; demais endpoints do Actuator (inclusive Prometheus) só para ADMIN
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // Rotas administrativas
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 
                 // Rotas de usuário autenticado
                 .requestMatchers("/dashboard/**", "/profile/**").hasAnyRole("USER", "ADMIN")
                 
-                // APIs públicas (se necessário)
-                .requestMatchers("/api/public/**").permitAll()
-                
-                // APIs protegidas
-                .requestMatchers("/api/**").hasAnyRole("USER", "ADMIN")
-                
                 // Todas as outras requisições requerem autenticação
                 .anyRequest().authenticated()
             )
             
+            // Contexto de segurança com a criação da sessão medida
+            .securityContext(context -> context
+                .securityContextRepository(new TimedSecurityContextRepository(
+                    new DelegatingSecurityContextRepository(
+                        new RequestAttributeSecurityContextRepository(),
+                        new HttpSessionSecurityContextRepository()),
+                    authenticationMetrics))
+            )
+            
             // Configuração de login simplificada
             .formLogin(form -> form
                 .loginPage("/login")
+                .authenticationDetailsSource(LoginAttemptDetails::new)
                 .defaultSuccessUrl("/dashboard", true)
-                .failureUrl("/login?error=true")
+                .failureHandler(loginFailureHandler)
                 .permitAll()
             )
             
@@ -99,8 +172,9 @@ public class SecurityConfig {
             
             // Configuração de sessão
             .sessionManagement(session -> session
-                .maximumSessions(1) // Apenas uma sessão por usuário
+                .maximumSessions(1) // Apenas uma sessão por usuário, em todos os nós
                 .maxSessionsPreventsLogin(false) // Permite nova sessão, invalida a anterior
+                .sessionRegistry(sessionRegistry)
                 .expiredUrl("/login?expired")
             )
             
@@ -0,0 +1,42 @@
+package com.securelogin.config;
+
+import com.securelogin.service.AuthenticationMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+/**
+ * Mede a gravação do contexto de segurança, onde a sessão HTTP é criada após o login
+ */
+@RequiredArgsConstructor
+public class TimedSecurityContextRepository implements SecurityContextRepository {
+
+    private final SecurityContextRepository delegate;
+    private final AuthenticationMetrics authenticationMetrics;
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return delegate.loadContext(requestResponseHolder);
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return delegate.loadDeferredContext(request);
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        authenticationMetrics.record(AuthenticationMetrics.Phase.SESSION,
+                () -> delegate.saveContext(context, request, response));
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return delegate.containsContext(request);
+    }
+}
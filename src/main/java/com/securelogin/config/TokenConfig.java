@@ -0,0 +1,102 @@
+package com.securelogin.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Chave, emissor e validadores dos tokens HMAC-SHA256 usados em /api/**
+ */
+@Slf4j
+@Configuration
+public class TokenConfig {
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    public static final String DEV_PROFILE = "dev";
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    /**
+     * Chave de {@code app.security.token.secret}. A chave aleatória, que não sobrevive a um
+     * reinício nem vale em outros nós, só é aceita no perfil dev
+     *
+     * @throws IllegalStateException se a chave faltar fora do perfil dev ou tiver menos de 256 bits
+     */
+    @Bean
+    public SecretKey tokenSigningKey(AppProperties appProperties, Environment environment) {
+        String secret = appProperties.getSecurity().getToken().getSecret();
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            if (!environment.acceptsProfiles(Profiles.of(DEV_PROFILE))) {
+                throw new IllegalStateException("app.security.token.secret (APP_TOKEN_SECRET) não definido; "
+                        + "a chave aleatória só é aceita no perfil " + DEV_PROFILE);
+            }
+            log.warn("app.security.token.secret não definido: usando chave aleatória; tokens emitidos não valem após reinício nem em outros nós");
+            keyBytes = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+            if (keyBytes.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("app.security.token.secret deve ter pelo menos 256 bits");
+            }
+        }
+        return new SecretKeySpec(keyBytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    /**
+     * Decoder das requisições a /api/**: aceita apenas tokens de acesso e guarda os já validados
+     */
+    @Bean
+    public CachingJwtDecoder jwtDecoder(SecretKey tokenSigningKey, AppProperties appProperties) {
+        AppProperties.Token token = appProperties.getSecurity().getToken();
+        return new CachingJwtDecoder(createDecoder(tokenSigningKey, token.getIssuer(), ACCESS_TOKEN),
+                token.getCacheMaximumSize());
+    }
+
+    /**
+     * Decoder sem cache que exige assinatura, emissor, validade e o uso informado
+     */
+    public static JwtDecoder createDecoder(SecretKey key, String issuer, String tokenUse) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer), tokenUseValidator(tokenUse)));
+        return decoder;
+    }
+
+    private static OAuth2TokenValidator<Jwt> tokenUseValidator(String tokenUse) {
+        OAuth2Error error = new OAuth2Error("invalid_token", "Uso do token diferente de " + tokenUse, null);
+        return jwt -> tokenUse.equals(jwt.getClaimAsString(TOKEN_USE_CLAIM))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(error);
+    }
+}
@@ -0,0 +1,55 @@
+package com.securelogin.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Proxies reversos definidos em {@code app.security.trusted-proxies}.
+ * <p>
+ * O X-Forwarded-For só é lido quando a conexão vem de um desses proxies, e é percorrido da
+ * direita para a esquerda: o cliente é o primeiro endereço que não é um proxy confiável. Um
+ * valor forjado pelo cliente fica à esquerda e é ignorado. É a mesma regra do RemoteIpValve
+ * do Tomcat, configurado com a mesma expressão no modo servlet.
+ */
+public class TrustedProxies {
+
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final Pattern pattern;
+
+    public TrustedProxies(String regex) {
+        this.pattern = Pattern.compile(regex);
+    }
+
+    public boolean isTrusted(String address) {
+        return address != null && pattern.matcher(address).matches();
+    }
+
+    /**
+     * Endereço do cliente a partir do par da conexão e dos cabeçalhos X-Forwarded-For recebidos
+     */
+    public String clientAddress(String peer, List<String> forwardedFor) {
+        if (!isTrusted(peer) || forwardedFor == null || forwardedFor.isEmpty()) {
+            return peer;
+        }
+
+        List<String> hops = new ArrayList<>();
+        for (String header : forwardedFor) {
+            for (String hop : header.split(",")) {
+                if (!hop.trim().isEmpty()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+
+        String client = peer;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            client = hops.get(i);
+            if (!isTrusted(client)) {
+                break;
+            }
+        }
+        return client;
+    }
+}
@@ -0,0 +1,63 @@
+package com.securelogin.config;
+
+import com.securelogin.dto.UserImportReport;
+import com.securelogin.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Importação em massa pela linha de comando:
+ * {@code java -jar app.jar --app.bulk-import.file=usuarios.csv --spring.main.web-application-type=none}.
+ * Roda depois da inicialização dos dados (índices únicos criados); ao final,
+ * {@code SecureLoginApplication} encerra a aplicação com o código de saída informado aqui,
+ * 1 se a importação parou antes do fim do arquivo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.bulk-import", name = "file")
+@RequiredArgsConstructor
+public class UserImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final UserImportService userImportService;
+    private final AppProperties appProperties;
+
+    private int exitCode = 1;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AppProperties.BulkImport settings = appProperties.getBulkImport();
+        Path file = Paths.get(settings.getFile());
+
+        try (InputStream input = Files.newInputStream(file)) {
+            UserImportReport report = userImportService.importUsers(input,
+                    UserImportService.Format.detect(file.getFileName().toString()), settings.getOffset());
+
+            for (UserImportReport.RowError error : report.getErrors()) {
+                log.warn("Linha {} ({}) rejeitada: {}", error.getRow(), error.getUsername(), error.getReason());
+            }
+            if (report.isCompleted()) {
+                exitCode = 0;
+            } else {
+                log.error("Importação incompleta; para retomar use --app.bulk-import.offset={}", report.getNextOffset());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao importar {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,49 @@
+package com.securelogin.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renderiza as páginas públicas uma vez, antes de a aplicação ficar pronta, quando as
+ * requisições rodam em threads virtuais.
+ * <p>
+ * A primeira renderização inicializa as classes do Thymeleaf e do runtime Groovy usado pelo
+ * layout dialect. A inicialização de classe prende a thread virtual à portadora: com várias
+ * requisições simultâneas esperando o mesmo inicializador, todas as portadoras ficam presas
+ * e o servidor para de responder.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ViewWarmup {
+
+    private static final List<String> PAGES = Arrays.asList("/login", "/register");
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @EventListener
+    public void warmUp(ServletWebServerInitializedEvent event) {
+        long start = System.currentTimeMillis();
+        String baseUrl = "http://localhost:" + event.getWebServer().getPort();
+
+        for (String page : PAGES) {
+            try {
+                ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + page, String.class);
+                log.debug("Página {} renderizada no aquecimento: {}", page, response.getStatusCode());
+            } catch (RestClientException e) {
+                log.warn("Falha ao renderizar {} no aquecimento: {}", page, e.getMessage());
+            }
+        }
+        log.info("Páginas públicas renderizadas em {} ms", System.currentTimeMillis() - start);
+    }
+}
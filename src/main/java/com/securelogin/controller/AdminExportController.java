@@ -0,0 +1,130 @@
+package com.securelogin.controller;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.LoginAttemptExportRequest;
+import com.securelogin.service.LoginAttemptExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de tentativas de login para ingestão externa (SIEM), restrita a ADMIN.
+ * A resposta é NDJSON em fluxo, compactada com gzip quando o cliente aceita.
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/admin/export")
+@RequiredArgsConstructor
+public class AdminExportController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LoginAttemptExportService loginAttemptExportService;
+    private final AppProperties appProperties;
+
+    /**
+     * Para continuar uma exportação, repita a requisição com after igual ao id da última linha recebida.
+     * <p>
+     * A escrita roda em uma {@link WebAsyncTask} com o prazo {@code app.audit.export-timeout},
+     * sem alterar o das demais respostas assíncronas.
+     */
+    @GetMapping(value = "/login-attempts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportLoginAttempts(
+            @Valid LoginAttemptExportRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) {
+        Query query = loginAttemptExportService.toQuery(request);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        Callable<Void> export = () -> {
+            long start = System.currentTimeMillis();
+            OutputStream out = response.getOutputStream();
+            OutputStream target = gzip
+                    ? new GZIPOutputStream(out, BUFFER_SIZE)
+                    : new BufferedOutputStream(out, BUFFER_SIZE);
+            long count = loginAttemptExportService.export(query, target);
+            if (target instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) target).finish();
+            }
+            target.flush();
+            log.info("Exportação de tentativas de login: {} registros em {} ms",
+                    count, System.currentTimeMillis() - start);
+            return null;
+        };
+        return new WebAsyncTask<>(appProperties.getAudit().getExportTimeout().toMillis(), export);
+    }
+
+    /**
+     * gzip aceito pelo nome ou por *, com qualidade maior que zero; "gzip;q=0" recusa
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * O erro é JSON comum: a rota só produz NDJSON e a negociação rejeitaria o corpo
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException exception) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Collections.singletonMap("error", exception.getMessage()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.securelogin.controller;
+
+import com.securelogin.service.UserImportJobService;
+import com.securelogin.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importação em massa de usuários (restrito a ADMIN). O corpo da requisição é o próprio
+ * arquivo (text/csv com cabeçalho ou application/x-ndjson); a importação roda em segundo
+ * plano e o progresso é consultado pelo id devolvido.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/admin/import")
+@RequiredArgsConstructor
+public class AdminImportController {
+
+    private final UserImportJobService userImportJobService;
+
+    /**
+     * Para retomar uma importação interrompida, repita o envio com offset igual ao
+     * nextOffset da importação anterior
+     */
+    @PostMapping("/users")
+    public ResponseEntity<UserImportJobService.Job> importUsers(InputStream body,
+                                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                               @RequestParam(defaultValue = "0") long offset)
+            throws IOException {
+        UserImportService.Format format = UserImportService.Format.detect(contentType);
+        UserImportJobService.Job job = userImportJobService.submit(body, format, offset);
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/import/users/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/users")
+    public List<UserImportJobService.Job> list() {
+        return userImportJobService.findAll();
+    }
+
+    @GetMapping("/users/{id}")
+    public ResponseEntity<UserImportJobService.Job> status(@PathVariable String id) {
+        return userImportJobService.find(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException exception) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", exception.getMessage()));
+    }
+}
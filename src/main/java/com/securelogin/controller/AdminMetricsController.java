@@ -0,0 +1,100 @@
+package com.securelogin.controller;
+
+import com.securelogin.config.CachingJwtDecoder;
+import com.securelogin.config.ClusteredSessionRegistry;
+import com.securelogin.config.MongoSessionRepository;
+import com.securelogin.service.LockExpiryService;
+import com.securelogin.service.LoginAttemptRetentionService;
+import com.securelogin.service.LoginAttemptWriter;
+import com.securelogin.service.PasswordHashingExecutor;
+import com.securelogin.service.PrincipalCache;
+import com.securelogin.service.RoleRegistry;
+import com.securelogin.service.UserChangeWatcher;
+import com.securelogin.service.UsernameBloomFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Métricas operacionais para dimensionamento dos nós (restrito a ADMIN)
+ */
+@RestController
+@RequestMapping("/admin/metrics")
+@RequiredArgsConstructor
+public class AdminMetricsController {
+    
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final PrincipalCache principalCache;
+    private final UsernameBloomFilter usernameBloomFilter;
+    private final UserChangeWatcher userChangeWatcher;
+    private final RoleRegistry roleRegistry;
+    private final LockExpiryService lockExpiryService;
+    private final LoginAttemptWriter loginAttemptWriter;
+    private final LoginAttemptRetentionService loginAttemptRetentionService;
+    private final CachingJwtDecoder jwtDecoder;
+    private final ObjectProvider<MongoSessionRepository> sessionRepository;
+    private final ObjectProvider<ClusteredSessionRegistry> sessionRegistry;
+    
+    @GetMapping("/password-hashing")
+    public PasswordHashingExecutor.Stats passwordHashing() {
+        return passwordHashingExecutor.getStats();
+    }
+    
+    @GetMapping("/principal-cache")
+    public PrincipalCache.Stats principalCache() {
+        return principalCache.getStats();
+    }
+    
+    @GetMapping("/username-filter")
+    public UsernameBloomFilter.Stats usernameFilter() {
+        return usernameBloomFilter.getStats();
+    }
+    
+    @GetMapping("/user-changes")
+    public UserChangeWatcher.Stats userChanges() {
+        return userChangeWatcher.getStats();
+    }
+    
+    @GetMapping("/roles")
+    public RoleRegistry.Stats roles() {
+        return roleRegistry.getStats();
+    }
+    
+    @GetMapping("/lock-expiry")
+    public LockExpiryService.Stats lockExpiry() {
+        return lockExpiryService.getStats();
+    }
+    
+    @GetMapping("/audit-writer")
+    public LoginAttemptWriter.Stats auditWriter() {
+        return loginAttemptWriter.getStats();
+    }
+    
+    @GetMapping("/audit-retention")
+    public LoginAttemptRetentionService.Stats auditRetention() {
+        return loginAttemptRetentionService.getStats();
+    }
+    
+    @GetMapping("/token-cache")
+    public CachingJwtDecoder.Stats tokenCache() {
+        return jwtDecoder.getStats();
+    }
+    
+    /**
+     * Disponível apenas com app.session.store=mongo
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<MongoSessionRepository.Stats> sessions() {
+        MongoSessionRepository repository = sessionRepository.getIfAvailable();
+        return repository == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(repository.getStats());
+    }
+    
+    @GetMapping("/session-registry")
+    public ResponseEntity<ClusteredSessionRegistry.Stats> sessionRegistry() {
+        ClusteredSessionRegistry registry = sessionRegistry.getIfAvailable();
+        return registry == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(registry.getStats());
+    }
+}
@@ -0,0 +1,58 @@
+package com.securelogin.controller;
+
+import com.securelogin.dto.BulkUserJobRequest;
+import com.securelogin.service.BulkUserJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operações em massa sobre usuários selecionados por filtro (restrito a ADMIN).
+ * A operação roda em segundo plano; o progresso é consultado pelo id devolvido.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/admin/users/jobs")
+@RequiredArgsConstructor
+public class AdminUserJobController {
+
+    private final BulkUserJobService bulkUserJobService;
+
+    @PostMapping
+    public ResponseEntity<BulkUserJobService.Job> submit(@Valid @RequestBody BulkUserJobRequest request) {
+        BulkUserJobService.Job job = bulkUserJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/users/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping
+    public List<BulkUserJobService.Job> list() {
+        return bulkUserJobService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BulkUserJobService.Job> status(@PathVariable String id) {
+        return bulkUserJobService.find(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException exception) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", exception.getMessage()));
+    }
+}
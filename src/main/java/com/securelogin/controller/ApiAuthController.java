@@ -0,0 +1,104 @@
+package com.securelogin.controller;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.LoginAttemptDetails;
+import com.securelogin.dto.RefreshTokenRequest;
+import com.securelogin.dto.TokenRequest;
+import com.securelogin.dto.TokenResponse;
+import com.securelogin.service.AuthenticationEventListener;
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
+import com.securelogin.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Emissão, renovação e revogação dos tokens de acesso de /api/**. O login passa pelo mesmo
+ * {@link AuthenticationManager} do formulário: bloqueio, hashing limitado e auditoria.
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ApiAuthController {
+    
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+    private final AppProperties appProperties;
+    
+    @PostMapping("/token")
+    public TokenResponse token(@Valid @RequestBody TokenRequest tokenRequest, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authenticationRequest = UsernamePasswordAuthenticationToken.unauthenticated(
+                tokenRequest.getUsername(), tokenRequest.getPassword());
+        authenticationRequest.setDetails(new LoginAttemptDetails(request));
+        
+        Authentication authentication = authenticationManager.authenticate(authenticationRequest);
+        log.debug("Token emitido para o usuário: {}", authentication.getName());
+        return tokenService.issue((UserDetails) authentication.getPrincipal());
+    }
+    
+    @PostMapping("/refresh")
+    public TokenResponse refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return tokenService.refresh(refreshTokenRequest.getRefreshToken());
+    }
+    
+    /**
+     * Encerra a renovação: o token e os emitidos a partir do mesmo login deixam de valer
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        tokenService.revoke(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Identidade lida do token, sem consulta ao banco
+     */
+    @GetMapping("/me")
+    public Map<String, Object> me(Authentication authentication) {
+        Map<String, Object> identity = new LinkedHashMap<>();
+        identity.put("username", authentication.getName());
+        identity.put("roles", authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+        return identity;
+    }
+    
+    @ExceptionHandler(HashingRejectedException.class)
+    public ResponseEntity<Map<String, String>> overloaded(HashingRejectedException exception) {
+        log.warn("Emissão de token rejeitada por sobrecarga: {}", exception.getReason());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()))
+                .body(Collections.singletonMap("error", "overloaded"));
+    }
+    
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> unauthorized(AuthenticationException exception) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Collections.singletonMap("error", AuthenticationEventListener.failureReason(exception)));
+    }
+}
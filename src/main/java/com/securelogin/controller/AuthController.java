@@ -1,11 +1,17 @@
 package com.securelogin.controller;
 
+import com.securelogin.config.AppProperties;
 import com.securelogin.dto.UserRegistrationDto;
 import com.securelogin.entity.User;
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
 import com.securelogin.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -21,11 +27,15 @@ import java.util.HashSet;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping
 @RequiredArgsConstructor
 public class AuthController {
     
+    static final String OVERLOADED_MESSAGE = "Servidor sobrecarregado. Tente novamente em instantes.";
+    
     private final UserService userService;
+    private final AppProperties appProperties;
     
     @GetMapping("/login")
     public String loginPage(Model model, String error, String logout, String expired) {
@@ -64,7 +74,9 @@ public class AuthController {
     @PostMapping("/register")
     public String registerUser(@Valid UserRegistrationDto userRegistrationDto, 
                               BindingResult bindingResult, 
-                              RedirectAttributes redirectAttributes) {
+                              Model model,
+                              RedirectAttributes redirectAttributes,
+                              HttpServletResponse response) {
         
         if (bindingResult.hasErrors()) {
             log.warn("Erro de validação no cadastro: {}", bindingResult.getAllErrors());
@@ -96,6 +108,14 @@ public class AuthController {
             log.warn("Erro no cadastro: {}", e.getMessage());
             bindingResult.rejectValue("username", "error.userRegistrationDto", e.getMessage());
             return "auth/register";
+        } catch (HashingRejectedException e) {
+            // Como no login: 503 com Retry-After, mantendo o formulário preenchido
+            log.warn("Cadastro rejeitado por sobrecarga: {}", e.getReason());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()));
+            model.addAttribute("errorMessage", OVERLOADED_MESSAGE);
+            return "auth/register";
         } catch (Exception e) {
             log.error("Erro inesperado no cadastro: ", e);
             redirectAttributes.addFlashAttribute("errorMessage", 
@@ -113,7 +133,7 @@ public class AuthController {
         return "error/access-denied";
     }
     
-    private String getErrorMessage(String error) {
+    static String getErrorMessage(String error) {
         switch (error) {
             case "invalid_credentials":
                 return "Nome de usuário ou senha inválidos.";
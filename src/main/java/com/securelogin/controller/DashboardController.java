@@ -1,10 +1,13 @@
 package com.securelogin.controller;
 
-import com.securelogin.entity.User;
+import com.securelogin.dto.LoginHistoryView;
+import com.securelogin.dto.UserProfileView;
 import com.securelogin.service.LoginAttemptService;
+import com.securelogin.service.LoginLockoutService;
 import com.securelogin.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,29 +18,33 @@ import java.util.List;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/dashboard")
 @RequiredArgsConstructor
 public class DashboardController {
     
     private final UserService userService;
     private final LoginAttemptService loginAttemptService;
+    private final LoginLockoutService loginLockoutService;
     
     @GetMapping
     public String dashboard(Model model, Authentication authentication) {
         String username = authentication.getName();
         log.debug("Acessando dashboard para usuário: {}", username);
         
-        User user = userService.findByUsername(username)
+        UserProfileView user = userService.findProfileByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         
-        List<com.securelogin.entity.LoginAttempt> recentLogins = 
-                loginAttemptService.getSuccessfulLoginAttemptsByUsername(username);
+        List<LoginHistoryView> recentLogins = 
+                loginAttemptService.getRecentSuccessfulLogins(username);
         
         LoginAttemptService.SecurityReport securityReport = loginAttemptService.generateSecurityReport();
         
         model.addAttribute("user", user);
-        model.addAttribute("recentLogins", recentLogins.subList(0, Math.min(5, recentLogins.size())));
+        model.addAttribute("recentLogins", recentLogins);
         model.addAttribute("securityReport", securityReport);
+        model.addAttribute("remainingAttempts", loginLockoutService.getRemainingAttempts(username));
+        model.addAttribute("maxLoginAttempts", loginLockoutService.getMaxLoginAttempts());
         
         return "dashboard/index";
     }
@@ -47,7 +54,7 @@ public class DashboardController {
         String username = authentication.getName();
         log.debug("Acessando perfil para usuário: {}", username);
         
-        User user = userService.findByUsername(username)
+        UserProfileView user = userService.findProfileByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         
         model.addAttribute("user", user);
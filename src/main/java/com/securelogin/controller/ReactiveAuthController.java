@@ -0,0 +1,141 @@
+package com.securelogin.controller;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserRegistrationDto;
+import com.securelogin.entity.User;
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
+import com.securelogin.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Equivalente WebFlux de {@link AuthController}. Sem flash attributes no WebFlux, o
+ * cadastro concluído é indicado pelo parâmetro {@code registered} da página de login.
+ */
+@Slf4j
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+    
+    private final ReactiveUserService userService;
+    private final AppProperties appProperties;
+    
+    @GetMapping("/login")
+    public String loginPage(Model model, Authentication authentication,
+                            @RequestParam(required = false) String error,
+                            @RequestParam(required = false) String logout,
+                            @RequestParam(required = false) String expired,
+                            @RequestParam(required = false) String registered) {
+        if (isAuthenticated(authentication)) {
+            return "redirect:/dashboard";
+        }
+        
+        if (error != null) {
+            model.addAttribute("errorMessage", AuthController.getErrorMessage(error));
+        }
+        
+        if (logout != null) {
+            model.addAttribute("successMessage", "Logout realizado com sucesso!");
+        }
+        
+        if (expired != null) {
+            model.addAttribute("errorMessage", "Sua sessão expirou. Faça login novamente.");
+        }
+        
+        if (registered != null) {
+            model.addAttribute("successMessage", "Usuário cadastrado com sucesso! Faça login para continuar.");
+        }
+        
+        return "auth/login";
+    }
+    
+    @GetMapping("/register")
+    public String registerPage(Model model, Authentication authentication) {
+        if (isAuthenticated(authentication)) {
+            return "redirect:/dashboard";
+        }
+        
+        model.addAttribute("userRegistrationDto", new UserRegistrationDto());
+        return "auth/register";
+    }
+    
+    @PostMapping("/register")
+    public Mono<String> registerUser(@Valid @ModelAttribute UserRegistrationDto userRegistrationDto,
+                                     BindingResult bindingResult,
+                                     Model model,
+                                     ServerHttpResponse response) {
+        
+        if (bindingResult.hasErrors()) {
+            log.warn("Erro de validação no cadastro: {}", bindingResult.getAllErrors());
+            return Mono.just("auth/register");
+        }
+        
+        if (!userRegistrationDto.getPassword().equals(userRegistrationDto.getConfirmPassword())) {
+            bindingResult.rejectValue("confirmPassword", "error.userRegistrationDto", "As senhas não coincidem");
+            return Mono.just("auth/register");
+        }
+        
+        User user = new User();
+        user.setUsername(userRegistrationDto.getUsername());
+        user.setEmail(userRegistrationDto.getEmail());
+        user.setPassword(userRegistrationDto.getPassword());
+        user.setFullName(userRegistrationDto.getFullName());
+        user.setRoles(new HashSet<>(Arrays.asList("USER")));
+        
+        return userService.createUser(user)
+                .map(savedUser -> {
+                    log.info("Usuário cadastrado com sucesso: {}", savedUser.getUsername());
+                    return "redirect:/login?registered=true";
+                })
+                .onErrorResume(e -> {
+                    if (e instanceof IllegalArgumentException) {
+                        log.warn("Erro no cadastro: {}", e.getMessage());
+                        bindingResult.rejectValue("username", "error.userRegistrationDto", e.getMessage());
+                    } else if (e instanceof HashingRejectedException) {
+                        log.warn("Cadastro rejeitado por sobrecarga: {}", ((HashingRejectedException) e).getReason());
+                        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                                String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()));
+                        model.addAttribute("errorMessage", AuthController.OVERLOADED_MESSAGE);
+                    } else {
+                        log.error("Erro inesperado no cadastro: ", e);
+                        model.addAttribute("errorMessage", "Erro interno do servidor. Tente novamente mais tarde.");
+                    }
+                    return Mono.just("auth/register");
+                });
+    }
+    
+    @GetMapping("/access-denied")
+    public String accessDeniedPage(Model model, Authentication authentication) {
+        if (authentication != null) {
+            model.addAttribute("username", authentication.getName());
+        }
+        return "error/access-denied";
+    }
+    
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
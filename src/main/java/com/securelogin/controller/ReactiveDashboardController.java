@@ -0,0 +1,63 @@
+package com.securelogin.controller;
+
+import com.securelogin.service.LoginAttemptService;
+import com.securelogin.service.LoginLockoutService;
+import com.securelogin.service.ReactiveLoginAttemptService;
+import com.securelogin.service.ReactiveUserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente WebFlux de {@link DashboardController}. O perfil e o histórico são
+ * consultados em paralelo; relatório e tentativas restantes vêm de contadores em memória.
+ */
+@Slf4j
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+public class ReactiveDashboardController {
+    
+    private final ReactiveUserService userService;
+    private final ReactiveLoginAttemptService reactiveLoginAttemptService;
+    private final LoginAttemptService loginAttemptService;
+    private final LoginLockoutService loginLockoutService;
+    
+    @GetMapping
+    public Mono<String> dashboard(Model model, Authentication authentication) {
+        String username = authentication.getName();
+        log.debug("Acessando dashboard para usuário: {}", username);
+        
+        return userService.findProfileByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Usuário não encontrado")))
+                .zipWith(reactiveLoginAttemptService.getRecentSuccessfulLogins(username).collectList())
+                .map(profileAndLogins -> {
+                    model.addAttribute("user", profileAndLogins.getT1());
+                    model.addAttribute("recentLogins", profileAndLogins.getT2());
+                    model.addAttribute("securityReport", loginAttemptService.generateSecurityReport());
+                    model.addAttribute("remainingAttempts", loginLockoutService.getRemainingAttempts(username));
+                    model.addAttribute("maxLoginAttempts", loginLockoutService.getMaxLoginAttempts());
+                    return "dashboard/index";
+                });
+    }
+    
+    @GetMapping("/profile")
+    public Mono<String> profile(Model model, Authentication authentication) {
+        String username = authentication.getName();
+        log.debug("Acessando perfil para usuário: {}", username);
+        
+        return userService.findProfileByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Usuário não encontrado")))
+                .map(user -> {
+                    model.addAttribute("user", user);
+                    return "dashboard/profile";
+                });
+    }
+}
@@ -0,0 +1,41 @@
+package com.securelogin.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Operação administrativa aplicada a todos os usuários que atendem ao filtro.
+ * Os critérios informados são combinados; ao menos um é obrigatório.
+ */
+@Data
+public class BulkUserJobRequest {
+    
+    public enum Action {
+        DEACTIVATE, ACTIVATE, UNLOCK, PURGE_LOGIN_ATTEMPTS
+    }
+    
+    @NotNull(message = "Ação é obrigatória")
+    private Action action;
+    
+    private String role;
+    
+    /**
+     * Usuários criados depois deste instante
+     */
+    private LocalDateTime createdAfter;
+    
+    /**
+     * Usuários criados antes deste instante
+     */
+    private LocalDateTime createdBefore;
+    
+    /**
+     * true para usuários com bloqueio temporário em vigor
+     */
+    private Boolean locked;
+    
+    private List<String> ids;
+}
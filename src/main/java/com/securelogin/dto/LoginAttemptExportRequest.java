@@ -0,0 +1,42 @@
+package com.securelogin.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros da exportação de tentativas de login, recebidos como parâmetros da URL.
+ * Os critérios informados são combinados.
+ */
+@Data
+public class LoginAttemptExportRequest {
+    
+    /**
+     * Tentativas a partir deste instante (inclusive)
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    
+    /**
+     * Tentativas anteriores a este instante
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    
+    private String username;
+    
+    private String ipAddress;
+    
+    /**
+     * Token de retomada: id da última tentativa recebida na exportação anterior
+     */
+    private String after;
+    
+    /**
+     * Máximo de tentativas na resposta; 0 exporta todas
+     */
+    @PositiveOrZero(message = "Limite não pode ser negativo")
+    private int limit;
+}
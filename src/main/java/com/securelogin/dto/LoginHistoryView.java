@@ -0,0 +1,22 @@
+package com.securelogin.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de uma tentativa de login para o histórico exibido ao usuário
+ */
+public interface LoginHistoryView {
+    
+    // Com a attemptTime, forma o cursor da próxima página
+    String getId();
+    
+    LocalDateTime getAttemptTime();
+    
+    String getIpAddress();
+    
+    boolean isSuccess();
+    
+    String getUserAgent();
+    
+    String getFailureReason();
+}
@@ -0,0 +1,11 @@
+package com.securelogin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    
+    @NotBlank(message = "Token de renovação é obrigatório")
+    private String refreshToken;
+}
@@ -0,0 +1,14 @@
+package com.securelogin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TokenRequest {
+    
+    @NotBlank(message = "Nome de usuário é obrigatório")
+    private String username;
+    
+    @NotBlank(message = "Senha é obrigatória")
+    private String password;
+}
@@ -0,0 +1,18 @@
+package com.securelogin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+    
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    
+    /**
+     * Segundos até a expiração do token de acesso
+     */
+    private long expiresIn;
+}
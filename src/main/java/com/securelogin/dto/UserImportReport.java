@@ -0,0 +1,52 @@
+package com.securelogin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em massa de usuários
+ */
+@Data
+public class UserImportReport {
+
+    /**
+     * Linhas de dados ignoradas no início do arquivo
+     */
+    private long startOffset;
+
+    /**
+     * Linhas de dados já processadas desde o início do arquivo; é o offset para retomar
+     * a importação caso ela tenha sido interrompida
+     */
+    private long nextOffset;
+
+    private long read;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+
+    /**
+     * false quando a importação parou antes do fim do arquivo
+     */
+    private boolean completed;
+
+    private String failure;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * Número da linha de dados, a partir de 1 (o cabeçalho do CSV não conta)
+         */
+        private long row;
+        private String username;
+        private String reason;
+    }
+}
@@ -0,0 +1,22 @@
+package com.securelogin.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com apenas os campos usados na verificação de bloqueio; o hash da senha,
+ * os papéis e os demais campos do documento não são lidos
+ */
+public interface UserLockStatusView {
+    
+    String getUsername();
+    
+    boolean getIsActive();
+    
+    boolean getIsAccountNonLocked();
+    
+    LocalDateTime getLockedUntil();
+    
+    default boolean isLocked() {
+        return !getIsAccountNonLocked() && (getLockedUntil() == null || getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+}
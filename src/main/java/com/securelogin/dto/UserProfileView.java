@@ -0,0 +1,36 @@
+package com.securelogin.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Projeção com os dados exibidos no dashboard e no perfil, sem o hash da senha.
+ * Os getters getIsXxx seguem os nomes das propriedades booleanas de User.
+ */
+public interface UserProfileView {
+    
+    String getUsername();
+    
+    String getEmail();
+    
+    String getFullName();
+    
+    boolean getIsActive();
+    
+    boolean getIsAccountNonLocked();
+    
+    LocalDateTime getLockedUntil();
+    
+    Set<String> getRoles();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getLastLogin();
+    
+    /**
+     * Mesma regra de User.isAccountNonLocked(): bloqueios temporários expiram com lockedUntil
+     */
+    default boolean isUnlocked() {
+        return getIsAccountNonLocked() || (getLockedUntil() != null && !getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+}
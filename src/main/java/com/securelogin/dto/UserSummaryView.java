@@ -0,0 +1,24 @@
+package com.securelogin.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Projeção das listagens administrativas de usuários
+ */
+public interface UserSummaryView {
+    
+    String getId();
+    
+    String getUsername();
+    
+    String getEmail();
+    
+    String getFullName();
+    
+    boolean getIsActive();
+    
+    Set<String> getRoles();
+    
+    LocalDateTime getLastLogin();
+}
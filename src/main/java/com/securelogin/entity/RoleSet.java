@@ -0,0 +1,84 @@
+package com.securelogin.entity;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Combinação imutável de roles com a lista de authorities já montada.
+ * <p>
+ * É um {@code Set<String>}, então é gravada no documento como o mesmo array de nomes.
+ * Na leitura, o conversor do Spring Data entrega a instância compartilhada pelo
+ * {@code RoleSetInterner}: usuários com as mesmas roles usam a mesma combinação e a
+ * mesma lista de authorities.
+ */
+public final class RoleSet extends AbstractSet<String> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    public static final RoleSet EMPTY = new RoleSet(Collections.<String>emptySet());
+
+    private final Set<String> names;
+    private final List<GrantedAuthority> authorities;
+
+    private RoleSet(Collection<String> roles) {
+        Set<String> sorted = new TreeSet<>();
+        for (String role : roles) {
+            if (role != null) {
+                sorted.add(role);
+            }
+        }
+        this.names = Collections.unmodifiableSet(new LinkedHashSet<>(sorted));
+
+        List<GrantedAuthority> authorities = new ArrayList<>(this.names.size());
+        for (String name : this.names) {
+            authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + name));
+        }
+        this.authorities = Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * Nova combinação, sem internar; {@code null} resulta na combinação vazia
+     */
+    public static RoleSet of(Collection<String> roles) {
+        if (roles instanceof RoleSet) {
+            return (RoleSet) roles;
+        }
+        return roles == null || roles.isEmpty() ? EMPTY : new RoleSet(roles);
+    }
+
+    @Override
+    public boolean contains(Object role) {
+        return names.contains(role);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return names.iterator();
+    }
+
+    @Override
+    public int size() {
+        return names.size();
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -12,12 +12,10 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Data
 @NoArgsConstructor
@@ -58,8 +56,12 @@ public class User implements UserDetails {
     @Field("is_credentials_non_expired")
     private boolean isCredentialsNonExpired = true;
     
+    @Field("locked_until")
+    private LocalDateTime lockedUntil;
+    
+    // Array de nomes no documento; lido como a combinação internada (MongoConversionsConfig)
     @Field("roles")
-    private Set<String> roles;
+    private RoleSet roles;
     
     @Field("created_at")
     private LocalDateTime createdAt;
@@ -75,16 +77,29 @@ public class User implements UserDetails {
         this.email = email;
         this.password = password;
         this.fullName = fullName;
-        this.roles = roles;
+        this.roles = roles == null ? null : RoleSet.of(roles);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
 
+    public Set<String> getRoles() {
+        return roles;
+    }
+    
+    /**
+     * Substitui as roles por uma combinação imutável; o conjunto informado não é mantido
+     */
+    public void setRoles(Set<String> roles) {
+        this.roles = roles == null ? null : RoleSet.of(roles);
+    }
+    
+    public RoleSet getRoleSet() {
+        return roles != null ? roles : RoleSet.EMPTY;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+        return getRoleSet().getAuthorities();
     }
 
     @Override
@@ -104,7 +119,8 @@ public class User implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return isAccountNonLocked;
+        // Bloqueios temporários deixam de valer assim que lockedUntil passa
+        return isAccountNonLocked || (lockedUntil != null && !lockedUntil.isAfter(LocalDateTime.now()));
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.securelogin.repository;
 
 import com.securelogin.entity.LoginAttempt;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,9 +13,22 @@ import java.util.List;
 @Repository
 public interface LoginAttemptRepository extends MongoRepository<LoginAttempt, String> {
     
-    List<LoginAttempt> findByUsernameOrderByAttemptTimeDesc(String username);
+    <T> List<T> findTop5ByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(String username, boolean success, Class<T> type);
     
-    List<LoginAttempt> findByUsernameAndSuccessOrderByAttemptTimeDesc(String username, boolean success);
+    <T> List<T> findByUsernameOrderByAttemptTimeDescIdDesc(String username, Limit limit, Class<T> type);
+    
+    List<LoginAttempt> findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(String username, boolean success, Limit limit);
+    
+    // Paginação por cursor: a próxima página começa após a última (attemptTime, id) recebida;
+    // o id desempata tentativas gravadas no mesmo instante
+    @Query(value = "{ 'username': ?0, 'attemptTime': { $lte: ?1 }, $or: [ { 'attemptTime': { $lt: ?1 } }, { '_id': { $lt: ?2 } } ] }",
+           sort = "{ 'attemptTime': -1, '_id': -1 }")
+    <T> List<T> findAttemptsBefore(String username, LocalDateTime before, ObjectId beforeId, Limit limit, Class<T> type);
+    
+    @Query(value = "{ 'username': ?0, 'success': ?1, 'attemptTime': { $lte: ?2 }, $or: [ { 'attemptTime': { $lt: ?2 } }, { '_id': { $lt: ?3 } } ] }",
+           sort = "{ 'attemptTime': -1, '_id': -1 }")
+    List<LoginAttempt> findAttemptsByResultBefore(String username, boolean success, LocalDateTime before, ObjectId beforeId,
+                                                  Limit limit);
     
     @Query("{ 'attemptTime': { $gte: ?0 } }")
     List<LoginAttempt> findRecentAttempts(LocalDateTime since);
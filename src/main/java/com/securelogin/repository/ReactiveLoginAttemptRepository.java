@@ -0,0 +1,30 @@
+package com.securelogin.repository;
+
+import com.securelogin.dto.LoginHistoryView;
+import com.securelogin.entity.LoginAttempt;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contraparte reativa de {@link LoginAttemptRepository} para as consultas do dashboard.
+ * A gravação das tentativas continua no {@code LoginAttemptWriter}, que agrupa os inserts.
+ */
+@Repository
+public interface ReactiveLoginAttemptRepository extends ReactiveMongoRepository<LoginAttempt, String> {
+    
+    // Projeções com o tipo fixo no retorno, como em ReactiveUserRepository
+    Flux<LoginHistoryView> findTop5HistoryByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(String username, boolean success);
+    
+    Flux<LoginHistoryView> findHistoryByUsernameOrderByAttemptTimeDescIdDesc(String username, Limit limit);
+    
+    // Paginação por cursor: a próxima página começa após a última (attemptTime, id) recebida
+    @Query(value = "{ 'username': ?0, 'attemptTime': { $lte: ?1 }, $or: [ { 'attemptTime': { $lt: ?1 } }, { '_id': { $lt: ?2 } } ] }",
+           sort = "{ 'attemptTime': -1, '_id': -1 }")
+    Flux<LoginHistoryView> findHistoryBefore(String username, LocalDateTime before, ObjectId beforeId, Limit limit);
+}
@@ -0,0 +1,36 @@
+package com.securelogin.repository;
+
+import com.securelogin.dto.UserProfileView;
+import com.securelogin.dto.UserSummaryView;
+import com.securelogin.entity.User;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contraparte reativa de {@link UserRepository}, usada apenas no perfil reactive
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    
+    Mono<User> findByUsername(String username);
+    
+    // Projeções com o tipo fixo no retorno: nos repositórios reativos a projeção dinâmica
+    // (parâmetro Class<T>) devolve o documento bruto em vez da interface
+    Mono<UserProfileView> findProfileByUsername(String username);
+    
+    Flux<UserSummaryView> findSummariesBy();
+    
+    Mono<Boolean> existsByUsername(String username);
+    
+    Mono<Boolean> existsByEmail(String email);
+    
+    @Query("{ 'username': ?0 }")
+    @Update("{ '$set': { 'password': ?1, 'updatedAt': ?2 } }")
+    Mono<Long> updatePasswordByUsername(String username, String password, LocalDateTime updatedAt);
+}
@@ -1,8 +1,10 @@
 package com.securelogin.repository;
 
+import com.securelogin.dto.UserLockStatusView;
 import com.securelogin.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -14,6 +16,11 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     Optional<User> findByUsername(String username);
     
+    // Projeções dinâmicas: apenas os campos da interface informada são lidos
+    <T> Optional<T> findByUsername(String username, Class<T> type);
+    
+    <T> List<T> findAllBy(Class<T> type);
+    
     Optional<User> findByEmail(String email);
     
     boolean existsByUsername(String username);
@@ -22,12 +29,22 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     List<User> findByIsActiveTrue();
     
+    <T> List<T> findByIsActiveTrue(Class<T> type);
+    
     @Query("{ 'roles': { $in: [?0] } }")
     List<User> findByRole(String role);
     
     @Query("{ 'lockedUntil': { $gt: ?0 } }")
-    List<User> findLockedUsers(LocalDateTime now);
+    List<UserLockStatusView> findLockedUsers(LocalDateTime now);
     
     
     List<User> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query("{ 'username': ?0 }")
+    @Update("{ '$set': { 'password': ?1, 'updatedAt': ?2 } }")
+    long updatePasswordByUsername(String username, String password, LocalDateTime updatedAt);
+    
+    @Query("{ 'username': ?0 }")
+    @Update("{ '$set': { 'isAccountNonLocked': false, 'lockedUntil': ?1, 'updatedAt': ?2 } }")
+    long lockByUsername(String username, LocalDateTime lockedUntil, LocalDateTime updatedAt);
 }
@@ -0,0 +1,81 @@
+package com.securelogin.service;
+
+import com.securelogin.config.LoginAttemptDetails;
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alimenta a política de bloqueio e a auditoria com os eventos de autenticação do Spring Security
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticationEventListener {
+    
+    private final LoginLockoutService loginLockoutService;
+    private final LoginAttemptService loginAttemptService;
+    private final AuthenticationMetrics authenticationMetrics;
+    
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        Authentication authentication = event.getAuthentication();
+        loginLockoutService.recordSuccess(authentication.getName());
+        authenticationMetrics.countAttempt(true, null);
+        authenticationMetrics.record(AuthenticationMetrics.Phase.AUDIT, () -> loginAttemptService.recordLoginAttempt(
+                authentication.getName(), LoginLockoutService.remoteAddress(authentication), true, userAgent(authentication)));
+    }
+    
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        Authentication authentication = event.getAuthentication();
+        loginLockoutService.recordFailure(authentication.getName(), LoginLockoutService.remoteAddress(authentication));
+    }
+    
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        Authentication authentication = event.getAuthentication();
+        String failureReason = failureReason(event.getException());
+        authenticationMetrics.countAttempt(false, failureReason);
+        authenticationMetrics.record(AuthenticationMetrics.Phase.AUDIT, () -> loginAttemptService.recordLoginAttempt(
+                authentication.getName(), LoginLockoutService.remoteAddress(authentication), false,
+                userAgent(authentication), failureReason));
+    }
+    
+    public static String failureReason(AuthenticationException exception) {
+        if (exception instanceof BadCredentialsException) {
+            return "invalid_credentials";
+        }
+        if (exception instanceof LockedException) {
+            return "account_locked";
+        }
+        if (exception instanceof DisabledException) {
+            return "account_disabled";
+        }
+        if (exception instanceof AccountExpiredException) {
+            return "account_expired";
+        }
+        if (exception instanceof CredentialsExpiredException) {
+            return "credentials_expired";
+        }
+        if (exception instanceof HashingRejectedException) {
+            return "overloaded";
+        }
+        return "authentication_error";
+    }
+    
+    private static String userAgent(Authentication authentication) {
+        Object details = authentication.getDetails();
+        return details instanceof LoginAttemptDetails ? ((LoginAttemptDetails) details).getUserAgent() : null;
+    }
+}
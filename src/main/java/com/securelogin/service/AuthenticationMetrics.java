@@ -0,0 +1,96 @@
+package com.securelogin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers por fase da autenticação (p50/p95/p99 e histograma) e contadores de tentativas
+ * por resultado e motivo da falha, publicados no Micrometer.
+ */
+@Component
+public class AuthenticationMetrics {
+
+    static final String PHASE_TIMER = "securelogin.auth.phase";
+    static final String ATTEMPTS_COUNTER = "securelogin.auth.attempts";
+
+    public enum Phase {
+        TOTAL("total"),
+        USER_LOOKUP("user_lookup"),
+        PASSWORD("password"),
+        SESSION("session"),
+        AUDIT("audit");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Phase, Timer> successTimers = new EnumMap<>(Phase.class);
+    private final Map<Phase, Timer> errorTimers = new EnumMap<>(Phase.class);
+
+    public AuthenticationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Phase phase : Phase.values()) {
+            successTimers.put(phase, phaseTimer(phase, "success"));
+            errorTimers.put(phase, phaseTimer(phase, "error"));
+        }
+    }
+
+    public <T> T record(Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = action.get();
+            success = true;
+            return result;
+        } finally {
+            record(phase, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Registra uma fase já medida, para fluxos reativos em que a duração termina em outro sinal
+     */
+    public void record(Phase phase, long elapsedNanos, boolean success) {
+        (success ? successTimers : errorTimers).get(phase).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(Phase phase, Runnable action) {
+        record(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Conta uma tentativa de login; {@code failureReason} é ignorado para sucessos
+     */
+    public void countAttempt(boolean success, String failureReason) {
+        Counter.builder(ATTEMPTS_COUNTER)
+                .description("Tentativas de login por resultado e motivo da falha")
+                .tag("result", success ? "success" : "failure")
+                .tag("reason", success || failureReason == null ? "none" : failureReason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer phaseTimer(Phase phase, String outcome) {
+        return Timer.builder(PHASE_TIMER)
+                .description("Duração de cada fase da autenticação")
+                .tag("phase", phase.tag)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,281 @@
+package com.securelogin.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.BulkUserJobRequest;
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.entity.User;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Operações administrativas em massa (desativar, ativar, desbloquear, apagar o histórico
+ * de login) sobre todos os usuários que atendem a um filtro.
+ * <p>
+ * Cada operação roda em segundo plano, uma por vez. Os usuários são percorridos em blocos
+ * de {@code app.bulk-jobs.chunk-size} em ordem de _id, e cada bloco é alterado com um único
+ * updateMany/deleteMany no servidor. O progresso fica disponível por {@link #find(String)}.
+ * As operações ficam apenas na memória deste nó.
+ */
+@Slf4j
+@Service
+public class BulkUserJobService implements DisposableBean {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final RoleRegistry roleRegistry;
+    private final PrincipalCache principalCache;
+    private final LoginLockoutService loginLockoutService;
+    private final AppProperties.BulkJobs settings;
+    private final ExecutorService executor;
+    private final Map<String, Job> jobs;
+
+    public BulkUserJobService(MongoTemplate mongoTemplate, RoleRegistry roleRegistry, PrincipalCache principalCache,
+                              LoginLockoutService loginLockoutService, AppProperties appProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.roleRegistry = roleRegistry;
+        this.principalCache = principalCache;
+        this.loginLockoutService = loginLockoutService;
+        this.settings = appProperties.getBulkJobs();
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("bulk-user-jobs-"));
+
+        int retained = settings.getRetainedJobs();
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, Job>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > retained && eldest.getValue().isFinished();
+            }
+        });
+    }
+
+    /**
+     * Valida o filtro e enfileira a operação
+     *
+     * @throws IllegalArgumentException se nenhum critério for informado ou a role não existir
+     */
+    public Job submit(BulkUserJobRequest request) {
+        Criteria filter = toCriteria(request, LocalDateTime.now());
+        Job job = new Job(UUID.randomUUID().toString(), request);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, filter));
+
+        log.info("Operação em massa {} enfileirada: {}", job.getId(), request);
+        return job;
+    }
+
+    public Optional<Job> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<Job> findAll() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    void run(Job job, Criteria filter) {
+        try {
+            job.start(mongoTemplate.count(Query.query(filter), User.class));
+
+            String lastId = null;
+            while (true) {
+                Criteria page = lastId == null
+                        ? filter
+                        : new Criteria().andOperator(filter, Criteria.where("id").gt(objectId(lastId)));
+                Query query = Query.query(page)
+                        .with(Sort.by(Sort.Direction.ASC, "id"))
+                        .limit(settings.getChunkSize());
+                query.fields().include("username");
+
+                List<User> chunk = mongoTemplate.find(query, User.class);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                String firstId = chunk.get(0).getId();
+                lastId = chunk.get(chunk.size() - 1).getId();
+                List<String> usernames = new ArrayList<>(chunk.size());
+                for (User user : chunk) {
+                    usernames.add(user.getUsername());
+                }
+
+                applyToChunk(job, filter, firstId, lastId, usernames);
+                job.processed += chunk.size();
+
+                if (chunk.size() < settings.getChunkSize()) {
+                    break;
+                }
+            }
+
+            job.finish(Status.COMPLETED, null);
+            log.info("Operação em massa {} concluída: {} usuários, {} alterados, {} tentativas de login removidas",
+                    job.getId(), job.getProcessed(), job.getModified(), job.getLoginAttemptsDeleted());
+        } catch (RuntimeException e) {
+            job.finish(Status.FAILED, e.getMessage());
+            log.error("Operação em massa {} falhou após {} usuários: {}", job.getId(), job.getProcessed(), e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica a ação aos usuários do filtro com _id entre firstId e lastId (um bloco)
+     */
+    private void applyToChunk(Job job, Criteria filter, String firstId, String lastId, List<String> usernames) {
+        BulkUserJobRequest.Action action = job.getRequest().getAction();
+
+        if (action == BulkUserJobRequest.Action.PURGE_LOGIN_ATTEMPTS) {
+            job.loginAttemptsDeleted += mongoTemplate.remove(
+                    Query.query(Criteria.where("username").in(usernames)), LoginAttempt.class).getDeletedCount();
+            return;
+        }
+
+        Query chunk = Query.query(new Criteria().andOperator(filter, Criteria.where("id").gte(objectId(firstId)).lte(objectId(lastId))));
+        UpdateResult result = mongoTemplate.updateMulti(chunk, update(action), User.class);
+        job.modified += result.getModifiedCount();
+
+        for (String username : usernames) {
+            principalCache.invalidate(username);
+            if (action == BulkUserJobRequest.Action.UNLOCK) {
+                loginLockoutService.clear(username);
+            }
+        }
+    }
+
+    /**
+     * O mapeamento do Spring só converte o _id em ObjectId em igualdades e $in, não em $gt/$lte
+     */
+    private static Object objectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static Update update(BulkUserJobRequest.Action action) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        switch (action) {
+            case DEACTIVATE:
+                return update.set("isActive", false);
+            case ACTIVATE:
+                return update.set("isActive", true);
+            case UNLOCK:
+                return update.set("isAccountNonLocked", true).unset("lockedUntil");
+            default:
+                throw new IllegalArgumentException("Ação sem atualização de usuário: " + action);
+        }
+    }
+
+    /**
+     * Filtro da operação; os mesmos critérios de findByRole, findByCreatedAtBetween e findLockedUsers
+     */
+    Criteria toCriteria(BulkUserJobRequest request, LocalDateTime now) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (request.getRole() != null) {
+            String role = roleRegistry.resolve(request.getRole())
+                    .orElseThrow(() -> new IllegalArgumentException("Role desconhecida: " + request.getRole()));
+            criteria.add(Criteria.where("roles").is(role));
+        }
+
+        if (request.getCreatedAfter() != null || request.getCreatedBefore() != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (request.getCreatedAfter() != null) {
+                createdAt.gt(request.getCreatedAfter());
+            }
+            if (request.getCreatedBefore() != null) {
+                createdAt.lt(request.getCreatedBefore());
+            }
+            criteria.add(createdAt);
+        }
+
+        if (request.getLocked() != null) {
+            criteria.add(request.getLocked()
+                    ? Criteria.where("lockedUntil").gt(now)
+                    : Criteria.where("lockedUntil").not().gt(now));
+        }
+
+        if (request.getIds() != null) {
+            criteria.add(Criteria.where("id").in(request.getIds()));
+        }
+
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um critério de filtro");
+        }
+        return criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estado de uma operação em massa; alterado apenas pela thread que a executa
+     */
+    @Getter
+    public static class Job {
+        private final String id;
+        private final BulkUserJobRequest request;
+        private final Instant createdAt = Instant.now();
+
+        private volatile Status status = Status.QUEUED;
+        private volatile long matched;
+        private volatile long processed;
+        private volatile long modified;
+        private volatile long loginAttemptsDeleted;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String failure;
+
+        Job(String id, BulkUserJobRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        /**
+         * Percentual dos usuários encontrados no início que já foram processados
+         */
+        public int getProgress() {
+            if (status == Status.COMPLETED) {
+                return 100;
+            }
+            return matched == 0 ? 0 : (int) Math.min(99, processed * 100 / matched);
+        }
+
+        public boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        void start(long matched) {
+            this.matched = matched;
+            this.startedAt = Instant.now();
+            this.status = Status.RUNNING;
+        }
+
+        void finish(Status status, String failure) {
+            this.failure = failure;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+    }
+}
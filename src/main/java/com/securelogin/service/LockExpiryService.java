@@ -0,0 +1,183 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserLockStatusView;
+import com.securelogin.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Libera automaticamente os bloqueios temporários quando lockedUntil vence.
+ * <p>
+ * Cada bloqueio é agendado em uma {@link TimerWheel} em memória; a cada tick os usuários
+ * vencidos são desbloqueados em lotes com um único updateMany. Na inicialização a roda é
+ * reconstruída com uma consulta no índice de locked_until, sem varreduras periódicas da
+ * coleção. Bloqueios gravados por outros nós são liberados pelo nó que os criou; até lá,
+ * {@link User#isAccountNonLocked()} já trata o prazo vencido como desbloqueado.
+ * <p>
+ * Os ticks rodam em um agendador próprio de uma thread, para não atrasarem atrás das
+ * reconstruções e consolidações do agendador compartilhado.
+ */
+@Slf4j
+@Service
+public class LockExpiryService implements DisposableBean {
+
+    private final MongoTemplate mongoTemplate;
+    private final PrincipalCache principalCache;
+    private final AppProperties.LockExpiry settings;
+    private final long tickMillis;
+    private final TimerWheel<String> wheel;
+    private final ThreadPoolTaskScheduler ticker = new ThreadPoolTaskScheduler();
+
+    private final LongAdder unlocked = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    public LockExpiryService(MongoTemplate mongoTemplate, PrincipalCache principalCache, AppProperties appProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.principalCache = principalCache;
+        this.settings = appProperties.getSecurity().getLockExpiry();
+        this.tickMillis = Math.max(1, settings.getTick().toMillis());
+        this.wheel = new TimerWheel<>(System.currentTimeMillis() / tickMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        ticker.setThreadNamePrefix("lock-expiry-");
+        ticker.initialize();
+        ticker.scheduleAtFixedRate(() -> expire(System.currentTimeMillis()), settings.getTick());
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdown();
+    }
+
+    /**
+     * Agenda a liberação do bloqueio; agendamentos repetidos ou já desfeitos são inofensivos
+     */
+    public void schedule(String username, LocalDateTime lockedUntil) {
+        long deadline = lockedUntil.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Arredonda para cima: o desbloqueio nunca acontece antes do prazo
+        long deadlineTick = (deadline + tickMillis - 1) / tickMillis;
+        synchronized (wheel) {
+            wheel.schedule(username, deadlineTick);
+        }
+    }
+
+    /**
+     * Usuários com bloqueio gravado; também verificada pelo MongoIndexManager
+     */
+    public static Query lockedUsersQuery() {
+        Query query = Query.query(Criteria.where("lockedUntil").ne(null));
+        query.fields().include("username").include("lockedUntil");
+        return query;
+    }
+
+    /**
+     * Agenda todos os bloqueios gravados, inclusive os que venceram com a aplicação parada.
+     * Lê só o nome e o prazo pela projeção de bloqueio, sem materializar a entidade.
+     */
+    void rebuild() {
+        Query query = lockedUsersQuery();
+        long count = 0;
+        try (Stream<UserLockStatusView> users = mongoTemplate.query(User.class)
+                .as(UserLockStatusView.class)
+                .matching(query)
+                .stream()) {
+            for (UserLockStatusView user : (Iterable<UserLockStatusView>) users::iterator) {
+                schedule(user.getUsername(), user.getLockedUntil());
+                count++;
+            }
+            log.info("Expiração de bloqueios: {} bloqueios agendados", count);
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar os bloqueios gravados: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Desbloqueia os usuários cujo prazo venceu até {@code nowMillis}
+     */
+    void expire(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(nowMillis / tickMillis, expired);
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<String> usernames = new ArrayList<>(new LinkedHashSet<>(expired));
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+        for (int from = 0; from < usernames.size(); from += settings.getBatchSize()) {
+            unlock(usernames.subList(from, Math.min(usernames.size(), from + settings.getBatchSize())), now);
+        }
+    }
+
+    private void unlock(List<String> usernames, LocalDateTime now) {
+        // Usuários desbloqueados manualmente ou bloqueados de novo não atendem ao filtro
+        Query query = Query.query(Criteria.where("username").in(usernames).and("lockedUntil").lte(now));
+        Update update = new Update()
+                .set("isAccountNonLocked", true)
+                .unset("lockedUntil")
+                .set("updatedAt", now);
+
+        try {
+            long modified = mongoTemplate.updateMulti(query, update, User.class).getModifiedCount();
+            for (String username : usernames) {
+                principalCache.invalidate(username);
+            }
+            unlocked.add(modified);
+            batches.increment();
+            if (modified > 0) {
+                log.info("{} usuários desbloqueados por expiração do bloqueio", modified);
+            }
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.error("Falha ao desbloquear {} usuários, nova tentativa no próximo tick: {}",
+                    usernames.size(), e.getMessage());
+            long retryTick = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / tickMillis + 1;
+            synchronized (wheel) {
+                for (String username : usernames) {
+                    wheel.schedule(username, retryTick);
+                }
+            }
+        }
+    }
+
+    public Stats getStats() {
+        int scheduled;
+        synchronized (wheel) {
+            scheduled = wheel.size();
+        }
+        return new Stats(scheduled, unlocked.sum(), batches.sum(), failedBatches.sum(), settings.getTick().toMillis());
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private int scheduled;
+        private long unlocked;
+        private long batches;
+        private long failedBatches;
+        private long tickMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.LoginAttempt;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totais de tentativas de login nas últimas 24 horas, em posições de um minuto, somando
+ * todos os nós.
+ * <p>
+ * Os contadores são semeados na inicialização por uma única agregação {@code $group} e, a cada
+ * {@code app.audit.report-refresh-interval}, os minutos recentes são recontados em
+ * login_attempts, onde todos os nós gravam. Entre as recontagens, as tentativas deste nó são
+ * somadas na hora; as dos demais aparecem na recontagem seguinte. O relatório de segurança
+ * não consulta a coleção.
+ */
+@Slf4j
+@Component
+public class LoginAttemptCounters {
+
+    static final int WINDOW_MINUTES = 24 * 60;
+
+    // Recontagem a partir de um pouco antes da anterior, cobrindo os lotes ainda na fila do
+    // LoginAttemptWriter de cada nó naquele momento
+    static final Duration REFRESH_OVERLAP = Duration.ofMinutes(2);
+
+    private final MongoTemplate mongoTemplate;
+    private final SlidingWindowCounter successes = new SlidingWindowCounter(WINDOW_MINUTES);
+    private final SlidingWindowCounter failures = new SlidingWindowCounter(WINDOW_MINUTES);
+
+    private volatile LocalDateTime loadedAt;
+
+    public LoginAttemptCounters(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void record(boolean success) {
+        (success ? successes : failures).add(currentMinute(), 1);
+    }
+
+    public long getSuccessfulAttempts() {
+        return successes.sum(currentMinute());
+    }
+
+    public long getFailedAttempts() {
+        return failures.sum(currentMinute());
+    }
+
+    /**
+     * Carrega as contagens por minuto e resultado das últimas 24 horas
+     */
+    @PostConstruct
+    public void seed() {
+        long start = System.currentTimeMillis();
+        try {
+            long seeded = load(LocalDateTime.now().minusMinutes(WINDOW_MINUTES));
+            log.info("Contadores de tentativas de login carregados com {} registros em {} ms",
+                    seeded, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar os contadores de tentativas de login: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconta os minutos desde a carga anterior com as tentativas gravadas por todos os nós;
+     * sem carga anterior bem-sucedida, refaz a carga completa
+     */
+    @Scheduled(fixedDelayString = "#{@appProperties.audit.reportRefreshInterval.toMillis()}",
+            initialDelayString = "#{@appProperties.audit.reportRefreshInterval.toMillis()}")
+    public void refresh() {
+        LocalDateTime previous = loadedAt;
+        if (previous == null) {
+            seed();
+            return;
+        }
+
+        try {
+            load(previous.minus(REFRESH_OVERLAP));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar os contadores de tentativas de login: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Substitui as contagens dos minutos a partir de {@code since}, alinhado ao minuto para que
+     * o primeiro não seja recontado pela metade
+     */
+    private long load(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+
+        AggregationOperation groupByMinute = context -> new Document("$group", new Document()
+                .append("_id", new Document()
+                        .append("minute", new Document("$dateTrunc",
+                                new Document("date", "$attempt_time").append("unit", "minute")))
+                        .append("success", "$success"))
+                .append("count", new Document("$sum", 1)));
+
+        TypedAggregation<LoginAttempt> aggregation = Aggregation.newAggregation(LoginAttempt.class,
+                Aggregation.match(Criteria.where("attemptTime").gte(since.truncatedTo(ChronoUnit.MINUTES))),
+                groupByMinute);
+
+        long loaded = 0;
+        for (Document bucket : mongoTemplate.aggregate(aggregation, Document.class)) {
+            Document id = bucket.get("_id", Document.class);
+            long minute = TimeUnit.MILLISECONDS.toMinutes(id.getDate("minute").getTime());
+            long count = ((Number) bucket.get("count")).longValue();
+
+            (Boolean.TRUE.equals(id.getBoolean("success")) ? successes : failures).set(minute, count);
+            loaded += count;
+        }
+        loadedAt = now;
+        return loaded;
+    }
+
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+}
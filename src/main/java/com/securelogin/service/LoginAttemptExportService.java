@@ -0,0 +1,155 @@
+package com.securelogin.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.securelogin.dto.LoginAttemptExportRequest;
+import com.securelogin.entity.LoginAttempt;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exporta tentativas de login como NDJSON (um objeto JSON por linha) direto de um cursor
+ * do MongoDB. Cada documento é serializado e descartado, então a memória não cresce com o
+ * tamanho da exportação.
+ * <p>
+ * A ordem é a do _id, atribuído quando o {@link LoginAttemptWriter} grava o lote, e não a de
+ * attemptTime: uma tentativa gravada com atraso recebe um _id maior que o das já exportadas
+ * e aparece depois do token de retomada ({@link LoginAttemptExportRequest#getAfter()}), em
+ * vez de cair antes dele. Lotes de nós diferentes podem ser confirmados fora da ordem dos
+ * seus _id, então só são exportadas as tentativas com _id anterior a {@link #SETTLE_WINDOW};
+ * as mais recentes entram na exportação seguinte.
+ */
+@Service
+public class LoginAttemptExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+    private static final String ID_INDEX = "_id_";
+
+    /**
+     * Tempo para um lote ser confirmado após gerar os _id, com folga para diferenças de relógio
+     * entre os nós
+     */
+    static final Duration SETTLE_WINDOW = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Autowired
+    public LoginAttemptExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this(mongoTemplate, objectMapper, Clock.systemDefaultZone());
+    }
+
+    LoginAttemptExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Consulta da exportação, resolvida antes do início da resposta
+     *
+     * @throws IllegalArgumentException se o token de retomada não for um id válido
+     */
+    public Query toQuery(LoginAttemptExportRequest request) {
+        return toQuery(request, clock);
+    }
+
+    /**
+     * Consulta da exportação no instante de {@code clock}; também verificada pelo MongoIndexManager
+     *
+     * @throws IllegalArgumentException se o token de retomada não for um id válido
+     */
+    public static Query toQuery(LoginAttemptExportRequest request, Clock clock) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(idRange(request, clock));
+
+        if (request.getFrom() != null) {
+            criteria.add(Criteria.where("attemptTime").gte(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            criteria.add(Criteria.where("attemptTime").lt(request.getTo()));
+        }
+        if (request.getUsername() != null) {
+            criteria.add(Criteria.where("username").is(request.getUsername()));
+        }
+        if (request.getIpAddress() != null) {
+            criteria.add(Criteria.where("ipAddress").is(request.getIpAddress()));
+        }
+
+        Query query = Query.query(criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria));
+        // O índice de _id entrega a ordem sem ordenação em memória, mesmo com filtro por período
+        query.with(Sort.by(Sort.Direction.ASC, "id")).withHint(ID_INDEX).cursorBatchSize(CURSOR_BATCH_SIZE);
+        if (request.getLimit() > 0) {
+            query.limit(request.getLimit());
+        }
+        return query;
+    }
+
+    /**
+     * Escreve as tentativas em {@code out}, uma por linha, sem fechá-lo
+     *
+     * @return número de tentativas exportadas
+     */
+    public long export(Query query, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(LoginAttempt.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+
+        long count = 0;
+        try (Stream<LoginAttempt> attempts = mongoTemplate.stream(query, LoginAttempt.class);
+             JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (LoginAttempt attempt : (Iterable<LoginAttempt>) attempts::iterator) {
+                writer.writeValue(generator, attempt);
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Faixa de _id da exportação: depois do token, antes da janela de confirmação e, com
+     * {@code from}, a partir do instante em que uma tentativa desse período pode ter sido gravada
+     */
+    private static Criteria idRange(LoginAttemptExportRequest request, Clock clock) {
+        // O mapeamento do Spring não converte o id em ObjectId em $gt e $lt
+        Criteria id = Criteria.where("id").lt(firstIdAt(clock.instant().minus(SETTLE_WINDOW)));
+
+        if (request.getAfter() != null) {
+            if (!ObjectId.isValid(request.getAfter())) {
+                throw new IllegalArgumentException("Token de retomada inválido: " + request.getAfter());
+            }
+            id.gt(new ObjectId(request.getAfter()));
+        } else if (request.getFrom() != null) {
+            // O _id é gerado na gravação, sempre depois de attemptTime
+            id.gte(firstIdAt(request.getFrom().atZone(clock.getZone()).toInstant()));
+        }
+        return id;
+    }
+
+    /**
+     * Menor ObjectId gerado no segundo de {@code instant}
+     */
+    static ObjectId firstIdAt(Instant instant) {
+        return new ObjectId(String.format("%08x", instant.getEpochSecond()) + "0000000000000000");
+    }
+}
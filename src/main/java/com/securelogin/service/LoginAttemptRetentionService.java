@@ -0,0 +1,329 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retenção da coleção login_attempts.
+ * <p>
+ * Cada hora completa é consolidada com um $merge em {@value #ROLLUPS}, com sucessos e falhas
+ * por usuário e IP, e arquivada em um arquivo .jsonl.gz por hora, particionado por data (UTC),
+ * lido em fluxo por um cursor. O progresso fica em {@value #STATE}; repetir uma hora
+ * sobrescreve a mesma consolidação e não regrava arquivos existentes.
+ * <p>
+ * O índice TTL {@value #TTL_INDEX} remove as tentativas após {@code app.audit.retention}, mas
+ * só é criado ou reduzido quando o progresso salvo já passou desse horizonte; com o job
+ * atrasado, o prazo é aumentado até as horas já processadas.
+ * <p>
+ * Só o nó que detém a concessão em {@value #STATE} executa o job, e a renova a cada hora
+ * processada. Os arquivos ficam no disco desse nó: se outro nó assumir após uma falha, ele
+ * continua do progresso salvo no próprio diretório, que deve ser um volume compartilhado
+ * para manter o arquivo completo em um só lugar.
+ */
+@Slf4j
+@Service
+public class LoginAttemptRetentionService {
+
+    static final String LOGIN_ATTEMPTS = "login_attempts";
+    static final String ROLLUPS = "login_attempt_rollups";
+    static final String STATE = "audit_retention_state";
+    static final String LEASE = "login_attempts_lease";
+    static final String TTL_INDEX = "attempt_time_1";
+
+    // Tentativas gravadas em lote podem chegar alguns instantes depois do fim da hora
+    private static final Duration WRITE_GRACE = Duration.ofMinutes(5);
+    private static final DateTimeFormatter HOUR_FILE = DateTimeFormatter.ofPattern("'login_attempts-'HH'.jsonl.gz'")
+            .withZone(ZoneOffset.UTC);
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private final MongoTemplate mongoTemplate;
+    private final AppProperties.Audit settings;
+
+    private final LongAdder rolledUpHours = new LongAdder();
+    private final LongAdder archivedFiles = new LongAdder();
+    private final LongAdder archivedAttempts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean leader;
+    private volatile Duration expireAfter;
+
+    public LoginAttemptRetentionService(MongoTemplate mongoTemplate, AppProperties appProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.settings = appProperties.getAudit();
+    }
+
+    @Scheduled(fixedDelayString = "#{@appProperties.audit.rollupInterval.toMillis()}")
+    public void run() {
+        run(Instant.now());
+    }
+
+    /**
+     * Consolida as horas completas e arquiva as que expiram em até {@code app.audit.archive.lead}
+     */
+    void run(Instant now) {
+        Instant currentHour = now.minus(WRITE_GRACE).truncatedTo(ChronoUnit.HOURS);
+        try {
+            leader = acquireLease(now);
+            if (!leader) {
+                return;
+            }
+            State state = loadState();
+
+            Instant hour = state.rolledUpUntil != null ? state.rolledUpUntil : oldestHour(currentHour);
+            for (; hour.isBefore(currentHour); hour = hour.plus(1, ChronoUnit.HOURS)) {
+                rollup(hour);
+                state.rolledUpUntil = hour.plus(1, ChronoUnit.HOURS);
+                saveState(state);
+            }
+
+            if (archiving()) {
+                Instant archiveUntil = min(currentHour,
+                        now.minus(settings.getRetention()).plus(settings.getArchive().getLead()).truncatedTo(ChronoUnit.HOURS));
+                hour = state.archivedUntil != null ? state.archivedUntil : oldestHour(archiveUntil);
+                for (; hour.isBefore(archiveUntil); hour = hour.plus(1, ChronoUnit.HOURS)) {
+                    archive(hour);
+                    state.archivedUntil = hour.plus(1, ChronoUnit.HOURS);
+                    saveState(state);
+                }
+            }
+
+            applyExpiration(state, now);
+        } catch (RuntimeException e) {
+            // O progresso salvo é retomado na próxima execução
+            failures.increment();
+            log.error("Falha na retenção de tentativas de login: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava em {@value #ROLLUPS} os totais da hora, um documento por usuário e IP
+     */
+    void rollup(Instant hour) {
+        Date from = Date.from(hour);
+        Date to = Date.from(hour.plus(1, ChronoUnit.HOURS));
+
+        List<Document> pipeline = Arrays.asList(
+                new Document("$match", new Document("attempt_time", new Document("$gte", from).append("$lt", to))),
+                new Document("$group", new Document("_id", new Document("hour", new Document("$literal", from))
+                        .append("username", "$username")
+                        .append("ip_address", "$ip_address"))
+                        .append("successes", new Document("$sum", new Document("$cond", Arrays.asList("$success", 1, 0))))
+                        .append("failures", new Document("$sum", new Document("$cond", Arrays.asList("$success", 0, 1))))),
+                new Document("$merge", new Document("into", ROLLUPS)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+
+        mongoTemplate.getCollection(LOGIN_ATTEMPTS).aggregate(pipeline).allowDiskUse(true).toCollection();
+        rolledUpHours.increment();
+        log.debug("Tentativas de login de {} consolidadas", hour);
+    }
+
+    /**
+     * Tentativas da hora, em ordem de attempt_time; também verificada pelo MongoIndexManager
+     */
+    public static Query archiveQuery(Instant hour) {
+        return Query.query(Criteria.where("attempt_time")
+                        .gte(Date.from(hour)).lt(Date.from(hour.plus(1, ChronoUnit.HOURS))))
+                .with(Sort.by(Sort.Direction.ASC, "attempt_time"));
+    }
+
+    /**
+     * Grava as tentativas da hora em {@code <diretório>/<data>/login_attempts-HH.jsonl.gz}
+     */
+    void archive(Instant hour) {
+        Path directory = Paths.get(settings.getArchive().getDirectory(), hour.atOffset(ZoneOffset.UTC).toLocalDate().toString());
+        Path file = directory.resolve(HOUR_FILE.format(hour));
+        if (Files.exists(file)) {
+            return;
+        }
+
+        Query query = archiveQuery(hour);
+        Path partial = directory.resolve(file.getFileName() + ".part");
+        long count = 0;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Document> attempts = mongoTemplate.stream(query, Document.class, LOGIN_ATTEMPTS);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(
+                         new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                for (Document attempt : (Iterable<Document>) attempts::iterator) {
+                    writer.write(attempt.toJson(JSON));
+                    writer.write('\n');
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                Files.delete(partial);
+                return;
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao arquivar " + file, e);
+        }
+
+        archivedFiles.increment();
+        archivedAttempts.add(count);
+        log.info("{} tentativas de login arquivadas em {}", count, file);
+    }
+
+    /**
+     * Ajusta o índice TTL para não remover horas ainda não consolidadas ou arquivadas
+     */
+    private void applyExpiration(State state, Instant now) {
+        Instant processedUntil = archiving() ? earliest(state.rolledUpUntil, state.archivedUntil) : state.rolledUpUntil;
+        if (processedUntil == null) {
+            return;
+        }
+
+        // Até a próxima execução o horizonte do TTL avança um intervalo
+        Duration pending = Duration.between(processedUntil, now).plus(settings.getRollupInterval()).plus(WRITE_GRACE);
+        Duration target = pending.compareTo(settings.getRetention()) > 0
+                ? Duration.ofHours(pending.toHours() + 1)
+                : settings.getRetention();
+
+        IndexOperations indexOps = mongoTemplate.indexOps(LOGIN_ATTEMPTS);
+        Optional<IndexInfo> current = indexOps.getIndexInfo().stream()
+                .filter(index -> TTL_INDEX.equals(index.getName()))
+                .findFirst();
+        if (!current.isPresent()) {
+            indexOps.ensureIndex(new Index().on("attempt_time", Sort.Direction.ASC).named(TTL_INDEX).expire(target));
+            log.info("Índice TTL '{}' criado com prazo de {}", TTL_INDEX, target);
+        } else if (!current.get().getExpireAfter().map(target::equals).orElse(false)) {
+            // Recriar o índice com outro prazo falharia; collMod altera o existente
+            mongoTemplate.executeCommand(new Document("collMod", LOGIN_ATTEMPTS)
+                    .append("index", new Document("name", TTL_INDEX).append("expireAfterSeconds", target.getSeconds())));
+            log.info("Prazo do índice TTL '{}' alterado para {}", TTL_INDEX, target);
+        }
+        expireAfter = target;
+    }
+
+    /**
+     * Obtém ou renova a concessão do job; outro nó só a assume depois que ela vence
+     */
+    private boolean acquireLease(Instant now) {
+        Query query = Query.query(Criteria.where("_id").is(LEASE).orOperator(
+                Criteria.where("owner").is(nodeId),
+                Criteria.where("expires_at").lt(Date.from(now))));
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("expires_at", Date.from(now.plus(settings.getRollupInterval().multipliedBy(2)).plus(WRITE_GRACE)));
+        try {
+            mongoTemplate.upsert(query, update, STATE);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean archiving() {
+        return !settings.getArchive().getDirectory().isEmpty();
+    }
+
+    private Instant oldestHour(Instant fallback) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "attempt_time")).limit(1);
+        query.fields().include("attempt_time");
+        Document oldest = mongoTemplate.findOne(query, Document.class, LOGIN_ATTEMPTS);
+        return oldest != null
+                ? oldest.getDate("attempt_time").toInstant().truncatedTo(ChronoUnit.HOURS)
+                : fallback;
+    }
+
+    private State loadState() {
+        Document document = mongoTemplate.findById(LOGIN_ATTEMPTS, Document.class, STATE);
+        State state = new State();
+        if (document != null) {
+            state.rolledUpUntil = toInstant(document.getDate("rolled_up_until"));
+            state.archivedUntil = toInstant(document.getDate("archived_until"));
+        }
+        return state;
+    }
+
+    private void saveState(State state) {
+        if (!acquireLease(Instant.now())) {
+            throw new IllegalStateException("Concessão da retenção assumida por outro nó");
+        }
+        Document document = new Document("_id", LOGIN_ATTEMPTS)
+                .append("rolled_up_until", state.rolledUpUntil != null ? Date.from(state.rolledUpUntil) : null)
+                .append("archived_until", state.archivedUntil != null ? Date.from(state.archivedUntil) : null);
+        mongoTemplate.save(document, STATE);
+    }
+
+    public Stats getStats() {
+        State state = loadState();
+        Duration applied = expireAfter;
+        return new Stats(settings.getRetention().toDays(), leader, applied != null ? applied.toHours() : 0,
+                state.rolledUpUntil, state.archivedUntil,
+                rolledUpHours.sum(), archivedFiles.sum(), archivedAttempts.sum(), failures.sum());
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a == null || b == null ? null : min(a, b);
+    }
+
+    private static class State {
+        private Instant rolledUpUntil;
+        private Instant archivedUntil;
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private long retentionDays;
+        private boolean leader;
+        private long expireAfterHours;
+        private Instant rolledUpUntil;
+        private Instant archivedUntil;
+        private long rolledUpHours;
+        private long archivedFiles;
+        private long archivedAttempts;
+        private long failures;
+    }
+}
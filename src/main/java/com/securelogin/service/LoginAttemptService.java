@@ -1,9 +1,12 @@
 package com.securelogin.service;
 
+import com.securelogin.dto.LoginHistoryView;
 import com.securelogin.entity.LoginAttempt;
 import com.securelogin.repository.LoginAttemptRepository;
+import org.bson.types.ObjectId;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,27 +17,55 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LoginAttemptService {
     
+    static final int MAX_PAGE_SIZE = 100;
+    
     private final LoginAttemptRepository loginAttemptRepository;
+    private final LoginAttemptWriter loginAttemptWriter;
+    private final LoginAttemptCounters loginAttemptCounters;
     
     public void recordLoginAttempt(String username, String ipAddress, boolean success, String userAgent) {
         LoginAttempt attempt = new LoginAttempt(username, ipAddress, success, userAgent);
-        loginAttemptRepository.save(attempt);
+        loginAttemptWriter.submit(attempt);
+        loginAttemptCounters.record(success);
         log.debug("Login attempt recorded: {} - {}", username, success ? "SUCCESS" : "FAILED");
     }
     
     public void recordLoginAttempt(String username, String ipAddress, boolean success, String userAgent, String failureReason) {
         LoginAttempt attempt = new LoginAttempt(username, ipAddress, success, userAgent);
         attempt.setFailureReason(failureReason);
-        loginAttemptRepository.save(attempt);
+        loginAttemptWriter.submit(attempt);
+        loginAttemptCounters.record(success);
         log.debug("Login attempt recorded: {} - {} - {}", username, success ? "SUCCESS" : "FAILED", failureReason);
     }
     
-    public List<LoginAttempt> getSuccessfulLoginAttemptsByUsername(String username) {
-        return loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc(username, true);
+    /**
+     * Últimos logins bem-sucedidos, com o limite aplicado pelo MongoDB
+     */
+    public List<LoginHistoryView> getRecentSuccessfulLogins(String username) {
+        return loginAttemptRepository.findTop5ByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(username, true, LoginHistoryView.class);
+    }
+    
+    /**
+     * Página do histórico de login, da mais recente para a mais antiga.
+     * Passe a attemptTime e o id do último item recebido em {@code before} e {@code beforeId}
+     * para obter a próxima página.
+     */
+    public List<LoginHistoryView> getLoginHistory(String username, LocalDateTime before, String beforeId, int limit) {
+        Limit pageLimit = pageLimit(limit);
+        ObjectId cursorId = cursorId(before, beforeId);
+        return before == null
+                ? loginAttemptRepository.findByUsernameOrderByAttemptTimeDescIdDesc(username, pageLimit, LoginHistoryView.class)
+                : loginAttemptRepository.findAttemptsBefore(username, before, cursorId, pageLimit, LoginHistoryView.class);
     }
     
-    public List<LoginAttempt> getFailedLoginAttemptsByUsername(String username) {
-        return loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc(username, false);
+    public List<LoginAttempt> getSuccessfulLoginAttemptsByUsername(String username, LocalDateTime before, String beforeId,
+                                                                   int limit) {
+        return findByResult(username, true, before, beforeId, limit);
+    }
+    
+    public List<LoginAttempt> getFailedLoginAttemptsByUsername(String username, LocalDateTime before, String beforeId,
+                                                               int limit) {
+        return findByResult(username, false, before, beforeId, limit);
     }
     
     public List<LoginAttempt> getRecentFailedAttemptsByIp(String ipAddress, int hours) {
@@ -42,15 +73,42 @@ public class LoginAttemptService {
         return loginAttemptRepository.findFailedAttemptsByIpSince(ipAddress, since);
     }
     
+    private List<LoginAttempt> findByResult(String username, boolean success, LocalDateTime before, String beforeId,
+                                            int limit) {
+        Limit pageLimit = pageLimit(limit);
+        ObjectId cursorId = cursorId(before, beforeId);
+        return before == null
+                ? loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(username, success, pageLimit)
+                : loginAttemptRepository.findAttemptsByResultBefore(username, success, before, cursorId, pageLimit);
+    }
+    
+    static Limit pageLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("O limite deve ser maior que zero");
+        }
+        return Limit.of(Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * O cursor só é válido com os dois campos do último item: a attemptTime sozinha pularia
+     * as tentativas restantes do mesmo instante
+     */
+    static ObjectId cursorId(LocalDateTime before, String beforeId) {
+        if ((before == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("O cursor exige a attemptTime e o id do último item");
+        }
+        return beforeId == null ? null : new ObjectId(beforeId);
+    }
+    
+    /**
+     * Relatório das últimas 24 horas lido dos contadores em memória
+     */
     public SecurityReport generateSecurityReport() {
         LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
         
-        List<LoginAttempt> recentFailedAttempts = loginAttemptRepository.findFailedAttemptsSince(last24Hours);
-        List<LoginAttempt> recentAttempts = loginAttemptRepository.findRecentAttempts(last24Hours);
-        
-        long totalAttempts = recentAttempts.size();
-        long failedAttempts = recentFailedAttempts.size();
-        long successfulAttempts = totalAttempts - failedAttempts;
+        long successfulAttempts = loginAttemptCounters.getSuccessfulAttempts();
+        long failedAttempts = loginAttemptCounters.getFailedAttempts();
+        long totalAttempts = successfulAttempts + failedAttempts;
         
         return new SecurityReport(totalAttempts, successfulAttempts, failedAttempts, last24Hours);
     }
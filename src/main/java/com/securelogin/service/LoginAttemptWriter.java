@@ -0,0 +1,208 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.repository.LoginAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Grava as tentativas de login em lotes, fora da thread da requisição.
+ * <p>
+ * As tentativas entram em uma fila limitada e uma thread de fundo as grava com insertMany
+ * quando o lote enche ou o intervalo expira. Com a fila cheia o login espera no máximo
+ * {@code offer-timeout} e o registro é descartado.
+ * <p>
+ * O gravador para depois do servidor web, inclusive do encerramento gracioso, então os logins
+ * ainda em andamento entram na fila antes de ela ser esvaziada. Tentativas enviadas depois da
+ * parada são gravadas na própria thread.
+ */
+@Slf4j
+@Component
+public class LoginAttemptWriter implements SmartLifecycle {
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final BlockingQueue<LoginAttempt> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    public LoginAttemptWriter(LoginAttemptRepository loginAttemptRepository, AppProperties appProperties) {
+        AppProperties.Audit audit = appProperties.getAudit();
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.queue = new ArrayBlockingQueue<>(audit.getQueueCapacity());
+        this.batchSize = audit.getBatchSize();
+        this.flushIntervalNanos = audit.getFlushInterval().toNanos();
+        this.offerTimeoutNanos = audit.getOfferTimeout().toNanos();
+    }
+
+    /**
+     * Enfileira a tentativa para gravação
+     *
+     * @return false se a fila continuou cheia e o registro foi descartado
+     */
+    public boolean submit(LoginAttempt attempt) {
+        if (stopped) {
+            accepted.increment();
+            flush(new ArrayList<>(Collections.singletonList(attempt)));
+            return true;
+        }
+
+        try {
+            if (queue.offer(attempt, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                accepted.increment();
+                if (stopped) {
+                    // O gravador parou entre a verificação e a inserção na fila
+                    drain();
+                }
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        dropped.increment();
+        log.debug("Fila de auditoria cheia, tentativa de login descartada: {}", attempt.getUsername());
+        return false;
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        worker = new Thread(this::run, "login-attempt-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        running = false;
+        if (worker == null) {
+            return;
+        }
+
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Gravador de auditoria encerrado: {} tentativas gravadas, {} descartadas", written.sum(), dropped.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Abaixo da parada do servidor web (fase do encerramento gracioso - 1024)
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    public Stats getStats() {
+        return new Stats(queue.size(), accepted.sum(), dropped.sum(), written.sum(), batches.sum(), failed.sum());
+    }
+
+    private void run() {
+        List<LoginAttempt> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+        }
+
+        drain();
+    }
+
+    private void drain() {
+        List<LoginAttempt> batch = new ArrayList<>(batchSize);
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            flush(batch);
+        }
+    }
+
+    /**
+     * Aguarda a primeira tentativa e acumula outras até encher o lote ou expirar o intervalo
+     */
+    private void fillBatch(List<LoginAttempt> batch) throws InterruptedException {
+        LoginAttempt first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+
+            LoginAttempt next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<LoginAttempt> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            loginAttemptRepository.insert(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Falha ao gravar lote de {} tentativas de login: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private int queueDepth;
+        private long accepted;
+        private long dropped;
+        private long written;
+        private long batches;
+        private long failed;
+    }
+}
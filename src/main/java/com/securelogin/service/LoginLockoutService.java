@@ -0,0 +1,160 @@
+package com.securelogin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.securelogin.config.AppProperties;
+import com.securelogin.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica a política de bloqueio por falhas de login consecutivas.
+ * <p>
+ * As falhas são contadas em memória, por usuário e por IP, em janelas deslizantes de um
+ * minuto por posição. A verificação acontece antes do encoder de senhas, então um
+ * principal bloqueado é rejeitado sem custo de hashing. O bloqueio de usuários existentes
+ * também é gravado no documento para valer nos demais nós.
+ */
+@Slf4j
+@Service
+public class LoginLockoutService {
+
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final UsernameBloomFilter usernameFilter;
+    private final LockExpiryService lockExpiryService;
+
+    private final int maxLoginAttempts;
+    private final int maxIpAttempts;
+    private final int windowMinutes;
+    private final Duration lockDuration;
+
+    private final Cache<String, SlidingWindowCounter> usernameFailures;
+    private final Cache<String, SlidingWindowCounter> ipFailures;
+    private final Cache<String, Long> lockedUsernames;
+    private final Cache<String, Long> lockedIps;
+
+    public LoginLockoutService(AppProperties appProperties, UserRepository userRepository,
+                               PrincipalCache principalCache, UsernameBloomFilter usernameFilter,
+                               LockExpiryService lockExpiryService) {
+        AppProperties.Security security = appProperties.getSecurity();
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.usernameFilter = usernameFilter;
+        this.lockExpiryService = lockExpiryService;
+        this.maxLoginAttempts = security.getMaxLoginAttempts();
+        this.maxIpAttempts = security.getMaxIpAttempts();
+        this.windowMinutes = security.getFailureWindowMinutes();
+        this.lockDuration = Duration.ofMinutes(security.getLockTimeMinutes());
+
+        this.usernameFailures = counterCache(windowMinutes);
+        this.ipFailures = counterCache(windowMinutes);
+        this.lockedUsernames = Caffeine.newBuilder().maximumSize(MAX_TRACKED_KEYS).expireAfterWrite(lockDuration).build();
+        this.lockedIps = Caffeine.newBuilder().maximumSize(MAX_TRACKED_KEYS).expireAfterWrite(lockDuration).build();
+    }
+
+    public boolean isLocked(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        return isActive(lockedUsernames.getIfPresent(username), now)
+                || (ipAddress != null && isActive(lockedIps.getIfPresent(ipAddress), now));
+    }
+
+    public void recordFailure(String username, String ipAddress) {
+        long minute = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+
+        if (username != null) {
+            long failures = usernameFailures.get(username, key -> new SlidingWindowCounter(windowMinutes)).increment(minute);
+            if (failures >= maxLoginAttempts) {
+                lockUsername(username);
+            }
+        }
+
+        if (ipAddress != null) {
+            long failures = ipFailures.get(ipAddress, key -> new SlidingWindowCounter(windowMinutes)).increment(minute);
+            if (failures >= maxIpAttempts) {
+                lockIp(ipAddress);
+            }
+        }
+    }
+
+    public void recordSuccess(String username) {
+        usernameFailures.invalidate(username);
+    }
+
+    /**
+     * Falhas que ainda podem ocorrer na janela atual antes do bloqueio do usuário
+     */
+    public int getRemainingAttempts(String username) {
+        SlidingWindowCounter failures = usernameFailures.getIfPresent(username);
+        long count = failures != null ? failures.sum(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis())) : 0;
+        return (int) Math.max(0, maxLoginAttempts - count);
+    }
+
+    public int getMaxLoginAttempts() {
+        return maxLoginAttempts;
+    }
+
+    /**
+     * Remove o estado em memória de um usuário desbloqueado manualmente
+     */
+    public void clear(String username) {
+        usernameFailures.invalidate(username);
+        lockedUsernames.invalidate(username);
+    }
+
+    /**
+     * IP de origem registrado pelo formulário de login, quando disponível
+     */
+    public static String remoteAddress(Authentication authentication) {
+        Object details = authentication.getDetails();
+        return details instanceof WebAuthenticationDetails
+                ? ((WebAuthenticationDetails) details).getRemoteAddress()
+                : null;
+    }
+
+    private void lockUsername(String username) {
+        long until = System.currentTimeMillis() + lockDuration.toMillis();
+        if (lockedUsernames.asMap().putIfAbsent(username, until) != null) {
+            return;
+        }
+        log.warn("Usuário bloqueado por {} minutos após {} falhas de login: {}",
+                lockDuration.toMinutes(), maxLoginAttempts, username);
+
+        // Nomes inexistentes ficam bloqueados apenas em memória
+        if (usernameFilter.mightContain(username)) {
+            LocalDateTime lockedUntil = LocalDateTime.ofInstant(Instant.ofEpochMilli(until), ZoneId.systemDefault());
+            if (userRepository.lockByUsername(username, lockedUntil, LocalDateTime.now()) > 0) {
+                lockExpiryService.schedule(username, lockedUntil);
+            }
+            principalCache.invalidate(username);
+        }
+    }
+
+    private void lockIp(String ipAddress) {
+        long until = System.currentTimeMillis() + lockDuration.toMillis();
+        if (lockedIps.asMap().putIfAbsent(ipAddress, until) == null) {
+            log.warn("IP bloqueado por excesso de falhas de login: {}", ipAddress);
+        }
+    }
+
+    private static boolean isActive(Long lockedUntil, long now) {
+        return lockedUntil != null && lockedUntil > now;
+    }
+
+    private static Cache<String, SlidingWindowCounter> counterCache(int windowMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+}
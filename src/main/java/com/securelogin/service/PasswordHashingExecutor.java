@@ -0,0 +1,242 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool dedicado e limitado para o hashing de senhas.
+ * <p>
+ * Cada verificação BCrypt consome centenas de milissegundos de CPU. Executá-las aqui,
+ * com fila limitada e prazo por requisição, impede que uma rajada de logins ocupe todas
+ * as threads do Tomcat: o excedente é rejeitado imediatamente.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    // Prazos das tarefas de submit(), cancelados quando a tarefa termina antes
+    private final ScheduledThreadPoolExecutor deadlines;
+    private final int queueCapacity;
+    private final long deadlineNanos;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(AppProperties properties) {
+        AppProperties.Hashing hashing = properties.getSecurity().getHashing();
+        int poolSize = hashing.getPoolSize() > 0
+                ? hashing.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+
+        this.queueCapacity = hashing.getQueueCapacity();
+        this.deadlineNanos = hashing.getDeadline().toNanos();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        CustomizableThreadFactory deadlineThreads = new CustomizableThreadFactory("password-hashing-deadline-");
+        deadlineThreads.setDaemon(true);
+        this.deadlines = new ScheduledThreadPoolExecutor(1, deadlineThreads);
+        this.deadlines.setRemoveOnCancelPolicy(true);
+
+        log.info("Pool de hashing de senhas iniciado: {} threads, fila de {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Executa a tarefa no pool de hashing, bloqueando a thread chamadora até o resultado
+     * ou até o prazo configurado.
+     *
+     * @throws HashingRejectedException se a fila estiver cheia ou o prazo expirar
+     */
+    public <T> T execute(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            long waited = System.nanoTime() - enqueuedAt;
+            recordWait(waited);
+            if (waited >= deadlineNanos) {
+                throw new HashingRejectedException(Reason.DEADLINE_EXCEEDED);
+            }
+            return task.call();
+        });
+
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingRejectedException(Reason.QUEUE_FULL);
+        }
+        submitted.increment();
+
+        try {
+            T result = future.get(deadlineNanos - (System.nanoTime() - enqueuedAt), TimeUnit.NANOSECONDS);
+            completed.increment();
+            return result;
+        } catch (TimeoutException | CancellationException e) {
+            abandon(future);
+            throw new HashingRejectedException(Reason.DEADLINE_EXCEEDED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(future);
+            throw new HashingRejectedException(Reason.DEADLINE_EXCEEDED);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HashingRejectedException) {
+                timedOut.increment();
+                throw (HashingRejectedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Falha no hashing de senha", cause);
+        }
+    }
+
+    /**
+     * Agenda a tarefa no pool de hashing sem bloquear a thread chamadora, para o modo
+     * reativo. O futuro falha com {@link HashingRejectedException} se a fila estiver cheia
+     * ou o prazo expirar, com a mesma contabilidade de {@link #execute(Callable)}.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            // Prazo expirado ou assinante cancelado enquanto a tarefa aguardava na fila
+            if (result.isDone()) {
+                return;
+            }
+            recordWait(System.nanoTime() - enqueuedAt);
+            try {
+                if (result.complete(task.call())) {
+                    completed.increment();
+                }
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new HashingRejectedException(Reason.QUEUE_FULL));
+            return result;
+        }
+        submitted.increment();
+
+        ScheduledFuture<?> deadline = deadlines.schedule(() -> {
+            executor.remove(runnable);
+            if (result.completeExceptionally(new HashingRejectedException(Reason.DEADLINE_EXCEEDED))) {
+                timedOut.increment();
+            }
+        }, deadlineNanos, TimeUnit.NANOSECONDS);
+        result.whenComplete((value, error) -> deadline.cancel(false));
+        return result;
+    }
+
+    public Stats getStats() {
+        long startedCount = started.sum();
+        return new Stats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                submitted.sum(),
+                completed.sum(),
+                rejected.sum(),
+                timedOut.sum(),
+                startedCount > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / startedCount) : 0,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    /**
+     * Prazos de submit() ainda agendados
+     */
+    int pendingDeadlines() {
+        return deadlines.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        deadlines.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void recordWait(long waitedNanos) {
+        started.increment();
+        totalWaitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    /**
+     * Descarta uma tarefa cujo prazo expirou, liberando sua posição na fila
+     */
+    private void abandon(Future<?> future) {
+        timedOut.increment();
+        future.cancel(false);
+        executor.remove((Runnable) future);
+    }
+
+    public enum Reason {
+        QUEUE_FULL,
+        DEADLINE_EXCEEDED
+    }
+
+    /**
+     * Lançada quando a verificação não pode ser admitida no pool de hashing
+     */
+    public static class HashingRejectedException extends AuthenticationServiceException {
+
+        private final Reason reason;
+
+        public HashingRejectedException(Reason reason) {
+            super("Verificação de senha rejeitada: " + reason);
+            this.reason = reason;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private int poolSize;
+        private int activeThreads;
+        private int queueDepth;
+        private int queueCapacity;
+        private long submitted;
+        private long completed;
+        private long rejected;
+        private long timedOut;
+        private long averageWaitMillis;
+        private long maxWaitMillis;
+    }
+}
@@ -0,0 +1,124 @@
+package com.securelogin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.securelogin.config.AppProperties;
+import com.securelogin.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (W-TinyLFU) dos usuários carregados no caminho de autenticação.
+ * Alterações de status e de senha devem invalidar a entrada explicitamente; as feitas por
+ * outros nós chegam pelo {@link UserChangeWatcher}, que identifica o usuário pelo id.
+ * <p>
+ * O loader roda fora do {@code compute()} do Caffeine: a consulta ao MongoDB dentro do
+ * monitor do mapa prenderia a thread portadora quando a requisição roda em thread virtual.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, User> cache;
+    private final Map<String, String> usernamesById = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public PrincipalCache(AppProperties appProperties) {
+        this(appProperties.getSecurity().getPrincipalCache().getMaximumSize(),
+                appProperties.getSecurity().getPrincipalCache().getTtl());
+    }
+
+    public PrincipalCache(long maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                // Síncrono, ao contrário do removalListener: não remove o id de uma entrada recarregada
+                .evictionListener((String username, User user, RemovalCause cause) -> {
+                    if (user != null && user.getId() != null) {
+                        usernamesById.remove(user.getId(), username);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna o usuário em cache ou o carrega com o loader informado.
+     * Usuários inexistentes não são armazenados.
+     */
+    public Optional<User> get(String username, Function<String, Optional<User>> loader) {
+        User cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = invalidations.get();
+        Optional<User> loaded = loader.apply(username);
+        loaded.ifPresent(user -> {
+            if (user.getId() != null) {
+                usernamesById.put(user.getId(), username);
+            }
+            cache.put(username, user);
+            // Uma invalidação durante a carga pode ter sido anterior ao put: descarta o valor
+            if (invalidations.get() != generation) {
+                cache.invalidate(username);
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(String username) {
+        invalidations.incrementAndGet();
+        User removed = cache.asMap().remove(username);
+        if (removed != null && removed.getId() != null) {
+            usernamesById.remove(removed.getId(), username);
+        }
+    }
+
+    /**
+     * Invalida o usuário com o id informado. Uma carga em andamento também é descartada,
+     * já que o id só é conhecido depois dela.
+     */
+    public void invalidateById(String id) {
+        invalidations.incrementAndGet();
+        String username = usernamesById.get(id);
+        if (username != null) {
+            invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        usernamesById.clear();
+    }
+
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private long size;
+        private long hits;
+        private long misses;
+        private double hitRate;
+        private long evictions;
+    }
+}
@@ -0,0 +1,41 @@
+package com.securelogin.service;
+
+import com.securelogin.dto.LoginHistoryView;
+import com.securelogin.repository.ReactiveLoginAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consultas do histórico de login no modo reativo. A gravação e os contadores continuam
+ * em {@link LoginAttemptService}, que não bloqueia: apenas enfileira a tentativa.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveLoginAttemptService {
+    
+    private final ReactiveLoginAttemptRepository loginAttemptRepository;
+    
+    public Flux<LoginHistoryView> getRecentSuccessfulLogins(String username) {
+        return loginAttemptRepository.findTop5HistoryByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(username, true);
+    }
+    
+    /**
+     * Página do histórico de login, da mais recente para a mais antiga.
+     * Passe a attemptTime e o id do último item recebido em {@code before} e {@code beforeId}
+     * para obter a próxima página.
+     */
+    public Flux<LoginHistoryView> getLoginHistory(String username, LocalDateTime before, String beforeId, int limit) {
+        Limit pageLimit = LoginAttemptService.pageLimit(limit);
+        ObjectId cursorId = LoginAttemptService.cursorId(before, beforeId);
+        return before == null
+                ? loginAttemptRepository.findHistoryByUsernameOrderByAttemptTimeDescIdDesc(username, pageLimit)
+                : loginAttemptRepository.findHistoryBefore(username, before, cursorId, pageLimit);
+    }
+}
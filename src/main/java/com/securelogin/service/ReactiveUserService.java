@@ -0,0 +1,92 @@
+package com.securelogin.service;
+
+import com.securelogin.config.BoundedPasswordEncoder;
+import com.securelogin.dto.UserProfileView;
+import com.securelogin.entity.User;
+import com.securelogin.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Versão reativa de {@link UserService} para o perfil reactive.
+ * <p>
+ * As consultas usam o driver reativo do MongoDB e o hashing é agendado no pool limitado
+ * de {@link PasswordHashingExecutor}, de modo que nenhuma thread do event loop fica
+ * esperando pelo banco ou pelo BCrypt. O cache de principais não é usado: a consulta
+ * reativa não ocupa thread enquanto aguarda o MongoDB.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+    
+    private final ReactiveUserRepository userRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UsernameBloomFilter usernameFilter;
+    
+    /**
+     * Usuário ativo com o nome informado, ou vazio se não existir ou estiver inativo
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        // Negativo do filtro é definitivo: evita a consulta ao banco para nomes desconhecidos
+        if (!usernameFilter.mightContain(username)) {
+            return Mono.empty();
+        }
+        
+        return userRepository.findByUsername(username)
+                .filter(User::isActive)
+                .cast(UserDetails.class);
+    }
+    
+    /**
+     * Regrava o hash de um usuário autenticado cujo hash estava desatualizado,
+     * alterando apenas o campo da senha
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePasswordByUsername(user.getUsername(), newPassword, LocalDateTime.now())
+                .map(updated -> {
+                    log.info("Hash de senha atualizado para o usuário: {}", user.getUsername());
+                    if (user instanceof User) {
+                        ((User) user).setPassword(newPassword);
+                    }
+                    return user;
+                });
+    }
+    
+    public Mono<User> createUser(User user) {
+        return userRepository.existsByUsername(user.getUsername())
+                .flatMap(usernameExists -> usernameExists
+                        ? Mono.error(new IllegalArgumentException("Nome de usuário já existe: " + user.getUsername()))
+                        : userRepository.existsByEmail(user.getEmail()))
+                .flatMap(emailExists -> emailExists
+                        ? Mono.error(new IllegalArgumentException("Email já existe: " + user.getEmail()))
+                        : Mono.fromFuture(() -> passwordEncoder.encodeAsync(user.getPassword())))
+                .flatMap(encodedPassword -> {
+                    if (user.getRoles() == null || user.getRoles().isEmpty()) {
+                        user.setRoles(new HashSet<>(Arrays.asList("USER")));
+                    }
+                    user.setPassword(encodedPassword);
+                    user.setCreatedAt(LocalDateTime.now());
+                    user.setUpdatedAt(LocalDateTime.now());
+                    return userRepository.save(user);
+                })
+                .doOnNext(savedUser -> usernameFilter.put(savedUser.getUsername()));
+    }
+    
+    public Mono<UserProfileView> findProfileByUsername(String username) {
+        return userRepository.findProfileByUsername(username);
+    }
+}
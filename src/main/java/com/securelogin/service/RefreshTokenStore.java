@@ -0,0 +1,95 @@
+package com.securelogin.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Tokens de renovação emitidos, na coleção refresh_tokens.
+ * <p>
+ * Cada token vale para uma única renovação: o uso é marcado de forma atômica e o par seguinte
+ * herda a família do token usado. Um token já usado ou revogado que volte a ser apresentado
+ * indica que ele vazou, e toda a família é revogada, inclusive o token mais recente. O índice
+ * TTL em expire_at remove os tokens vencidos.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    public static final String REFRESH_TOKENS = "refresh_tokens";
+    static final String ID = "_id";
+    public static final String FAMILY = "family";
+    static final String USERNAME = "username";
+    public static final String EXPIRE_AT = "expire_at";
+    static final String USED_AT = "used_at";
+    static final String REVOKED = "revoked";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RefreshTokenStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void register(String id, String family, String username, Instant expiresAt) {
+        collection().insertOne(new Document(ID, id)
+                .append(FAMILY, family)
+                .append(USERNAME, username)
+                .append(EXPIRE_AT, Date.from(expiresAt))
+                .append(REVOKED, false));
+    }
+
+    /**
+     * Marca o token como usado e devolve a sua família; vazio se ele não existir, já tiver sido
+     * usado ou estiver revogado. A reutilização revoga a família inteira
+     */
+    public Optional<String> redeem(String id, Instant now) {
+        Document redeemed = collection().findOneAndUpdate(
+                Filters.and(Filters.eq(ID, id), Filters.eq(USED_AT, null), Filters.eq(REVOKED, false)),
+                Updates.set(USED_AT, Date.from(now)));
+        if (redeemed != null) {
+            return Optional.of(redeemed.getString(FAMILY));
+        }
+
+        Document reused = collection().find(Filters.eq(ID, id)).first();
+        if (reused != null) {
+            long revoked = revokeFamily(reused.getString(FAMILY));
+            log.warn("Token de renovação reutilizado para o usuário {}: {} tokens da família revogados",
+                    reused.getString(USERNAME), revoked);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Revoga o token e os demais da mesma família
+     */
+    public void revoke(String id) {
+        Document token = collection().find(Filters.eq(ID, id)).first();
+        if (token != null) {
+            revokeFamily(token.getString(FAMILY));
+        }
+    }
+
+    long revokeFamily(String family) {
+        return collection().updateMany(family(family), Updates.set(REVOKED, true)).getModifiedCount();
+    }
+
+    /**
+     * Tokens de uma família; também verificada pelo MongoIndexManager
+     */
+    public static Bson family(String family) {
+        return Filters.eq(FAMILY, family);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(REFRESH_TOKENS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.Role;
+import com.securelogin.entity.RoleSet;
+import com.securelogin.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Roles definidas na coleção roles, mantidas em memória e recarregadas periodicamente.
+ * <p>
+ * As verificações de role usam a combinação de roles do usuário ({@link RoleSet}) e não
+ * consultam o banco. Enquanto a coleção não foi carregada, toda role é tratada como definida.
+ */
+@Slf4j
+@Component
+public class RoleRegistry {
+
+    private final MongoTemplate mongoTemplate;
+    private final RoleSetInterner roleSetInterner;
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile Map<String, Role> roles;
+
+    public RoleRegistry(MongoTemplate mongoTemplate, RoleSetInterner roleSetInterner) {
+        this.mongoTemplate = mongoTemplate;
+        this.roleSetInterner = roleSetInterner;
+    }
+
+    /**
+     * Relê a coleção roles e reserva o bit de cada role definida
+     */
+    @Scheduled(fixedDelayString = "#{@appProperties.security.roles.refreshInterval.toMillis()}")
+    public void refresh() {
+        try {
+            Map<String, Role> loaded = new TreeMap<>();
+            for (Role role : mongoTemplate.findAll(Role.class)) {
+                if (role.getName() != null) {
+                    loaded.putIfAbsent(role.getName(), role);
+                    roleSetInterner.register(role.getName());
+                }
+            }
+
+            Map<String, Role> previous = roles;
+            roles = Collections.unmodifiableMap(loaded);
+            refreshes.increment();
+            if (previous == null || !previous.keySet().equals(loaded.keySet())) {
+                log.info("Roles carregadas: {}", loaded.keySet());
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Falha ao carregar as roles: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nome da role sem o prefixo ROLE_, ou vazio se ela não estiver definida na coleção roles
+     */
+    public Optional<String> resolve(String role) {
+        if (role == null) {
+            return Optional.empty();
+        }
+        String name = role.startsWith(RoleSet.ROLE_PREFIX) ? role.substring(RoleSet.ROLE_PREFIX.length()) : role;
+        Map<String, Role> defined = roles;
+        return defined == null || defined.containsKey(name) ? Optional.of(name) : Optional.empty();
+    }
+
+    public boolean hasRole(User user, String role) {
+        return resolve(role).map(name -> user.getRoleSet().contains(name)).orElse(false);
+    }
+
+    public Map<String, Role> getRoles() {
+        Map<String, Role> defined = roles;
+        return defined == null ? Collections.<String, Role>emptyMap() : defined;
+    }
+
+    public Stats getStats() {
+        Map<String, Role> defined = roles;
+        return new Stats(
+                defined != null,
+                defined == null ? 0 : defined.size(),
+                roleSetInterner.internedCount(),
+                refreshes.sum(),
+                failures.sum());
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private int definedRoles;
+        private int internedCombinations;
+        private long refreshes;
+        private long failures;
+    }
+}
@@ -0,0 +1,58 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.RoleSet;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tabela das combinações de roles em uso, consultada pelo conversor de leitura do Mongo.
+ * <p>
+ * Cada nome de role recebe um bit na primeira vez que aparece e o mantém enquanto o
+ * processo estiver no ar, então uma combinação é identificada pelo seu {@link BitSet}.
+ */
+@Component
+public class RoleSetInterner {
+
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final Map<BitSet, RoleSet> interned = new ConcurrentHashMap<>();
+
+    /**
+     * Instância compartilhada para a combinação de roles informada
+     */
+    public RoleSet intern(Collection<String> roles) {
+        BitSet bits = new BitSet();
+        if (roles != null) {
+            for (String role : roles) {
+                if (role != null) {
+                    bits.set(register(role));
+                }
+            }
+        }
+        if (bits.isEmpty()) {
+            return RoleSet.EMPTY;
+        }
+        RoleSet existing = interned.get(bits);
+        return existing != null ? existing : interned.computeIfAbsent(bits, key -> RoleSet.of(roles));
+    }
+
+    /**
+     * Reserva o bit da role, se ainda não tiver um
+     */
+    public int register(String role) {
+        Integer index = indexes.get(role);
+        return index != null ? index : indexes.computeIfAbsent(role, name -> nextIndex.getAndIncrement());
+    }
+
+    /**
+     * Número de combinações distintas internadas até agora
+     */
+    public int internedCount() {
+        return interned.size();
+    }
+}
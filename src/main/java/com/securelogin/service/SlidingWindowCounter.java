@@ -0,0 +1,70 @@
+package com.securelogin.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador sem bloqueio de eventos nos últimos N minutos. Cada posição guarda o minuto
+ * (bits altos) e a contagem (bits baixos) em um único long atualizado por CAS.
+ */
+class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    SlidingWindowCounter(int windowMinutes) {
+        this.slots = new AtomicLongArray(Math.max(1, windowMinutes));
+    }
+
+    long increment(long minute) {
+        add(minute, 1);
+        return sum(minute);
+    }
+
+    /**
+     * Soma {@code delta} ao minuto informado; minutos fora da janela são ignorados
+     */
+    void add(long minute, long delta) {
+        int index = (int) (minute % slots.length());
+        long previous;
+        long next;
+        do {
+            previous = slots.get(index);
+            long slotMinute = previous >>> COUNT_BITS;
+            if (slotMinute > minute) {
+                // A posição já pertence a um minuto mais recente
+                return;
+            }
+            long count = slotMinute == minute ? previous & COUNT_MASK : 0;
+            next = (minute << COUNT_BITS) | Math.min(count + delta, COUNT_MASK);
+        } while (!slots.compareAndSet(index, previous, next));
+    }
+
+    /**
+     * Substitui a contagem do minuto informado; minutos fora da janela são ignorados
+     */
+    void set(long minute, long count) {
+        int index = (int) (minute % slots.length());
+        long previous;
+        long next = (minute << COUNT_BITS) | Math.min(count, COUNT_MASK);
+        do {
+            previous = slots.get(index);
+            if (previous >>> COUNT_BITS > minute) {
+                return;
+            }
+        } while (!slots.compareAndSet(index, previous, next));
+    }
+
+    long sum(long minute) {
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long age = minute - (slot >>> COUNT_BITS);
+            if (age >= 0 && age < slots.length()) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,133 @@
+package com.securelogin.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roda de temporização hierárquica (quatro níveis de 64 posições). Agendar e expirar custam
+ * O(1) por item: cada nível cobre 64 vezes o alcance do anterior, e os itens descem de
+ * nível quando a posição do nível superior é alcançada. Prazos além do último nível ficam
+ * na posição mais distante e são reagendados ao descer. Não é thread-safe.
+ */
+class TimerWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<T>> overdue = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    TimerWheel(long startTick) {
+        this.currentTick = startTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(null);
+        }
+    }
+
+    /**
+     * Prazos já vencidos são devolvidos no próximo {@link #advance}
+     */
+    void schedule(T item, long deadlineTick) {
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Avança até {@code tick} (inclusive) e adiciona a {@code expired} os itens vencidos
+     */
+    void advance(long tick, List<T> expired) {
+        drain(overdue, expired);
+
+        while (currentTick < tick) {
+            currentTick++;
+
+            // Desce primeiro os níveis mais altos cujas posições foram alcançadas
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    List<Entry<T>> slot = take(level, slotIndex(currentTick, level));
+                    if (slot != null) {
+                        for (Entry<T> entry : slot) {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+
+            List<Entry<T>> due = take(0, slotIndex(currentTick, 0));
+            if (due != null) {
+                drain(due, expired);
+            }
+            drain(overdue, expired);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delay = entry.deadlineTick - currentTick;
+        if (delay <= 0) {
+            overdue.add(entry);
+            return;
+        }
+
+        long placementTick = delay > MAX_DELAY ? currentTick + MAX_DELAY : entry.deadlineTick;
+        long distance = placementTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && distance >= (1L << ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+
+        int index = level * SLOTS + slotIndex(placementTick, level);
+        List<Entry<T>> slot = slots.get(index);
+        if (slot == null) {
+            slot = new ArrayList<>();
+            slots.set(index, slot);
+        }
+        slot.add(entry);
+    }
+
+    private List<Entry<T>> take(int level, int slotIndex) {
+        int index = level * SLOTS + slotIndex;
+        List<Entry<T>> slot = slots.get(index);
+        slots.set(index, null);
+        return slot;
+    }
+
+    private void drain(List<Entry<T>> entries, List<T> expired) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> pending = new ArrayList<>(entries);
+        entries.clear();
+        for (Entry<T> entry : pending) {
+            if (entry.deadlineTick <= currentTick) {
+                expired.add(entry.item);
+                size--;
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
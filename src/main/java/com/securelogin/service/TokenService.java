@@ -0,0 +1,163 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.TokenConfig;
+import com.securelogin.dto.TokenResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Emite e renova os tokens de acesso de /api/**.
+ * <p>
+ * O token de acesso carrega o nome de usuário e os papéis de {@link UserDetails#getAuthorities()},
+ * de modo que cada requisição é autorizada sem consultar o MongoDB nem a sessão. A renovação
+ * recarrega o usuário: contas bloqueadas, desativadas ou com papéis alterados são refletidas
+ * no próximo token de acesso.
+ * <p>
+ * O token de renovação tem um id (jti) registrado no {@link RefreshTokenStore} e é trocado a
+ * cada uso: o par novo substitui o anterior, que deixa de valer. Apresentar de novo um token
+ * já usado revoga todos os tokens emitidos a partir do mesmo login.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final UserService userService;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AppProperties.Token properties;
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(JwtEncoder jwtEncoder, SecretKey tokenSigningKey, UserService userService,
+                        RefreshTokenStore refreshTokenStore, AppProperties appProperties) {
+        this(jwtEncoder, tokenSigningKey, userService, refreshTokenStore, appProperties, Clock.systemUTC());
+    }
+
+    TokenService(JwtEncoder jwtEncoder, SecretKey tokenSigningKey, UserService userService,
+                 RefreshTokenStore refreshTokenStore, AppProperties appProperties, Clock clock) {
+        this.jwtEncoder = jwtEncoder;
+        this.userService = userService;
+        this.refreshTokenStore = refreshTokenStore;
+        this.properties = appProperties.getSecurity().getToken();
+        this.refreshTokenDecoder = TokenConfig.createDecoder(tokenSigningKey, properties.getIssuer(),
+                TokenConfig.REFRESH_TOKEN);
+        this.clock = clock;
+    }
+
+    /**
+     * Par de tokens para um usuário já autenticado, que inicia uma nova família de renovação
+     */
+    public TokenResponse issue(UserDetails user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    private TokenResponse issue(UserDetails user, String family) {
+        Instant now = clock.instant();
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
+        String accessToken = encode(JwtClaimsSet.builder()
+                .issuer(properties.getIssuer())
+                .subject(user.getUsername())
+                .issuedAt(now)
+                .expiresAt(now.plus(properties.getAccessTtl()))
+                .claim(TokenConfig.TOKEN_USE_CLAIM, TokenConfig.ACCESS_TOKEN)
+                .claim(TokenConfig.ROLES_CLAIM, roles)
+                .build());
+
+        String refreshTokenId = UUID.randomUUID().toString();
+        Instant refreshExpiresAt = now.plus(properties.getRefreshTtl());
+        String refreshToken = encode(JwtClaimsSet.builder()
+                .id(refreshTokenId)
+                .issuer(properties.getIssuer())
+                .subject(user.getUsername())
+                .issuedAt(now)
+                .expiresAt(refreshExpiresAt)
+                .claim(TokenConfig.TOKEN_USE_CLAIM, TokenConfig.REFRESH_TOKEN)
+                .build());
+        refreshTokenStore.register(refreshTokenId, family, user.getUsername(), refreshExpiresAt);
+
+        return new TokenResponse(accessToken, refreshToken, "Bearer", properties.getAccessTtl().getSeconds());
+    }
+
+    /**
+     * Troca um token de renovação válido por um novo par, com os papéis atuais do usuário.
+     * O token informado é consumido e não pode ser usado de novo
+     *
+     * @throws BadCredentialsException se o token for inválido, já tiver sido usado ou revogado,
+     *                                 ou se o usuário não existir
+     */
+    public TokenResponse refresh(String refreshToken) {
+        Jwt jwt = decodeRefreshToken(refreshToken);
+        String family = jwt.getId() == null ? null
+                : refreshTokenStore.redeem(jwt.getId(), clock.instant()).orElse(null);
+        if (family == null) {
+            throw new BadCredentialsException("Token de renovação inválido");
+        }
+
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(jwt.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Token de renovação inválido");
+        }
+        userDetailsChecker.check(user);
+
+        return issue(user, family);
+    }
+
+    /**
+     * Revoga o token de renovação e os demais da mesma família, como no logout de um cliente.
+     * Tokens inválidos são ignorados
+     */
+    public void revoke(String refreshToken) {
+        try {
+            Jwt jwt = decodeRefreshToken(refreshToken);
+            if (jwt.getId() != null) {
+                refreshTokenStore.revoke(jwt.getId());
+            }
+        } catch (BadCredentialsException e) {
+            // Nada a revogar
+        }
+    }
+
+    private Jwt decodeRefreshToken(String refreshToken) {
+        try {
+            return refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            log.debug("Token de renovação rejeitado: {}", e.getMessage());
+            throw new BadCredentialsException("Token de renovação inválido");
+        }
+    }
+
+    private String encode(JwtClaimsSet claims) {
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
@@ -0,0 +1,263 @@
+package com.securelogin.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.securelogin.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Propaga para este nó as alterações da coleção users feitas por qualquer nó, pela importação
+ * ou diretamente no banco.
+ * <p>
+ * Inserções entram no {@link UsernameBloomFilter}, de modo que um nome criado em outro nó não
+ * é rejeitado como desconhecido até a próxima reconstrução. Atualizações, substituições e
+ * remoções invalidam o usuário no {@link PrincipalCache}, então bloqueios, desativações e
+ * trocas de senha valem em todos os nós sem esperar o TTL. As alterações chegam por change
+ * streams; fora de um replica set a coleção é consultada a cada {@code poll-interval} pelos
+ * documentos com updated_at recente, e só os gravados com esse campo são vistos (remoções não
+ * são, e ficam no cache até o TTL).
+ */
+@Slf4j
+@Component
+public class UserChangeWatcher implements SmartLifecycle {
+
+    static final String USERS = "users";
+    static final String USERNAME = "username";
+    static final String UPDATED_AT = "updated_at";
+
+    enum Mode { STARTING, CHANGE_STREAM, POLLING }
+
+    private final MongoTemplate mongoTemplate;
+    private final UsernameBloomFilter usernameFilter;
+    private final PrincipalCache principalCache;
+    private final Duration pollInterval;
+    private final Clock clock;
+
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile Mode mode = Mode.STARTING;
+    private volatile boolean running;
+    private Thread watcher;
+    private BsonDocument resumeToken;
+    private boolean tokenLost;
+    private Instant lastPoll;
+
+    @Autowired
+    public UserChangeWatcher(MongoTemplate mongoTemplate, UsernameBloomFilter usernameFilter,
+                             PrincipalCache principalCache, AppProperties appProperties) {
+        this(mongoTemplate, usernameFilter, principalCache, appProperties, Clock.systemUTC());
+    }
+
+    UserChangeWatcher(MongoTemplate mongoTemplate, UsernameBloomFilter usernameFilter,
+                      PrincipalCache principalCache, AppProperties appProperties, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.usernameFilter = usernameFilter;
+        this.principalCache = principalCache;
+        this.pollInterval = appProperties.getSecurity().getUserChanges().getPollInterval();
+        this.clock = clock;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        watcher = new Thread(this::watch, "user-change-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (watcher == null) {
+            return;
+        }
+
+        watcher.interrupt();
+        try {
+            watcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Stats getStats() {
+        return new Stats(mode.name(), changes.sum(), failures.sum());
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                if (mode == Mode.POLLING) {
+                    poll();
+                } else {
+                    followChangeStream();
+                }
+            } catch (MongoCommandException e) {
+                if (resumeToken != null) {
+                    // Token fora do oplog: as alterações do intervalo se perderam
+                    log.warn("Change stream de users não pôde ser retomado: {}", e.getErrorMessage());
+                    resumeToken = null;
+                    tokenLost = true;
+                } else if (mode != Mode.POLLING) {
+                    log.info("Change streams indisponíveis ({}); users consultada a cada {}",
+                            e.getErrorMessage(), pollInterval);
+                    mode = Mode.POLLING;
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                failures.increment();
+                log.warn("Falha ao acompanhar a coleção users: {}", e.getMessage());
+                sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * Só os campos usados pelo nó trafegam; o _id do evento é o token de retomada
+     */
+    private void followChangeStream() {
+        List<Bson> pipeline = Arrays.asList(
+                Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete")),
+                Aggregates.project(Projections.include("operationType", "documentKey", "fullDocument." + USERNAME)));
+        ChangeStreamIterable<Document> stream = collection().watch(pipeline).maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            if (tokenLost) {
+                resync();
+            }
+            if (mode != Mode.CHANGE_STREAM) {
+                mode = Mode.CHANGE_STREAM;
+                log.info("Alterações em users acompanhadas por change streams");
+            }
+
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    apply(change);
+                }
+                if (cursor.getResumeToken() != null) {
+                    resumeToken = cursor.getResumeToken();
+                }
+            }
+        }
+    }
+
+    /**
+     * O marco só avança após uma consulta bem-sucedida, para não deixar lacunas após falhas
+     */
+    void poll() throws InterruptedException {
+        Instant now = clock.instant();
+        if (lastPoll != null) {
+            // Margem de um intervalo para gravações com relógio levemente atrasado
+            Bson recent = updatedSince(lastPoll.minus(pollInterval));
+            for (Document document : collection().find(recent).projection(Projections.include(USERNAME))) {
+                apply(document.getString(USERNAME));
+            }
+        }
+        lastPoll = now;
+        Thread.sleep(pollInterval.toMillis());
+    }
+
+    /**
+     * Usuários gravados desde {@code since}; também verificada pelo MongoIndexManager
+     */
+    public static Bson updatedSince(Instant since) {
+        return Filters.gte(UPDATED_AT, Date.from(since));
+    }
+
+    /**
+     * Atualizações não trazem o nome do usuário: o cache é invalidado pelo id do documento
+     */
+    void apply(ChangeStreamDocument<Document> change) {
+        changes.increment();
+        if (change.getOperationType() == OperationType.INSERT) {
+            if (change.getFullDocument() != null) {
+                usernameFilter.put(change.getFullDocument().getString(USERNAME));
+            }
+        } else if (change.getDocumentKey() != null) {
+            BsonValue id = change.getDocumentKey().get("_id");
+            if (id != null && id.isObjectId()) {
+                principalCache.invalidateById(id.asObjectId().getValue().toHexString());
+            } else if (id != null && id.isString()) {
+                principalCache.invalidateById(id.asString().getValue());
+            }
+        }
+    }
+
+    private void apply(String username) {
+        if (username != null) {
+            changes.increment();
+            usernameFilter.put(username);
+            principalCache.invalidate(username);
+        }
+    }
+
+    /**
+     * Reconstrói o filtro e esvazia o cache depois de o novo change stream estar aberto,
+     * cobrindo a lacuna
+     */
+    private void resync() {
+        tokenLost = false;
+        principalCache.invalidateAll();
+        usernameFilter.rebuild();
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(USERS);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private String mode;
+        private long changes;
+        private long failures;
+    }
+}
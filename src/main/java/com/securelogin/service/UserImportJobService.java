@@ -0,0 +1,159 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserImportReport;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Importações de usuários enviadas pela API, executadas em segundo plano, uma por vez.
+ * <p>
+ * O corpo da requisição é copiado para um arquivo temporário antes da resposta; o cálculo
+ * das senhas e as inserções rodam depois, sem prender a requisição. O progresso e o
+ * relatório final ficam disponíveis por {@link #find(String)}, apenas na memória deste nó.
+ */
+@Slf4j
+@Service
+public class UserImportJobService implements DisposableBean {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final UserImportService userImportService;
+    private final ExecutorService executor;
+    private final Map<String, Job> jobs;
+
+    public UserImportJobService(UserImportService userImportService, AppProperties appProperties) {
+        this.userImportService = userImportService;
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-import-jobs-"));
+
+        int retained = appProperties.getBulkImport().getRetainedJobs();
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, Job>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > retained && eldest.getValue().isFinished();
+            }
+        });
+    }
+
+    /**
+     * Grava o arquivo recebido e enfileira a importação
+     */
+    public Job submit(InputStream body, UserImportService.Format format, long offset) throws IOException {
+        Path file = Files.createTempFile("user-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), format, offset);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, file));
+
+        log.info("Importação de usuários {} enfileirada ({}, offset {}, {} bytes)",
+                job.getId(), format, offset, file.toFile().length());
+        return job;
+    }
+
+    public Optional<Job> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<Job> findAll() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    void run(Job job, Path file) {
+        job.start();
+        try (InputStream input = Files.newInputStream(file)) {
+            UserImportReport report = userImportService.importUsers(input, job.getFormat(), job.getStartOffset(),
+                    job::advance);
+            job.finish(report.isCompleted() ? Status.COMPLETED : Status.FAILED, report, report.getFailure());
+        } catch (IOException | RuntimeException e) {
+            log.error("Importação de usuários {} falhou: {}", job.getId(), e.getMessage());
+            job.finish(Status.FAILED, null, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Arquivo temporário da importação {} não removido: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Estado de uma importação; alterado apenas pela thread que a executa. O relatório só é
+     * publicado ao final, e até lá o progresso é o nextOffset do último lote gravado.
+     */
+    @Getter
+    public static class Job {
+        private final String id;
+        private final UserImportService.Format format;
+        private final long startOffset;
+        private final Instant createdAt = Instant.now();
+
+        private volatile Status status = Status.QUEUED;
+        private volatile long nextOffset;
+        private volatile UserImportReport report;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String failure;
+
+        Job(String id, UserImportService.Format format, long startOffset) {
+            this.id = id;
+            this.format = format;
+            this.startOffset = startOffset;
+            this.nextOffset = startOffset;
+        }
+
+        public boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        void start() {
+            this.startedAt = Instant.now();
+            this.status = Status.RUNNING;
+        }
+
+        void advance(long nextOffset) {
+            this.nextOffset = nextOffset;
+        }
+
+        void finish(Status status, UserImportReport report, String failure) {
+            this.report = report;
+            this.failure = failure;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.securelogin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.BoundedPasswordEncoder;
+import com.securelogin.dto.UserImportReport;
+import com.securelogin.entity.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de usuários a partir de CSV ou JSONL.
+ * <p>
+ * O arquivo é lido em fluxo, em lotes de {@code app.bulk-import.batch-size} linhas. Em cada
+ * lote as senhas são calculadas em paralelo em um pool próprio, separado do pool de
+ * hashing do login, e os usuários são inseridos em uma operação em lote não ordenada.
+ * Nomes de usuário e emails repetidos são detectados pelos índices únicos e aparecem no
+ * relatório como linhas rejeitadas, sem consultas prévias ao banco.
+ */
+@Slf4j
+@Service
+public class UserImportService implements DisposableBean {
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Formato pelo Content-Type (text/csv ou application/x-ndjson) ou pela extensão do arquivo
+         */
+        public static Format detect(String contentTypeOrFileName) {
+            String value = contentTypeOrFileName == null ? "" : contentTypeOrFileName.toLowerCase(Locale.ROOT);
+            if (value.contains("csv")) {
+                return CSV;
+            }
+            if (value.contains("ndjson") || value.contains("jsonl")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Formato de importação não suportado: " + contentTypeOrFileName);
+        }
+    }
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String DEFAULT_ROLE = "USER";
+
+    private final MongoTemplate mongoTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UsernameBloomFilter usernameFilter;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AppProperties.BulkImport settings;
+    private final ForkJoinPool hashingPool;
+
+    public UserImportService(MongoTemplate mongoTemplate, BoundedPasswordEncoder passwordEncoder,
+                             UsernameBloomFilter usernameFilter, RoleRegistry roleRegistry, Validator validator,
+                             ObjectMapper objectMapper, AppProperties appProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.usernameFilter = usernameFilter;
+        this.roleRegistry = roleRegistry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.settings = appProperties.getBulkImport();
+
+        int parallelism = settings.getParallelism() > 0
+                ? settings.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Importa os usuários do arquivo, ignorando as primeiras {@code offset} linhas de dados
+     * (para retomar uma importação a partir do {@code nextOffset} de um relatório anterior)
+     */
+    public UserImportReport importUsers(InputStream input, Format format, long offset) throws IOException {
+        return importUsers(input, format, offset, nextOffset -> { });
+    }
+
+    /**
+     * Como {@link #importUsers(InputStream, Format, long)}, informando a {@code progress} o
+     * nextOffset ao fim de cada lote
+     */
+    public UserImportReport importUsers(InputStream input, Format format, long offset,
+                                        LongConsumer progress) throws IOException {
+        long start = System.currentTimeMillis();
+        UserImportReport report = new UserImportReport();
+        report.setStartOffset(offset);
+        report.setNextOffset(offset);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = format == Format.CSV ? readHeader(reader) : null;
+
+        List<PendingRow> batch = new ArrayList<>(settings.getBatchSize());
+        long row = 0;
+        String line;
+        try {
+            while ((line = readRecord(reader, format)) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                row++;
+                if (row <= offset) {
+                    continue;
+                }
+                batch.add(new PendingRow(row, line));
+                if (batch.size() >= settings.getBatchSize()) {
+                    processBatch(batch, format, columns, report);
+                    batch.clear();
+                    progress.accept(report.getNextOffset());
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, format, columns, report);
+                progress.accept(report.getNextOffset());
+            }
+            report.setCompleted(true);
+        } catch (DataAccessException e) {
+            // O lote interrompido é repetido ao retomar; linhas já gravadas voltam como duplicadas
+            report.setFailure(e.getMessage());
+            log.error("Importação interrompida após a linha {}: {}", report.getNextOffset(), e.getMessage());
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("Importação de usuários: {} linhas lidas, {} inseridas, {} duplicadas, {} inválidas em {} ms",
+                report.getRead(), report.getInserted(), report.getDuplicates(), report.getInvalid(),
+                report.getElapsedMillis());
+        return report;
+    }
+
+    private void processBatch(List<PendingRow> batch, Format format, Map<String, Integer> columns,
+                              UserImportReport report) {
+        List<PreparedRow> prepared = prepareInParallel(batch, format, columns);
+
+        List<PreparedRow> valid = new ArrayList<>(prepared.size());
+        for (PreparedRow row : prepared) {
+            if (row.error != null) {
+                report.setInvalid(report.getInvalid() + 1);
+                reportError(report, row, row.error);
+            } else {
+                valid.add(row);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            insert(valid, report);
+        }
+
+        report.setRead(report.getRead() + batch.size());
+        report.setNextOffset(batch.get(batch.size() - 1).number);
+        log.debug("Importação de usuários: lote até a linha {} concluído", report.getNextOffset());
+    }
+
+    private List<PreparedRow> prepareInParallel(List<PendingRow> batch, Format format, Map<String, Integer> columns) {
+        try {
+            return hashingPool.submit(() -> batch.parallelStream()
+                    .map(row -> prepare(row, format, columns))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao preparar o lote de importação", e.getCause());
+        }
+    }
+
+    /**
+     * Lê, valida e calcula o hash da senha de uma linha
+     */
+    private PreparedRow prepare(PendingRow row, Format format, Map<String, Integer> columns) {
+        User user;
+        try {
+            user = format == Format.CSV ? parseCsv(row.line, columns) : parseJson(row.line);
+        } catch (IOException | RuntimeException e) {
+            return PreparedRow.invalid(row.number, null, "Linha mal formada: " + e.getMessage());
+        }
+
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            String reason = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return PreparedRow.invalid(row.number, user.getUsername(), reason);
+        }
+
+        Set<String> roles = new LinkedHashSet<>();
+        for (String role : user.getRoles()) {
+            Optional<String> resolved = roleRegistry.resolve(role);
+            if (!resolved.isPresent()) {
+                return PreparedRow.invalid(row.number, user.getUsername(), "Role desconhecida: " + role);
+            }
+            roles.add(resolved.get());
+        }
+        if (roles.isEmpty()) {
+            roles.add(DEFAULT_ROLE);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        user.setRoles(roles);
+        user.setPassword(passwordEncoder.encodeInCurrentThread(user.getPassword()));
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        return PreparedRow.valid(row.number, user);
+    }
+
+    private void insert(List<PreparedRow> rows, UserImportReport report) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (PreparedRow row : rows) {
+            users.add(row.user);
+        }
+
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        operations.insert(users);
+        try {
+            report.setInserted(report.getInserted() + operations.execute().getInsertedCount());
+        } catch (BulkOperationException e) {
+            // Sem ordem, o MongoDB tenta todas as inserções: só as com erro ficaram de fora
+            report.setInserted(report.getInserted() + rows.size() - e.getErrors().size());
+            for (BulkWriteError error : e.getErrors()) {
+                PreparedRow row = rows.get(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    report.setDuplicates(report.getDuplicates() + 1);
+                    reportError(report, row, duplicateReason(error.getMessage()));
+                } else {
+                    report.setInvalid(report.getInvalid() + 1);
+                    reportError(report, row, error.getMessage());
+                }
+            }
+        }
+
+        // Também os rejeitados: já existem no banco e, portanto, no filtro
+        for (User user : users) {
+            usernameFilter.put(user.getUsername());
+        }
+    }
+
+    private void reportError(UserImportReport report, PreparedRow row, String reason) {
+        if (report.getErrors().size() < settings.getMaxReportedErrors()) {
+            report.getErrors().add(new UserImportReport.RowError(row.number, row.username, reason));
+        }
+    }
+
+    private static String duplicateReason(String message) {
+        if (message != null && message.contains("email")) {
+            return "Email já existe";
+        }
+        return "Nome de usuário já existe";
+    }
+
+    private static Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String header = readRecord(reader, Format.CSV);
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+        // BOM gravado por planilhas
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String required : new String[]{"username", "email", "password", "fullname"}) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho do CSV: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static User parseCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        User user = new User();
+        user.setUsername(column(values, columns, "username"));
+        user.setEmail(column(values, columns, "email"));
+        user.setPassword(column(values, columns, "password"));
+        user.setFullName(column(values, columns, "fullname"));
+        user.setRoles(splitRoles(column(values, columns, "roles")));
+        return user;
+    }
+
+    private User parseJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("esperado um objeto JSON");
+        }
+        User user = new User();
+        user.setUsername(text(node, "username"));
+        user.setEmail(text(node, "email"));
+        user.setPassword(text(node, "password"));
+        user.setFullName(text(node, "fullName"));
+
+        JsonNode roles = node.get("roles");
+        if (roles != null && roles.isArray()) {
+            Set<String> names = new LinkedHashSet<>();
+            for (JsonNode role : roles) {
+                names.add(role.asText().trim());
+            }
+            user.setRoles(names);
+        } else {
+            user.setRoles(splitRoles(roles == null || roles.isNull() ? null : roles.asText()));
+        }
+        return user;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    /**
+     * Roles separadas por ';' (uma coluna do CSV pode ter várias)
+     */
+    private static Set<String> splitRoles(String value) {
+        Set<String> roles = new LinkedHashSet<>();
+        if (value != null) {
+            for (String role : value.split(";")) {
+                if (!role.trim().isEmpty()) {
+                    roles.add(role.trim());
+                }
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Próximo registro do arquivo. No CSV um campo entre aspas pode conter quebras de linha:
+     * enquanto houver aspas abertas, as linhas seguintes fazem parte do mesmo registro.
+     */
+    static String readRecord(BufferedReader reader, Format format) throws IOException {
+        String line = reader.readLine();
+        if (format != Format.CSV || line == null) {
+            return line;
+        }
+
+        int quotes = countQuotes(line);
+        if (quotes % 2 == 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return record.toString();
+    }
+
+    /**
+     * Uma aspa escapada ("") conta duas vezes e não altera a paridade
+     */
+    private static int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Divide um registro CSV em campos; aspas duplas delimitam campos com vírgulas ou quebras
+     * de linha e "" é uma aspa
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private static final class PendingRow {
+        private final long number;
+        private final String line;
+
+        PendingRow(long number, String line) {
+            this.number = number;
+            this.line = line;
+        }
+    }
+
+    private static final class PreparedRow {
+        private final long number;
+        private final User user;
+        private final String username;
+        private final String error;
+
+        private PreparedRow(long number, User user, String username, String error) {
+            this.number = number;
+            this.user = user;
+            this.username = username;
+            this.error = error;
+        }
+
+        static PreparedRow valid(long number, User user) {
+            return new PreparedRow(number, user, user.getUsername(), null);
+        }
+
+        static PreparedRow invalid(long number, String username, String error) {
+            return new PreparedRow(number, null, username, error);
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package com.securelogin.service;
 
+import com.securelogin.dto.UserLockStatusView;
+import com.securelogin.dto.UserProfileView;
+import com.securelogin.dto.UserSummaryView;
 import com.securelogin.entity.User;
 import com.securelogin.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -20,16 +31,26 @@ import java.util.Optional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private static final int MAX_LOGIN_ATTEMPTS = 5;
-    private static final int LOCK_TIME_MINUTES = 30;
+    private final PrincipalCache principalCache;
+    private final UsernameBloomFilter usernameFilter;
+    private final LoginLockoutService loginLockoutService;
+    private final RoleRegistry roleRegistry;
+    private final MongoTemplate mongoTemplate;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        // Negativo do filtro é definitivo (inserções de outros nós chegam pelo UserChangeWatcher):
+        // evita a consulta ao banco para nomes desconhecidos
+        if (!usernameFilter.mightContain(username)) {
+            throw new UnknownUsernameException();
+        }
+        
+        User user = principalCache.get(username, userRepository::findByUsername)
+                .orElseThrow(UnknownUsernameException::new);
         
         if (!user.isActive()) {
             throw new UsernameNotFoundException("Conta inativa: " + username);
@@ -38,6 +59,22 @@ public class UserService implements UserDetailsService {
         return user;
     }
     
+    /**
+     * Regrava o hash de um usuário autenticado cujo hash estava desatualizado
+     * (custo menor ou outro algoritmo), alterando apenas o campo da senha
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword, LocalDateTime.now());
+        principalCache.invalidate(user.getUsername());
+        log.info("Hash de senha atualizado para o usuário: {}", user.getUsername());
+        
+        if (user instanceof User) {
+            ((User) user).setPassword(newPassword);
+        }
+        return user;
+    }
+    
     @Transactional
     public User createUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -56,38 +93,49 @@ public class UserService implements UserDetailsService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        usernameFilter.put(user.getUsername());
+        
+        return savedUser;
     }
     
     @Transactional
     public User updateUser(String id, User userDetails) {
         log.info("Atualizando usuário: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + id));
+        // Apenas os campos informados são gravados, em uma única operação atômica
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
         
         if (userDetails.getFullName() != null) {
-            user.setFullName(userDetails.getFullName());
+            update.set("fullName", userDetails.getFullName());
         }
         
-        if (userDetails.getEmail() != null && !userDetails.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(userDetails.getEmail())) {
-                throw new IllegalArgumentException("Email já existe: " + userDetails.getEmail());
-            }
-            user.setEmail(userDetails.getEmail());
+        if (userDetails.getEmail() != null) {
+            update.set("email", userDetails.getEmail());
         }
         
         if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            update.set("password", passwordEncoder.encode(userDetails.getPassword()));
         }
         
         if (userDetails.getRoles() != null) {
-            user.setRoles(userDetails.getRoles());
+            update.set("roles", userDetails.getRoles());
         }
         
-        user.setUpdatedAt(LocalDateTime.now());
+        User updatedUser;
+        try {
+            updatedUser = mongoTemplate.findAndModify(byId(id), update,
+                    FindAndModifyOptions.options().returnNew(true), User.class);
+        } catch (DuplicateKeyException e) {
+            // O índice único barra o email de outro usuário
+            throw new IllegalArgumentException("Email já existe: " + userDetails.getEmail());
+        }
         
-        User updatedUser = userRepository.save(user);
+        if (updatedUser == null) {
+            throw new IllegalArgumentException("Usuário não encontrado: " + id);
+        }
+        
+        principalCache.invalidate(updatedUser.getUsername());
         log.info("Usuário atualizado com sucesso: {}", updatedUser.getUsername());
         
         return updatedUser;
@@ -101,58 +149,82 @@ public class UserService implements UserDetailsService {
         return userRepository.findByUsername(username);
     }
     
-    public List<User> findAllUsers() {
-        return userRepository.findAll();
+    public Optional<UserProfileView> findProfileByUsername(String username) {
+        return userRepository.findByUsername(username, UserProfileView.class);
+    }
+    
+    public Optional<UserLockStatusView> findLockStatus(String username) {
+        return userRepository.findByUsername(username, UserLockStatusView.class);
+    }
+    
+    public List<UserSummaryView> findAllUsers() {
+        return userRepository.findAllBy(UserSummaryView.class);
+    }
+    
+    public List<UserSummaryView> findActiveUsers() {
+        return userRepository.findByIsActiveTrue(UserSummaryView.class);
     }
     
-    public List<User> findActiveUsers() {
-        return userRepository.findByIsActiveTrue();
+    /**
+     * Usuários com a role informada (com ou sem o prefixo ROLE_). Roles que não existem na
+     * coleção roles não geram consulta.
+     */
+    public List<User> findByRole(String role) {
+        return roleRegistry.resolve(role)
+                .map(userRepository::findByRole)
+                .orElse(Collections.emptyList());
     }
     
     @Transactional
     public void deactivateUser(String id) {
         log.info("Desativando usuário: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + id));
-        
-        user.setActive(false);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        userRepository.save(user);
-        log.info("Usuário desativado com sucesso: {}", user.getUsername());
+        String username = updateStatus(id, new Update().set("isActive", false));
+        log.info("Usuário desativado com sucesso: {}", username);
     }
     
     @Transactional
     public void activateUser(String id) {
         log.info("Ativando usuário: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + id));
-        
-        user.setActive(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        
-        userRepository.save(user);
-        log.info("Usuário ativado com sucesso: {}", user.getUsername());
+        String username = updateStatus(id, new Update().set("isActive", true));
+        log.info("Usuário ativado com sucesso: {}", username);
     }
     
     @Transactional
     public void unlockUser(String id) {
         log.info("Desbloqueando usuário: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + id));
+        String username = updateStatus(id, new Update().set("isAccountNonLocked", true).unset("lockedUntil"));
+        loginLockoutService.clear(username);
         
-        user.setAccountNonLocked(true);
-        userRepository.save(user);
+        log.info("Usuário desbloqueado com sucesso: {}", username);
+    }
+    
+    /**
+     * Aplica a alteração de status sem ler o documento antes; do documento só volta o
+     * username, usado para invalidar o principal em cache
+     */
+    private String updateStatus(String id, Update update) {
+        Query query = byId(id);
+        query.fields().include("username");
         
-        log.info("Usuário desbloqueado com sucesso: {}", user.getUsername());
+        User user = mongoTemplate.findAndModify(query, update.set("updatedAt", LocalDateTime.now()), User.class);
+        if (user == null) {
+            throw new IllegalArgumentException("Usuário não encontrado: " + id);
+        }
+        
+        principalCache.invalidate(user.getUsername());
+        return user.getUsername();
+    }
+    
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
     }
     
     public boolean hasRole(String username, String role) {
-        return userRepository.findByUsername(username)
-                .map(user -> user.getRoles().contains(role))
+        return principalCache.get(username, userRepository::findByUsername)
+                .map(user -> roleRegistry.hasRole(user, role))
                 .orElse(false);
     }
     
@@ -171,4 +243,20 @@ public class UserService implements UserDetailsService {
             log.info("Usuário administrador criado com sucesso");
         }
     }
+    
+    /**
+     * Nome de usuário inexistente. Sem stack trace nem o nome na mensagem, pois é o
+     * caminho mais frequente em ataques de credential stuffing.
+     */
+    static class UnknownUsernameException extends UsernameNotFoundException {
+        
+        UnknownUsernameException() {
+            super("Usuário não encontrado");
+        }
+        
+        @Override
+        public Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
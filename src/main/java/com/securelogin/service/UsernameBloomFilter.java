@@ -0,0 +1,191 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom com os nomes de usuário existentes.
+ * <p>
+ * Um resultado negativo é definitivo e permite rejeitar nomes desconhecidos sem consultar
+ * o MongoDB. Enquanto o filtro não foi construído, todo nome é tratado como possível.
+ * Usuários inseridos por outros nós chegam pelo {@link UserChangeWatcher}.
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter {
+
+    private final AppProperties.UsernameFilter settings;
+    private final MongoTemplate mongoTemplate;
+    private final LongAdder definiteMisses = new LongAdder();
+    // Inserções e a troca dos filtros são atômicas entre si: um nome não escapa de ambos
+    private final Object swapLock = new Object();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public UsernameBloomFilter(AppProperties appProperties, MongoTemplate mongoTemplate) {
+        this.settings = appProperties.getSecurity().getUsernameFilter();
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean mightContain(String username) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(username)) {
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    public void put(String username) {
+        synchronized (swapLock) {
+            if (current != null) {
+                current.put(username);
+            }
+            if (building != null) {
+                building.put(username);
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o filtro lendo apenas o campo username da coleção users.
+     * Inserções concorrentes são aplicadas também ao filtro em construção. Reconstruções
+     * agendadas e as disparadas pelo {@link UserChangeWatcher} não se sobrepõem.
+     */
+    @Scheduled(fixedDelayString = "#{@appProperties.security.usernameFilter.rebuildInterval.toMillis()}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        BloomFilter next = new BloomFilter(settings.getExpectedInsertions(), settings.getFalsePositiveRate());
+        synchronized (swapLock) {
+            building = next;
+        }
+
+        try {
+            Query query = new Query();
+            query.fields().include("username").exclude("_id");
+
+            long count = 0;
+            try (Stream<Document> usernames = mongoTemplate.stream(query, Document.class, "users")) {
+                for (Document document : (Iterable<Document>) usernames::iterator) {
+                    String username = document.getString("username");
+                    if (username != null) {
+                        next.put(username);
+                        count++;
+                    }
+                }
+            }
+
+            synchronized (swapLock) {
+                current = next;
+                building = null;
+            }
+            log.info("Filtro de nomes de usuário reconstruído com {} entradas em {} ms",
+                    count, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Falha ao reconstruir o filtro de nomes de usuário: {}", e.getMessage());
+            synchronized (swapLock) {
+                building = null;
+            }
+        }
+    }
+
+    public Stats getStats() {
+        BloomFilter filter = current;
+        return new Stats(
+                filter != null,
+                settings.getExpectedInsertions(),
+                settings.getFalsePositiveRate(),
+                filter != null ? filter.bitSize : 0,
+                filter != null ? filter.hashFunctions : 0,
+                definiteMisses.sum());
+    }
+
+    /**
+     * Vetor de bits sem bloqueio com hashing duplo (Kirsch-Mitzenmacher)
+     */
+    static class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitSize;
+        private final int hashFunctions;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+
+            this.bits = new AtomicLongArray(words);
+            this.bitSize = (long) words * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+
+                long previous = bits.get(word);
+                while ((previous & mask) == 0 && !bits.compareAndSet(word, previous, previous | mask)) {
+                    previous = bits.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private long expectedInsertions;
+        private double falsePositiveRate;
+        private long bitSize;
+        private int hashFunctions;
+        private long definiteMisses;
+    }
+}
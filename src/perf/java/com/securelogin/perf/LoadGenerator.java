@@ -0,0 +1,354 @@
+package com.securelogin.perf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Gera a carga de login, dashboard e cadastro contra a aplicação em execução.
+ * <p>
+ * Cada usuário virtual tem o próprio cookie de sessão e faz login na própria conta antes do
+ * aquecimento. Logins com senha incorreta e cadastros usam um cliente sem sessão, e as senhas
+ * incorretas vão para contas que não pertencem a usuários virtuais, para que os bloqueios não
+ * afetem o restante da carga. No modelo aberto a latência é medida a partir do instante
+ * planejado da requisição, incluindo o tempo na fila.
+ */
+@Slf4j
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final List<String> usernames;
+    private final String password;
+    private final HttpClient anonymousClient;
+    private final Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private final AtomicLong registrations = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadGenerator(URI baseUri, LoadTestSettings settings, List<String> usernames, String password) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.usernames = usernames;
+        this.password = password;
+        this.anonymousClient = newClient(false);
+        for (LoadOperation operation : LoadOperation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    LoadReport run() throws InterruptedException {
+        List<VirtualUser> virtualUsers = createVirtualUsers();
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        long dropped;
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getConcurrency());
+        try {
+            if (settings.getModel() == LoadTestSettings.Model.OPEN) {
+                dispatchOpen(workers, virtualUsers, warmupEnd, end);
+            } else {
+                dispatchClosed(workers, virtualUsers, warmupEnd, end);
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Requisições pendentes após {} s foram descartadas", DRAIN_TIMEOUT_SECONDS);
+            }
+            dropped = workers.shutdownNow().size();
+        }
+        long elapsedNanos = System.nanoTime() - warmupEnd;
+
+        Map<LoadOperation, Histogram> histograms = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, Long> errorCounts = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new LoadReport(settings, histograms, errorCounts, dropped, elapsedNanos);
+    }
+
+    /**
+     * Cada usuário virtual envia a próxima requisição assim que recebe a resposta da anterior
+     */
+    private void dispatchClosed(ExecutorService workers, List<VirtualUser> virtualUsers,
+                                long warmupEnd, long end) {
+        for (VirtualUser virtualUser : virtualUsers) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    execute(virtualUser, nextOperation(virtualUser), System.nanoTime());
+                    if (settings.getThinkTimeMillis() > 0) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(settings.getThinkTimeMillis()));
+                    }
+                }
+            });
+        }
+        parkUntil(warmupEnd);
+        resetMeasurements();
+        parkUntil(end);
+    }
+
+    /**
+     * Requisições disparadas em intervalos fixos; usuários virtuais livres atendem a fila
+     */
+    private void dispatchOpen(ExecutorService workers, List<VirtualUser> virtualUsers,
+                              long warmupEnd, long end) {
+        BlockingQueue<VirtualUser> idle = new ArrayBlockingQueue<>(virtualUsers.size(), false, virtualUsers);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getArrivalRate());
+        boolean warmedUp = false;
+
+        for (long intended = System.nanoTime(); intended < end; intended += interval) {
+            parkUntil(intended);
+            if (!warmedUp && intended >= warmupEnd) {
+                resetMeasurements();
+                warmedUp = true;
+            }
+            long scheduled = intended;
+            workers.execute(() -> {
+                VirtualUser virtualUser;
+                try {
+                    virtualUser = idle.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    execute(virtualUser, nextOperation(virtualUser), scheduled);
+                } finally {
+                    idle.offer(virtualUser);
+                }
+            });
+        }
+        if (!warmedUp) {
+            resetMeasurements();
+        }
+    }
+
+    private LoadOperation nextOperation(VirtualUser virtualUser) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int total = settings.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        int choice = random.nextInt(total);
+
+        LoadOperation operation = LoadOperation.LOGIN;
+        for (Map.Entry<LoadOperation, Integer> entry : settings.getMix().entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                operation = entry.getKey();
+                break;
+            }
+        }
+
+        if (operation == LoadOperation.LOGIN && random.nextDouble() < settings.getBadPasswordRatio()) {
+            return LoadOperation.LOGIN_BAD_PASSWORD;
+        }
+        // Sessão perdida: o dashboard redirecionaria para o login
+        if (operation == LoadOperation.DASHBOARD && !virtualUser.authenticated) {
+            return LoadOperation.LOGIN;
+        }
+        return operation;
+    }
+
+    private void execute(VirtualUser virtualUser, LoadOperation operation, long startNanos) {
+        boolean success;
+        try {
+            switch (operation) {
+                case LOGIN:
+                    success = login(virtualUser.client, virtualUser.username, password, "/dashboard");
+                    virtualUser.authenticated = success;
+                    break;
+                case LOGIN_BAD_PASSWORD:
+                    success = login(anonymousClient, badPasswordTarget(), password + "-incorreta", "/login?error");
+                    break;
+                case DASHBOARD:
+                    success = dashboard(virtualUser.client);
+                    virtualUser.authenticated = success;
+                    break;
+                case REGISTER:
+                    success = register();
+                    break;
+                default:
+                    throw new IllegalStateException("Operação desconhecida: " + operation);
+            }
+        } catch (IOException e) {
+            log.debug("Falha na requisição {}: {}", operation, e.getMessage());
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (success) {
+            recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        } else {
+            errors.get(operation).increment();
+        }
+    }
+
+    private boolean login(HttpClient client, String username, String password, String expectedLocation)
+            throws IOException, InterruptedException {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", username);
+        form.put("password", password);
+
+        HttpResponse<Void> response = client.send(post("/login", form), HttpResponse.BodyHandlers.discarding());
+        return isRedirectTo(response, expectedLocation);
+    }
+
+    private boolean dashboard(HttpClient client) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/dashboard"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean register() throws IOException, InterruptedException {
+        String username = "perf-" + runId + "-" + registrations.incrementAndGet();
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", username);
+        form.put("email", username + "@perf.local");
+        form.put("fullName", "Usuário de Carga");
+        form.put("password", password);
+        form.put("confirmPassword", password);
+
+        HttpResponse<Void> response = anonymousClient.send(post("/register", form), HttpResponse.BodyHandlers.discarding());
+        return isRedirectTo(response, "/login");
+    }
+
+    /**
+     * Contas fora das sessões dos usuários virtuais, quando houver
+     */
+    private String badPasswordTarget() {
+        int first = usernames.size() > settings.getConcurrency() ? settings.getConcurrency() : 0;
+        return usernames.get(ThreadLocalRandom.current().nextInt(first, usernames.size()));
+    }
+
+    private List<VirtualUser> createVirtualUsers() throws InterruptedException {
+        if (usernames.size() < settings.getConcurrency()) {
+            log.warn("Há menos usuários ({}) que usuários virtuais ({}); sessões da mesma conta serão expiradas",
+                    usernames.size(), settings.getConcurrency());
+        }
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            virtualUsers.add(new VirtualUser(usernames.get(i % usernames.size()), newClient(true)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getConcurrency());
+        try {
+            for (VirtualUser virtualUser : virtualUsers) {
+                executor.execute(() -> {
+                    try {
+                        virtualUser.authenticated = login(virtualUser.client, virtualUser.username, password, "/dashboard");
+                    } catch (IOException e) {
+                        log.warn("Falha no login inicial de {}: {}", virtualUser.username, e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.MINUTES);
+        }
+
+        long authenticated = virtualUsers.stream().filter(virtualUser -> virtualUser.authenticated).count();
+        log.info("{} de {} usuários virtuais autenticados", authenticated, virtualUsers.size());
+        return virtualUsers;
+    }
+
+    private void resetMeasurements() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            recorders.get(operation).reset();
+            errors.get(operation).reset();
+        }
+        log.info("Aquecimento concluído, iniciando a medição");
+    }
+
+    private HttpRequest post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Compara caminho e query do redirecionamento com o prefixo esperado, ex.: {@code /login?error}.
+     * Aceita 302 (Spring MVC) e 303 (padrão do {@code redirect:} no WebFlux).
+     */
+    private static boolean isRedirectTo(HttpResponse<?> response, String expectedLocation) {
+        int status = response.statusCode();
+        return (status == 302 || status == 303) && response.headers().firstValue("Location")
+                .map(URI::create)
+                .map(location -> location.getRawQuery() == null
+                        ? location.getRawPath()
+                        : location.getRawPath() + "?" + location.getRawQuery())
+                .map(target -> target.startsWith(expectedLocation))
+                .orElse(false);
+    }
+
+    private static HttpClient newClient(boolean withSession) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(REQUEST_TIMEOUT);
+        if (withSession) {
+            builder.cookieHandler(new CookieManager());
+        }
+        return builder.build();
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class VirtualUser {
+        private final String username;
+        private final HttpClient client;
+        private volatile boolean authenticated;
+
+        private VirtualUser(String username, HttpClient client) {
+            this.username = username;
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.securelogin.perf;
+
+/**
+ * Requisições geradas pelo teste de carga, com o nome usado no relatório
+ */
+enum LoadOperation {
+    LOGIN("login"),
+    LOGIN_BAD_PASSWORD("login_bad_password"),
+    DASHBOARD("dashboard"),
+    REGISTER("register");
+
+    private final String reportName;
+
+    LoadOperation(String reportName) {
+        this.reportName = reportName;
+    }
+
+    String getReportName() {
+        return reportName;
+    }
+}
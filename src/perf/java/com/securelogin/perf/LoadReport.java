@@ -0,0 +1,141 @@
+package com.securelogin.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado do teste de carga em JSON: vazão, erros e percentis de latência por operação.
+ * <p>
+ * Cada operação também leva o histograma HdrHistogram comprimido em Base64, que pode ser
+ * decodificado com {@code Histogram.decodeFromCompressedByteBuffer} para comparar execuções
+ * de commits diferentes com precisão total.
+ */
+@Slf4j
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final LoadTestSettings settings;
+    private final Map<LoadOperation, Histogram> histograms;
+    private final Map<LoadOperation, Long> errors;
+    private final long dropped;
+    private final long elapsedNanos;
+
+    LoadReport(LoadTestSettings settings, Map<LoadOperation, Histogram> histograms,
+               Map<LoadOperation, Long> errors, long dropped, long elapsedNanos) {
+        this.settings = settings;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum() + totalErrors();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum() + dropped;
+    }
+
+    double errorRatio() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), toMap());
+        log.info("Relatório do teste de carga gravado em {}", path.toAbsolutePath());
+    }
+
+    void logSummary() {
+        for (Map.Entry<LoadOperation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            log.info(String.format("%-20s %8d ok %6d erros %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms",
+                    entry.getKey().getReportName(), histogram.getTotalCount(), errors.get(entry.getKey()),
+                    throughput(histogram.getTotalCount()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())));
+        }
+        log.info(String.format("Total: %d requisições, %.1f req/s, %.2f%% de erros, %d descartadas",
+                totalRequests(), throughput(totalRequests() - totalErrors()), errorRatio() * 100, dropped));
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("commit", System.getProperty("perf.commit", System.getenv("GIT_COMMIT")));
+        report.put("java_version", System.getProperty("java.version"));
+        report.put("available_processors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", settings.toReport());
+        report.put("elapsed_seconds", elapsedNanos / 1e9);
+
+        Histogram total = new Histogram(3);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<LoadOperation, Histogram> entry : histograms.entrySet()) {
+            total.add(entry.getValue());
+            operations.put(entry.getKey().getReportName(), operation(entry.getValue(), errors.get(entry.getKey())));
+        }
+        report.put("operations", operations);
+
+        Map<String, Object> summary = operation(total, totalErrors() - dropped);
+        summary.put("dropped", dropped);
+        summary.put("error_ratio", errorRatio());
+        report.put("total", summary);
+        return report;
+    }
+
+    private Map<String, Object> operation(Histogram histogram, long errorCount) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("count", histogram.getTotalCount());
+        operation.put("errors", errorCount);
+        operation.put("throughput_per_second", throughput(histogram.getTotalCount()));
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        if (histogram.getTotalCount() > 0) {
+            latency.put("min", millis(histogram.getMinValue()));
+            latency.put("mean", histogram.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", ""),
+                        millis(histogram.getValueAtPercentile(percentile)));
+            }
+            latency.put("max", millis(histogram.getMaxValue()));
+        }
+        operation.put("latency_ms", latency);
+        operation.put("hdr_histogram_us", encode(histogram));
+        return operation;
+    }
+
+    private double throughput(long count) {
+        return elapsedNanos > 0 ? count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)) : 0;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
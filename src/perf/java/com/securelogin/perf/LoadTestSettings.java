@@ -0,0 +1,182 @@
+package com.securelogin.perf;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema {@code perf.*}.
+ * <p>
+ * Exemplo: {@code mvn -Pperf test -Dperf.model=open -Dperf.arrival-rate=200 -Dperf.mix=login:70,dashboard:25,register:5}
+ */
+final class LoadTestSettings {
+
+    enum Model {
+        /** Número fixo de usuários virtuais, cada um envia a próxima requisição ao receber a resposta */
+        CLOSED,
+        /** Chegadas a uma taxa fixa, independente do tempo de resposta */
+        OPEN
+    }
+
+    private final int users;
+    private final int concurrency;
+    private final Model model;
+    private final double arrivalRate;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final long thinkTimeMillis;
+    private final Map<LoadOperation, Integer> mix;
+    private final double badPasswordRatio;
+    private final double maxErrorRatio;
+    private final int seedThreads;
+    private final String mongoUri;
+    private final Path reportPath;
+
+    private LoadTestSettings(int users, int concurrency, Model model, double arrivalRate, int warmupSeconds,
+                             int durationSeconds, long thinkTimeMillis, Map<LoadOperation, Integer> mix,
+                             double badPasswordRatio, double maxErrorRatio, int seedThreads, String mongoUri,
+                             Path reportPath) {
+        if (users < 1 || concurrency < 1 || durationSeconds < 1 || warmupSeconds < 0 || seedThreads < 1) {
+            throw new IllegalArgumentException("Parâmetros do teste de carga inválidos");
+        }
+        if (model == Model.OPEN && arrivalRate <= 0) {
+            throw new IllegalArgumentException("perf.arrival-rate deve ser maior que zero no modelo aberto");
+        }
+        if (badPasswordRatio < 0 || badPasswordRatio > 1) {
+            throw new IllegalArgumentException("perf.bad-password-ratio deve estar entre 0 e 1");
+        }
+        this.users = users;
+        this.concurrency = concurrency;
+        this.model = model;
+        this.arrivalRate = arrivalRate;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.mix = mix;
+        this.badPasswordRatio = badPasswordRatio;
+        this.maxErrorRatio = maxErrorRatio;
+        this.seedThreads = seedThreads;
+        this.mongoUri = mongoUri;
+        this.reportPath = reportPath;
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("perf.users", 1000),
+                Integer.getInteger("perf.concurrency", 32),
+                Model.valueOf(System.getProperty("perf.model", "closed").toUpperCase()),
+                Double.parseDouble(System.getProperty("perf.arrival-rate", "100")),
+                Integer.getInteger("perf.warmup-seconds", 10),
+                Integer.getInteger("perf.duration-seconds", 60),
+                Long.getLong("perf.think-time-ms", 0L),
+                parseMix(System.getProperty("perf.mix", "login:60,dashboard:30,register:10")),
+                Double.parseDouble(System.getProperty("perf.bad-password-ratio", "0.2")),
+                Double.parseDouble(System.getProperty("perf.max-error-ratio", "0.01")),
+                Integer.getInteger("perf.seed-threads", Runtime.getRuntime().availableProcessors()),
+                System.getProperty("perf.mongodb.uri"),
+                Paths.get(System.getProperty("perf.report", "target/perf/load-report.json")));
+    }
+
+    /**
+     * Converte {@code login:60,dashboard:30,register:10} em pesos; os logins são divididos
+     * entre senha correta e incorreta por {@code perf.bad-password-ratio}
+     */
+    static Map<LoadOperation, Integer> parseMix(String value) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida em perf.mix: " + entry);
+            }
+            LoadOperation operation = LoadOperation.valueOf(parts[0].trim().toUpperCase());
+            if (operation == LoadOperation.LOGIN_BAD_PASSWORD) {
+                throw new IllegalArgumentException("Use perf.bad-password-ratio para os logins com senha incorreta");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Peso negativo em perf.mix: " + entry);
+            }
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("perf.mix deve ter ao menos um peso positivo");
+        }
+        return weights;
+    }
+
+    /**
+     * Parâmetros gravados no relatório para identificar a execução
+     */
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("concurrency", concurrency);
+        report.put("model", model.name().toLowerCase());
+        if (model == Model.OPEN) {
+            report.put("arrival_rate", arrivalRate);
+        }
+        report.put("warmup_seconds", warmupSeconds);
+        report.put("duration_seconds", durationSeconds);
+        report.put("think_time_ms", thinkTimeMillis);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.getReportName(), weight));
+        report.put("mix", weights);
+        report.put("bad_password_ratio", badPasswordRatio);
+        report.put("mongodb", mongoUri != null ? "external" : "in-memory");
+        return report;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    Model getModel() {
+        return model;
+    }
+
+    double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    long getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+
+    Map<LoadOperation, Integer> getMix() {
+        return mix;
+    }
+
+    double getBadPasswordRatio() {
+        return badPasswordRatio;
+    }
+
+    double getMaxErrorRatio() {
+        return maxErrorRatio;
+    }
+
+    int getSeedThreads() {
+        return seedThreads;
+    }
+
+    String getMongoUri() {
+        return mongoUri;
+    }
+
+    Path getReportPath() {
+        return reportPath;
+    }
+}
@@ -0,0 +1,129 @@
+package com.securelogin.perf;
+
+import com.securelogin.entity.User;
+import com.securelogin.service.UserService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga de um nó: semeia {@code perf.users} contas via {@link UserService#createUser}
+ * e gera logins, acessos ao dashboard e cadastros conforme {@link LoadTestSettings}.
+ * <p>
+ * Por padrão usa um MongoDB em memória no próprio processo; {@code -Dperf.mongodb.uri} aponta
+ * para uma instância real. Toda a carga sai do mesmo IP, então o limite de falhas por IP é
+ * desativado, a menos que {@code -Dapp.security.max-ip-attempts} seja informado.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "logging.level.com.securelogin=WARN",
+    "logging.level.org.springframework.security=WARN",
+    "logging.level.com.securelogin.perf=INFO",
+    "app.mongodb.verify-query-plans=false"
+})
+class LoginLoadTest {
+
+    private static final String PASSWORD = "Carga@2024";
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+
+    private static MongoServer mongoServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @DynamicPropertySource
+    static void loadTestProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", LoginLoadTest::mongoUri);
+        registry.add("app.security.max-ip-attempts",
+                () -> System.getProperty("app.security.max-ip-attempts", String.valueOf(Integer.MAX_VALUE)));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+    }
+
+    @Test
+    void sustainLoginDashboardAndRegisterLoad() throws Exception {
+        List<String> usernames = seedUsers();
+
+        LoadReport report = new LoadGenerator(URI.create("http://localhost:" + port), SETTINGS, usernames, PASSWORD).run();
+        report.logSummary();
+        report.write(SETTINGS.getReportPath());
+
+        assertTrue(report.errorRatio() <= SETTINGS.getMaxErrorRatio(),
+                String.format("Taxa de erros %.4f acima do limite %.4f", report.errorRatio(), SETTINGS.getMaxErrorRatio()));
+    }
+
+    /**
+     * Cria as contas em paralelo; contas de execuções anteriores em um MongoDB externo são reaproveitadas
+     */
+    private List<String> seedUsers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SETTINGS.getSeedThreads());
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < SETTINGS.getUsers(); i++) {
+                String username = "perf-user-" + i;
+                futures.add(executor.submit(() -> {
+                    try {
+                        userService.createUser(newUser(username));
+                    } catch (IllegalArgumentException e) {
+                        // Conta já existente
+                    }
+                    return username;
+                }));
+            }
+
+            List<String> usernames = new ArrayList<>();
+            for (Future<String> future : futures) {
+                usernames.add(future.get());
+            }
+            return usernames;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@perf.local");
+        user.setPassword(PASSWORD);
+        user.setFullName("Usuário de Carga");
+        return user;
+    }
+
+    private static synchronized String mongoUri() {
+        if (SETTINGS.getMongoUri() != null) {
+            return SETTINGS.getMongoUri();
+        }
+        if (mongoServer == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            mongoServer.bind();
+        }
+        InetSocketAddress address = mongoServer.getLocalAddress();
+        return "mongodb://" + address.getHostString() + ":" + address.getPort() + "/secure-login-perf";
+    }
+}
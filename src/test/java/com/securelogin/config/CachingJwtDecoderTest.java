@@ -0,0 +1,105 @@
+package com.securelogin.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private MutableClock clock;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        decoder = new CachingJwtDecoder(delegate, 100, clock);
+    }
+
+    @Test
+    void decode_ShouldVerifyOnce_AndServeFromCache() {
+        Jwt jwt = jwt(NOW.plusSeconds(900));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("token"));
+        assertSame(jwt, decoder.decode("token"));
+
+        verify(delegate, times(1)).decode("token");
+        assertEquals(1, decoder.getStats().getHits());
+    }
+
+    @Test
+    void decode_ShouldNotCacheInvalidToken() {
+        when(delegate.decode("invalid")).thenThrow(new BadJwtException("assinatura inválida"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalid"));
+
+        verify(delegate, times(2)).decode("invalid");
+        assertEquals(0, decoder.getStats().getSize());
+    }
+
+    @Test
+    void decode_ShouldDelegateAgain_WhenCachedTokenHasExpired() {
+        when(delegate.decode("token"))
+                .thenReturn(jwt(NOW.plusSeconds(60)))
+                .thenThrow(new BadJwtException("token expirado"));
+
+        decoder.decode("token");
+        clock.instant = NOW.plusSeconds(61);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        verify(delegate, times(2)).decode("token");
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("testuser")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
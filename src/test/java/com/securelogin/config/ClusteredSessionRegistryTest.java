@@ -0,0 +1,198 @@
+package com.securelogin.config;
+
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.session.MapSession;
+import org.springframework.session.events.SessionDeletedEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusteredSessionRegistryTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    @Mock
+    private ObjectProvider<MongoSessionRepository> sessionRepositoryProvider;
+
+    @Mock
+    private MongoSessionRepository sessionRepository;
+
+    @Mock
+    private Clock clock;
+
+    private ClusteredSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSession().setTouchInterval(Duration.ofMinutes(1));
+
+        lenient().when(mongoTemplate.getCollection(MongoIndexManager.SESSION_REGISTRY)).thenReturn(collection);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(sessionRepositoryProvider.getIfAvailable()).thenReturn(sessionRepository);
+        registry = new ClusteredSessionRegistry(mongoTemplate, sessionRepositoryProvider, properties,
+                Duration.ofMinutes(30), clock);
+    }
+
+    @Test
+    void registerNewSession_ShouldIndexLocally_AndPersist() {
+        registry.registerNewSession("session-1", "testuser");
+
+        assertEquals("testuser", registry.getSessionInformation("session-1").getPrincipal());
+        assertTrue(registry.getAllPrincipals().contains("testuser"));
+        verify(collection).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+    }
+
+    @Test
+    void refreshLastRequest_ShouldNotTouchMongo_WithinTouchInterval() {
+        registry.registerNewSession("session-1", "testuser");
+        when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+
+        registry.getSessionInformation("session-1");
+        registry.refreshLastRequest("session-1");
+
+        verify(collection, never()).find(any(Bson.class));
+        verify(collection, never()).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void refreshLastRequest_ShouldPersist_WhenTouchIntervalHasPassed() {
+        registry.registerNewSession("session-1", "testuser");
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(2)));
+
+        registry.refreshLastRequest("session-1");
+        registry.refreshLastRequest("session-1");
+
+        verify(collection, times(1)).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void getAllSessions_ShouldReadSessionsFromOtherNodes_AndPropagateExpiration() {
+        stubFind(registryDocument("remote-session", false));
+
+        List<SessionInformation> sessions = registry.getAllSessions("testuser", false);
+        assertEquals(1, sessions.size());
+
+        sessions.get(0).expireNow();
+
+        assertTrue(registry.getSessionInformation("remote-session").isExpired());
+        verify(collection).updateOne(any(Bson.class), any(Bson.class));
+        verify(sessionRepository).evict("remote-session");
+    }
+
+    @Test
+    void getAllSessions_ShouldUseLocalIndex_WhenMongoIsUnavailable() {
+        registry.registerNewSession("session-1", "testuser");
+        when(collection.find(any(Bson.class))).thenThrow(new MongoTimeoutException("timeout"));
+
+        List<SessionInformation> sessions = registry.getAllSessions("testuser", false);
+
+        assertEquals(1, sessions.size());
+        assertEquals(1, registry.getStats().getFailures());
+    }
+
+    @Test
+    void apply_ShouldMarkLocalEntryExpired_WhenOtherNodeExpiresSession() {
+        registry.registerNewSession("session-1", "testuser");
+        ChangeStreamDocument<Document> change = change(OperationType.UPDATE, "session-1", registryDocument("session-1", true));
+
+        registry.apply(change);
+
+        assertTrue(registry.getSessionInformation("session-1").isExpired());
+        verify(sessionRepository).evict("session-1");
+    }
+
+    @Test
+    void apply_ShouldRemoveLocalEntry_WhenOtherNodeDeletesSession() {
+        registry.registerNewSession("session-1", "testuser");
+
+        registry.apply(change(OperationType.DELETE, "session-1", null));
+
+        assertNull(registry.getSessionInformation("session-1"));
+        assertFalse(registry.getAllPrincipals().contains("testuser"));
+        verify(sessionRepository).evict("session-1");
+    }
+
+    @Test
+    void onSessionDeleted_ShouldRemoveRegistration() {
+        registry.registerNewSession("session-1", "testuser");
+
+        registry.onSessionDeleted(new SessionDeletedEvent(this, new MapSession("session-1")));
+
+        assertNull(registry.getSessionInformation("session-1"));
+        verify(collection).deleteOne(any(Bson.class));
+    }
+
+    @Test
+    void sweep_ShouldDropEntriesPastSessionTimeout() {
+        registry.registerNewSession("session-1", "testuser");
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(45)));
+
+        registry.sweep();
+
+        assertNull(registry.getSessionInformation("session-1"));
+    }
+
+    private void stubFind(Document document) {
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(document);
+    }
+
+    private static Document registryDocument(String sessionId, boolean expired) {
+        return new Document("_id", sessionId)
+                .append("principal", "testuser")
+                .append("last_request", Date.from(NOW))
+                .append("expired", expired)
+                .append("expire_at", Date.from(NOW.plus(Duration.ofMinutes(31))))
+                .append("updated_at", Date.from(NOW));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(OperationType operation, String sessionId, Document fullDocument) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(operation);
+        lenient().when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(sessionId)));
+        lenient().when(change.getFullDocument()).thenReturn(fullDocument);
+        return change;
+    }
+}
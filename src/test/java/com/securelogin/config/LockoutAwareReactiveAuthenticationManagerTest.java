@@ -0,0 +1,152 @@
+package com.securelogin.config;
+
+import com.securelogin.entity.User;
+import com.securelogin.service.AuthenticationMetrics;
+import com.securelogin.service.LoginLockoutService;
+import com.securelogin.service.PasswordHashingExecutor;
+import com.securelogin.service.ReactiveUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LockoutAwareReactiveAuthenticationManagerTest {
+
+    @Mock
+    private ReactiveUserService userService;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private LoginLockoutService loginLockoutService;
+
+    @Mock
+    private AuthenticationEventPublisher eventPublisher;
+
+    private LockoutAwareReactiveAuthenticationManager authenticationManager;
+    private UsernamePasswordAuthenticationToken loginRequest;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        authenticationManager = new LockoutAwareReactiveAuthenticationManager(userService, passwordEncoder,
+                loginLockoutService, eventPublisher, new AuthenticationMetrics(new SimpleMeterRegistry()));
+        authenticationManager.setEventScheduler(Schedulers.immediate());
+
+        loginRequest = UsernamePasswordAuthenticationToken.unauthenticated("testuser", "password123");
+        loginRequest.setDetails(new LoginAttemptDetails("10.0.0.1", "JUnit"));
+
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setPassword("{bcrypt}hash");
+        testUser.setActive(true);
+        testUser.setRoles(new HashSet<>(Arrays.asList("USER")));
+    }
+
+    @Test
+    void authenticate_ShouldReturnTokenWithoutPasswordHash_AndPublishSuccess_WhenPasswordMatches() {
+        when(userService.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(true));
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .assertNext(authentication -> {
+                    assertTrue(authentication.isAuthenticated());
+                    UserDetails principal = (UserDetails) authentication.getPrincipal();
+                    assertNotSame(testUser, principal);
+                    assertEquals("testuser", principal.getUsername());
+                    assertNull(principal.getPassword());
+                    assertEquals(testUser.getAuthorities().size(), principal.getAuthorities().size());
+                    assertSame(loginRequest.getDetails(), authentication.getDetails());
+                })
+                .verifyComplete();
+
+        // A entidade em cache continua com o hash para os próximos logins
+        assertEquals("{bcrypt}hash", testUser.getPassword());
+        verify(eventPublisher).publishAuthenticationSuccess(any());
+    }
+
+    @Test
+    void authenticate_ShouldRejectWithoutLookup_WhenUsernameOrIpIsLocked() {
+        when(loginLockoutService.isLocked("testuser", "10.0.0.1")).thenReturn(true);
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .expectError(LockedException.class)
+                .verify();
+
+        verify(userService, never()).findByUsername(anyString());
+        verify(eventPublisher).publishAuthenticationFailure(any(LockedException.class), eq(loginRequest));
+    }
+
+    @Test
+    void authenticate_ShouldPublishFailure_WhenPasswordDoesNotMatch() {
+        when(userService.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(false));
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .expectError(BadCredentialsException.class)
+                .verify();
+
+        verify(eventPublisher).publishAuthenticationFailure(any(BadCredentialsException.class), eq(loginRequest));
+    }
+
+    @Test
+    void authenticate_ShouldFailWithBadCredentials_WhenUserIsUnknown() {
+        when(userService.findByUsername("testuser")).thenReturn(Mono.empty());
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .expectError(BadCredentialsException.class)
+                .verify();
+
+        verify(passwordEncoder, never()).matchesAsync(any(), any());
+    }
+
+    @Test
+    void authenticate_ShouldPropagateRejection_WhenHashingPoolIsSaturated() {
+        CompletableFuture<Boolean> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new PasswordHashingExecutor.HashingRejectedException(
+                PasswordHashingExecutor.Reason.QUEUE_FULL));
+        when(userService.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", "{bcrypt}hash")).thenReturn(rejected);
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .expectError(PasswordHashingExecutor.HashingRejectedException.class)
+                .verify();
+    }
+
+    @Test
+    void authenticate_ShouldRehashPassword_WhenEncodingIsOutdated() {
+        when(userService.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", "{bcrypt}hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordEncoder.upgradeEncoding("{bcrypt}hash")).thenReturn(true);
+        when(passwordEncoder.encodeAsync("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}novo"));
+        when(userService.updatePassword(testUser, "{bcrypt}novo")).thenReturn(Mono.just(testUser));
+
+        StepVerifier.create(authenticationManager.authenticate(loginRequest))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(userService).updatePassword(testUser, "{bcrypt}novo");
+    }
+}
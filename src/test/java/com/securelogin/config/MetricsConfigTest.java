@@ -0,0 +1,102 @@
+package com.securelogin.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Tag;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    private static final ConnectionDescription CONNECTION =
+        new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    void commandTags_ShouldIncludeRepositoryMethod_CapturedWhenCommandStarted() throws Throwable {
+        MetricsConfig.RepositoryMethodCommandTagsProvider provider = new MetricsConfig.RepositoryMethodCommandTagsProvider();
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        when(started.getConnectionDescription()).thenReturn(CONNECTION);
+        when(started.getRequestId()).thenReturn(42);
+        when(started.getCommandName()).thenReturn("find");
+        when(started.getCommand()).thenReturn(new BsonDocument("find", new BsonString("users")));
+
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(invocation.proceed()).thenAnswer(call -> {
+            provider.commandStarted(started);
+            return null;
+        });
+        MethodInterceptor interceptor = MetricsConfig.repositoryMethodInterceptor("UserRepository");
+        interceptor.invoke(invocation);
+
+        CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+        when(succeeded.getConnectionDescription()).thenReturn(CONNECTION);
+        when(succeeded.getRequestId()).thenReturn(42);
+        when(succeeded.getCommandName()).thenReturn("find");
+
+        assertEquals("UserRepository.toString", tagValue(provider.commandTags(succeeded), MetricsConfig.REPOSITORY_METHOD_TAG));
+        assertEquals(MetricsConfig.NO_REPOSITORY_METHOD, MetricsConfig.currentRepositoryMethod());
+    }
+
+    @Test
+    void commandTags_ShouldUseNone_WhenCommandIsOutsideRepository() {
+        MetricsConfig.RepositoryMethodCommandTagsProvider provider = new MetricsConfig.RepositoryMethodCommandTagsProvider();
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        when(started.getConnectionDescription()).thenReturn(CONNECTION);
+        when(started.getRequestId()).thenReturn(7);
+        when(started.getCommandName()).thenReturn("aggregate");
+        when(started.getCommand()).thenReturn(new BsonDocument("aggregate", new BsonString("login_attempts")));
+        provider.commandStarted(started);
+
+        CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+        when(succeeded.getConnectionDescription()).thenReturn(CONNECTION);
+        when(succeeded.getRequestId()).thenReturn(7);
+        when(succeeded.getCommandName()).thenReturn("aggregate");
+
+        assertEquals(MetricsConfig.NO_REPOSITORY_METHOD, tagValue(provider.commandTags(succeeded), MetricsConfig.REPOSITORY_METHOD_TAG));
+        assertEquals(0, provider.inFlight());
+    }
+
+    @Test
+    void commandStarted_ShouldExpireEntry_WhenCommandNeverCompletes() {
+        AtomicLong nanos = new AtomicLong();
+        MetricsConfig.RepositoryMethodCommandTagsProvider provider =
+                new MetricsConfig.RepositoryMethodCommandTagsProvider(nanos::get);
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        when(started.getConnectionDescription()).thenReturn(CONNECTION);
+        when(started.getRequestId()).thenReturn(9);
+        when(started.getCommandName()).thenReturn("find");
+        when(started.getCommand()).thenReturn(new BsonDocument("find", new BsonString("users")));
+        provider.commandStarted(started);
+        assertEquals(1, provider.inFlight());
+
+        nanos.addAndGet(MetricsConfig.RepositoryMethodCommandTagsProvider.IN_FLIGHT_TTL.plusSeconds(1).toNanos());
+
+        assertEquals(0, provider.inFlight());
+    }
+
+    private String tagValue(Iterable<Tag> tags, String key) {
+        List<String> values = new ArrayList<>();
+        for (Tag tag : tags) {
+            if (tag.getKey().equals(key)) {
+                values.add(tag.getValue());
+            }
+        }
+        assertEquals(1, values.size());
+        return values.get(0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.securelogin.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@TestPropertySource(properties = {
+    "spring.data.mongodb.uri=mongodb://localhost:27017/test-db",
+    "spring.data.mongodb.auto-index-creation=false"
+})
+class MongoIndexManagerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private MongoIndexManager mongoIndexManager;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(MongoIndexManager.USERS);
+        mongoTemplate.dropCollection(MongoIndexManager.LOGIN_ATTEMPTS);
+        mongoTemplate.dropCollection(MongoIndexManager.SESSIONS);
+        mongoTemplate.createCollection(MongoIndexManager.USERS);
+        mongoTemplate.createCollection(MongoIndexManager.LOGIN_ATTEMPTS);
+
+        mongoIndexManager = new MongoIndexManager(mongoTemplate, new AppProperties());
+    }
+
+    @Test
+    void ensureIndexes_ShouldCreateDeclaredIndexes_AndBeIdempotent() {
+        mongoIndexManager.ensureIndexes();
+        mongoIndexManager.ensureIndexes();
+
+        List<IndexInfo> userIndexes = mongoTemplate.indexOps(MongoIndexManager.USERS).getIndexInfo();
+        List<IndexInfo> attemptIndexes = mongoTemplate.indexOps(MongoIndexManager.LOGIN_ATTEMPTS).getIndexInfo();
+
+        // Inclui o índice _id padrão
+        assertEquals(MongoIndexManager.indexDefinitions().get(MongoIndexManager.USERS).size() + 1, userIndexes.size());
+        assertEquals(MongoIndexManager.indexDefinitions().get(MongoIndexManager.LOGIN_ATTEMPTS).size() + 1, attemptIndexes.size());
+
+        List<String> uniqueIndexes = userIndexes.stream()
+            .filter(IndexInfo::isUnique)
+            .map(IndexInfo::getName)
+            .collect(Collectors.toList());
+        assertTrue(uniqueIndexes.containsAll(Arrays.asList("username", "email")));
+    }
+
+    @Test
+    void ensureIndexes_ShouldCreateSessionTtlIndex() {
+        mongoIndexManager.ensureIndexes();
+
+        Document ttlIndex = mongoTemplate.getCollection(MongoIndexManager.SESSIONS).listIndexes()
+            .into(new ArrayList<>()).stream()
+            .filter(index -> index.get("key", Document.class).containsKey(MongoSessionRepository.EXPIRE_AT))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+        assertEquals(0, ((Number) ttlIndex.get("expireAfterSeconds")).intValue());
+    }
+
+    @Test
+    void verifyQueryPlans_ShouldPass_WhenIndexesExist() {
+        mongoIndexManager.ensureIndexes();
+
+        assertDoesNotThrow(() -> mongoIndexManager.verifyQueryPlans());
+    }
+
+    @Test
+    void verifyQueryPlans_ShouldFail_WhenIndexesAreMissing() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> mongoIndexManager.verifyQueryPlans());
+
+        assertTrue(exception.getMessage().contains("LoginAttemptRepository.findFailedAttemptsByIpSince"));
+    }
+
+    @Test
+    void containsCollectionScan_ShouldFindNestedStage() {
+        Document classic = new Document("stage", "FETCH")
+            .append("inputStage", new Document("stage", "IXSCAN"));
+        Document sbe = new Document("queryPlan", new Document("stage", "SORT")
+            .append("inputStages", Arrays.asList(new Document("stage", "COLLSCAN"))));
+
+        assertFalse(MongoIndexManager.containsCollectionScan(classic));
+        assertTrue(MongoIndexManager.containsCollectionScan(sbe));
+    }
+}
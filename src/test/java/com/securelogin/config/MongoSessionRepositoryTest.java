@@ -0,0 +1,205 @@
+package com.securelogin.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoSessionRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Mock
+    private Clock clock;
+
+    private MongoSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties.Session properties = new AppProperties.Session();
+        properties.setTouchInterval(Duration.ofMinutes(1));
+        properties.setNearCacheTtl(Duration.ofMinutes(5));
+
+        lenient().when(mongoTemplate.getCollection(MongoIndexManager.SESSIONS)).thenReturn(collection);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        repository = new MongoSessionRepository(mongoTemplate, Duration.ofMinutes(30), properties, clock);
+    }
+
+    @Test
+    void save_ShouldInsertFullDocument_WhenSessionIsNew() {
+        MongoSession session = repository.createSession();
+        session.setAttribute("org.example.FLASH", "mensagem");
+
+        repository.save(session);
+
+        Document document = captureInsertedDocument();
+        assertEquals(session.getId(), document.getString("_id"));
+        assertEquals(Date.from(NOW.plus(Duration.ofMinutes(30))), document.getDate("expire_at"));
+        assertTrue(document.get("attributes", Document.class).containsKey("org%2Eexample%2EFLASH"));
+    }
+
+    @Test
+    void findById_ShouldServeFromNearCache_AfterSave() {
+        MongoSession session = repository.createSession();
+        session.setAttribute("username", "testuser");
+        repository.save(session);
+
+        MongoSession found = repository.findById(session.getId());
+
+        assertEquals("testuser", found.getAttribute("username"));
+        verify(collection, never()).find(any(Bson.class));
+        assertEquals(1, repository.getStats().getNearCacheHits());
+    }
+
+    @Test
+    void save_ShouldSkipWrite_WhenSessionWasOnlyRead() {
+        MongoSession session = loadStoredSession();
+        session.getAttribute("username");
+        session.setLastAccessedTime(NOW.plusSeconds(30));
+
+        repository.save(session);
+
+        verify(collection, never()).updateOne(any(Bson.class), any(Bson.class));
+        assertEquals(1, repository.getStats().getSkippedWrites());
+    }
+
+    @Test
+    void save_ShouldWriteOnlyChangedAttributes() {
+        MongoSession session = loadStoredSession();
+        session.setAttribute("theme", "dark");
+        session.removeAttribute("username");
+        when(collection.updateOne(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        repository.save(session);
+
+        ArgumentCaptor<Bson> update = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).updateOne(any(Bson.class), update.capture());
+        BsonDocument rendered = update.getValue().toBsonDocument(BsonDocument.class,
+                MongoClientSettings.getDefaultCodecRegistry());
+        assertTrue(rendered.getDocument("$set").containsKey("attributes.theme"));
+        assertFalse(rendered.getDocument("$set").containsKey("attributes.other"));
+        assertTrue(rendered.getDocument("$unset").containsKey("attributes.username"));
+        verify(collection, never()).insertOne(any());
+    }
+
+    @Test
+    void save_ShouldWriteLastAccess_WhenTouchIntervalHasPassed() {
+        MongoSession session = loadStoredSession();
+        session.setLastAccessedTime(NOW.plus(Duration.ofMinutes(2)));
+        when(collection.updateOne(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        repository.save(session);
+
+        verify(collection).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void save_ShouldReplaceDocument_WhenSessionIdChanges() {
+        MongoSession session = loadStoredSession();
+        String originalId = session.getId();
+
+        session.changeSessionId();
+        repository.save(session);
+
+        Document document = captureInsertedDocument();
+        assertEquals(session.getId(), document.getString("_id"));
+        assertTrue(document.get("attributes", Document.class).containsKey("username"));
+        verify(collection).deleteOne(any(Bson.class));
+        assertNotEquals(originalId, session.getId());
+    }
+
+    @Test
+    void findById_ShouldReturnNull_WhenSessionHasExpired() {
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(storedDocument());
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(31)));
+
+        assertNull(repository.findById("stored"));
+    }
+
+    @Test
+    void mongoSession_ShouldDeserializeAttribute_OnlyOnFirstAccess() {
+        AtomicInteger deserializations = new AtomicInteger();
+        MongoSession.Snapshot snapshot = new MongoSession.Snapshot("stored", NOW, NOW, Duration.ofMinutes(30),
+                Collections.singletonMap("username", new byte[0]));
+        MongoSession session = new MongoSession(snapshot, bytes -> {
+            deserializations.incrementAndGet();
+            return "testuser";
+        });
+
+        assertTrue(session.getAttributeNames().contains("username"));
+        assertEquals(0, deserializations.get());
+
+        session.getAttribute("username");
+        session.getAttribute("username");
+        assertEquals(1, deserializations.get());
+    }
+
+    @Test
+    void encodeAttributeName_ShouldRoundTrip() {
+        String name = "org.springframework.$weird%2Ename";
+
+        String encoded = MongoSessionRepository.encodeAttributeName(name);
+
+        assertFalse(encoded.contains(".") || encoded.contains("$"));
+        assertEquals(name, MongoSessionRepository.decodeAttributeName(encoded));
+    }
+
+    private MongoSession loadStoredSession() {
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(storedDocument());
+        return repository.findById("stored");
+    }
+
+    private static Document storedDocument() {
+        SerializingConverter serializer = new SerializingConverter();
+        Document attributes = new Document("username", new Binary(serializer.convert("testuser")))
+                .append("other", new Binary(serializer.convert("valor")));
+
+        return new Document("_id", "stored")
+                .append("created_at", Date.from(NOW))
+                .append("last_accessed_at", Date.from(NOW))
+                .append("max_inactive_seconds", 1800L)
+                .append("expire_at", Date.from(NOW.plus(Duration.ofMinutes(30))))
+                .append("attributes", attributes);
+    }
+
+    private Document captureInsertedDocument() {
+        ArgumentCaptor<Document> document = ArgumentCaptor.forClass(Document.class);
+        verify(collection).insertOne(document.capture());
+        return document.getValue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.securelogin.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordConfigTest {
+
+    @Test
+    void calibrateBcryptStrength_ShouldPickMaxStrength_WhenTargetIsGenerous() {
+        AppProperties.Hashing hashing = new AppProperties.Hashing();
+        hashing.setMinStrength(4);
+        hashing.setMaxStrength(5);
+        hashing.setTargetLatency(Duration.ofSeconds(10));
+
+        assertEquals(5, PasswordConfig.calibrateBcryptStrength(hashing));
+    }
+
+    @Test
+    void calibrateBcryptStrength_ShouldNeverGoBelowMinStrength() {
+        AppProperties.Hashing hashing = new AppProperties.Hashing();
+        hashing.setMinStrength(6);
+        hashing.setMaxStrength(8);
+        hashing.setTargetLatency(Duration.ZERO);
+
+        assertEquals(6, PasswordConfig.calibrateBcryptStrength(hashing));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldMatchAndUpgradeLegacyUnprefixedHash() {
+        PasswordEncoder encoder = PasswordConfig.createDelegatingEncoder("bcrypt", 5);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password123");
+
+        assertTrue(encoder.matches("password123", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldUpgradeHashWithLowerStrength() {
+        PasswordEncoder encoder = PasswordConfig.createDelegatingEncoder("bcrypt", 5);
+
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("password123")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldUpgradeBcryptHashes_WhenAlgorithmChanges() {
+        PasswordEncoder bcrypt = PasswordConfig.createDelegatingEncoder("bcrypt", 4);
+        PasswordEncoder pbkdf2 = PasswordConfig.createDelegatingEncoder("pbkdf2", 4);
+        String hash = bcrypt.encode("password123");
+
+        assertTrue(pbkdf2.matches("password123", hash));
+        assertTrue(pbkdf2.upgradeEncoding(hash));
+    }
+}
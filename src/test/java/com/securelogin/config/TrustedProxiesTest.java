@@ -0,0 +1,38 @@
+package com.securelogin.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies trustedProxies = new TrustedProxies(new AppProperties().getSecurity().getTrustedProxies()
+            + "|10\\.0\\.0\\.\\d{1,3}");
+
+    @Test
+    void clientAddress_ShouldIgnoreHeader_WhenPeerIsNotTrusted() {
+        assertEquals("203.0.113.9",
+            trustedProxies.clientAddress("203.0.113.9", Collections.singletonList("198.51.100.1")));
+    }
+
+    @Test
+    void clientAddress_ShouldSkipTrustedHops_FromTheRight() {
+        assertEquals("198.51.100.7", trustedProxies.clientAddress("127.0.0.1",
+            Collections.singletonList("6.6.6.6, 198.51.100.7, 10.0.0.2")));
+    }
+
+    @Test
+    void clientAddress_ShouldJoinRepeatedHeaders() {
+        assertEquals("198.51.100.7", trustedProxies.clientAddress("10.0.0.1",
+            Arrays.asList("6.6.6.6", "198.51.100.7")));
+    }
+
+    @Test
+    void clientAddress_ShouldKeepPeer_WhenHeaderIsMissing() {
+        assertEquals("127.0.0.1", trustedProxies.clientAddress("127.0.0.1", Collections.emptyList()));
+        assertFalse(trustedProxies.isTrusted(null));
+    }
+}
@@ -0,0 +1,20 @@
+package com.securelogin.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminExportControllerTest {
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(AdminExportController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(AdminExportController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(AdminExportController.acceptsGzip("*"));
+        assertFalse(AdminExportController.acceptsGzip(null));
+        assertFalse(AdminExportController.acceptsGzip("identity"));
+        assertFalse(AdminExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(AdminExportController.acceptsGzip("gzip; q=0.0, *;q=1"));
+        assertFalse(AdminExportController.acceptsGzip("*;q=0"));
+    }
+}
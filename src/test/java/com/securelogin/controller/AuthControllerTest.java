@@ -1,14 +1,20 @@
 package com.securelogin.controller;
 
+import com.securelogin.config.AppProperties;
 import com.securelogin.dto.UserRegistrationDto;
 import com.securelogin.entity.User;
+import com.securelogin.service.PasswordHashingExecutor;
+import com.securelogin.service.PasswordHashingExecutor.HashingRejectedException;
 import com.securelogin.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -45,6 +51,11 @@ class AuthControllerTest {
     @Mock
     private SecurityContext securityContext;
 
+    @Spy
+    private AppProperties appProperties = new AppProperties();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
     @InjectMocks
     private AuthController authController;
 
@@ -155,7 +166,7 @@ class AuthControllerTest {
     void registerUser_ShouldReturnRegisterPage_WhenValidationErrors() {
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        String result = authController.registerUser(validDto, bindingResult, redirectAttributes);
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
 
         assertEquals("auth/register", result);
         verify(userService, never()).createUser(any(User.class));
@@ -166,7 +177,7 @@ class AuthControllerTest {
         validDto.setConfirmPassword("different_password");
         when(bindingResult.hasErrors()).thenReturn(false);
 
-        String result = authController.registerUser(validDto, bindingResult, redirectAttributes);
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
 
         assertEquals("auth/register", result);
         verify(bindingResult).rejectValue("confirmPassword", "error.userRegistrationDto", "As senhas não coincidem");
@@ -178,7 +189,7 @@ class AuthControllerTest {
         when(bindingResult.hasErrors()).thenReturn(false);
         when(userService.createUser(any(User.class))).thenReturn(testUser);
 
-        String result = authController.registerUser(validDto, bindingResult, redirectAttributes);
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
 
         assertEquals("redirect:/login", result);
         verify(userService).createUser(any(User.class));
@@ -192,7 +203,7 @@ class AuthControllerTest {
         when(userService.createUser(any(User.class)))
             .thenThrow(new IllegalArgumentException("Nome de usuário já existe: testuser"));
 
-        String result = authController.registerUser(validDto, bindingResult, redirectAttributes);
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
 
         assertEquals("auth/register", result);
         verify(bindingResult).rejectValue("username", "error.userRegistrationDto", 
@@ -205,13 +216,29 @@ class AuthControllerTest {
         when(userService.createUser(any(User.class)))
             .thenThrow(new RuntimeException("Database error"));
 
-        String result = authController.registerUser(validDto, bindingResult, redirectAttributes);
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
 
         assertEquals("redirect:/register", result);
         verify(redirectAttributes).addFlashAttribute("errorMessage", 
             "Erro interno do servidor. Tente novamente mais tarde.");
     }
 
+    @Test
+    void registerUser_ShouldAnswer503WithRetryAfter_WhenHashingPoolIsSaturated() {
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(userService.createUser(any(User.class)))
+            .thenThrow(new HashingRejectedException(PasswordHashingExecutor.Reason.QUEUE_FULL));
+
+        String result = authController.registerUser(validDto, bindingResult, model, redirectAttributes, response);
+
+        assertEquals("auth/register", result);
+        assertEquals(503, response.getStatus());
+        assertEquals(String.valueOf(appProperties.getSecurity().getHashing().getRetryAfterSeconds()),
+            response.getHeader(HttpHeaders.RETRY_AFTER));
+        verify(model).addAttribute("errorMessage", AuthController.OVERLOADED_MESSAGE);
+        verifyNoInteractions(redirectAttributes);
+    }
+
     @Test
     void accessDeniedPage_ShouldReturnAccessDeniedPage() {
         when(securityContext.getAuthentication()).thenReturn(authentication);
@@ -1,8 +1,11 @@
 package com.securelogin.controller;
 
+import com.securelogin.dto.LoginHistoryView;
+import com.securelogin.dto.UserProfileView;
 import com.securelogin.entity.LoginAttempt;
 import com.securelogin.entity.User;
 import com.securelogin.service.LoginAttemptService;
+import com.securelogin.service.LoginLockoutService;
 import com.securelogin.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.ui.Model;
 
@@ -31,6 +36,9 @@ class DashboardControllerTest {
     @Mock
     private LoginAttemptService loginAttemptService;
 
+    @Mock
+    private LoginLockoutService loginLockoutService;
+
     @Mock
     private Model model;
 
@@ -40,8 +48,11 @@ class DashboardControllerTest {
     @InjectMocks
     private DashboardController dashboardController;
 
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
     private User testUser;
-    private List<LoginAttempt> recentLogins;
+    private UserProfileView testProfile;
+    private List<LoginHistoryView> recentLogins;
     private LoginAttemptService.SecurityReport securityReport;
 
     @BeforeEach
@@ -52,6 +63,7 @@ class DashboardControllerTest {
         testUser.setEmail("test@example.com");
         testUser.setFullName("Test User");
         testUser.setRoles(new HashSet<>(Arrays.asList("USER")));
+        testProfile = projectionFactory.createProjection(UserProfileView.class, testUser);
 
         LoginAttempt login1 = new LoginAttempt();
         login1.setId("1");
@@ -65,7 +77,7 @@ class DashboardControllerTest {
         login2.setSuccess(true);
         login2.setAttemptTime(LocalDateTime.now().minusHours(2));
 
-        recentLogins = Arrays.asList(login1, login2);
+        recentLogins = Arrays.asList(toHistory(login1), toHistory(login2));
 
         securityReport = new LoginAttemptService.SecurityReport(10, 8, 2, LocalDateTime.now().minusHours(24));
     }
@@ -73,42 +85,44 @@ class DashboardControllerTest {
     @Test
     void dashboard_ShouldReturnDashboardPage_WhenUserExists() {
         when(authentication.getName()).thenReturn("testuser");
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(loginAttemptService.getSuccessfulLoginAttemptsByUsername("testuser")).thenReturn(recentLogins);
+        when(userService.findProfileByUsername("testuser")).thenReturn(Optional.of(testProfile));
+        when(loginAttemptService.getRecentSuccessfulLogins("testuser")).thenReturn(recentLogins);
         when(loginAttemptService.generateSecurityReport()).thenReturn(securityReport);
+        when(loginLockoutService.getRemainingAttempts("testuser")).thenReturn(3);
+        when(loginLockoutService.getMaxLoginAttempts()).thenReturn(5);
 
         String result = dashboardController.dashboard(model, authentication);
 
         assertEquals("dashboard/index", result);
-        verify(model).addAttribute("user", testUser);
-        verify(model).addAttribute("recentLogins", recentLogins.subList(0, 2));
+        verify(model).addAttribute("user", testProfile);
+        verify(model).addAttribute("recentLogins", recentLogins);
         verify(model).addAttribute("securityReport", securityReport);
+        verify(model).addAttribute("remainingAttempts", 3);
+        verify(model).addAttribute("maxLoginAttempts", 5);
     }
 
     @Test
     void dashboard_ShouldThrowException_WhenUserNotFound() {
         when(authentication.getName()).thenReturn("nonexistent");
-        when(userService.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userService.findProfileByUsername("nonexistent")).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> 
             dashboardController.dashboard(model, authentication));
     }
 
     @Test
-    void dashboard_ShouldLimitRecentLoginsToFive() {
-        List<LoginAttempt> manyLogins = Arrays.asList(
-            createLoginAttempt("1", 1),
-            createLoginAttempt("2", 2),
-            createLoginAttempt("3", 3),
-            createLoginAttempt("4", 4),
-            createLoginAttempt("5", 5),
-            createLoginAttempt("6", 6),
-            createLoginAttempt("7", 7)
+    void dashboard_ShouldUseBoundedRecentLoginsQuery() {
+        List<LoginHistoryView> topLogins = Arrays.asList(
+            toHistory(createLoginAttempt("1", 1)),
+            toHistory(createLoginAttempt("2", 2)),
+            toHistory(createLoginAttempt("3", 3)),
+            toHistory(createLoginAttempt("4", 4)),
+            toHistory(createLoginAttempt("5", 5))
         );
 
         when(authentication.getName()).thenReturn("testuser");
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(loginAttemptService.getSuccessfulLoginAttemptsByUsername("testuser")).thenReturn(manyLogins);
+        when(userService.findProfileByUsername("testuser")).thenReturn(Optional.of(testProfile));
+        when(loginAttemptService.getRecentSuccessfulLogins("testuser")).thenReturn(topLogins);
         when(loginAttemptService.generateSecurityReport()).thenReturn(securityReport);
 
         String result = dashboardController.dashboard(model, authentication);
@@ -116,23 +130,24 @@ class DashboardControllerTest {
         assertEquals("dashboard/index", result);
         verify(model).addAttribute(eq("recentLogins"), argThat(logins -> 
             ((List<?>) logins).size() == 5));
+        verify(loginAttemptService, never()).getSuccessfulLoginAttemptsByUsername(anyString(), any(), any(), anyInt());
     }
 
     @Test
     void profile_ShouldReturnProfilePage_WhenUserExists() {
         when(authentication.getName()).thenReturn("testuser");
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userService.findProfileByUsername("testuser")).thenReturn(Optional.of(testProfile));
 
         String result = dashboardController.profile(model, authentication);
 
         assertEquals("dashboard/profile", result);
-        verify(model).addAttribute("user", testUser);
+        verify(model).addAttribute("user", testProfile);
     }
 
     @Test
     void profile_ShouldThrowException_WhenUserNotFound() {
         when(authentication.getName()).thenReturn("nonexistent");
-        when(userService.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userService.findProfileByUsername("nonexistent")).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> 
             dashboardController.profile(model, authentication));
@@ -146,4 +161,22 @@ class DashboardControllerTest {
         attempt.setAttemptTime(LocalDateTime.now().minusHours(hoursAgo));
         return attempt;
     }
+
+    private LoginHistoryView toHistory(LoginAttempt attempt) {
+        return projectionFactory.createProjection(LoginHistoryView.class, attempt);
+    }
+
+    @Test
+    void userProfileView_ShouldExposeFlagsWithoutPassword() {
+        testUser.setPassword("$2a$12$hash");
+        testUser.setAccountNonLocked(false);
+        testUser.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+
+        UserProfileView profile = projectionFactory.createProjection(UserProfileView.class, testUser);
+
+        assertTrue(profile.getIsActive());
+        assertTrue(profile.isUnlocked());
+        assertTrue(Arrays.stream(UserProfileView.class.getMethods())
+            .noneMatch(method -> method.getName().toLowerCase().contains("password")));
+    }
 }
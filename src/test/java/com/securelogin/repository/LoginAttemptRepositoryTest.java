@@ -1,10 +1,13 @@
 package com.securelogin.repository;
 
+import com.securelogin.dto.LoginHistoryView;
 import com.securelogin.entity.LoginAttempt;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
@@ -45,7 +48,7 @@ class LoginAttemptRepositoryTest {
     }
 
     @Test
-    void findByUsernameOrderByAttemptTimeDesc_ShouldReturnAttemptsInDescendingOrder() {
+    void findByUsernameOrderByAttemptTimeDescIdDesc_ShouldReturnAttemptsInDescendingOrder() {
         LoginAttempt olderAttempt = new LoginAttempt();
         olderAttempt.setUsername("testuser");
         olderAttempt.setIpAddress("192.168.1.1");
@@ -56,18 +59,20 @@ class LoginAttemptRepositoryTest {
         loginAttemptRepository.save(successfulAttempt);
         loginAttemptRepository.save(olderAttempt);
 
-        List<LoginAttempt> result = loginAttemptRepository.findByUsernameOrderByAttemptTimeDesc("testuser");
+        List<LoginHistoryView> result = loginAttemptRepository
+            .findByUsernameOrderByAttemptTimeDescIdDesc("testuser", Limit.of(10), LoginHistoryView.class);
 
         assertEquals(2, result.size());
         assertTrue(result.get(0).getAttemptTime().isAfter(result.get(1).getAttemptTime()));
     }
 
     @Test
-    void findByUsernameAndSuccessOrderByAttemptTimeDesc_ShouldReturnSuccessfulAttempts() {
+    void findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc_ShouldReturnSuccessfulAttempts() {
         loginAttemptRepository.save(successfulAttempt);
         loginAttemptRepository.save(failedAttempt);
 
-        List<LoginAttempt> result = loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", true);
+        List<LoginAttempt> result = loginAttemptRepository
+            .findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc("testuser", true, Limit.of(10));
 
         assertEquals(1, result.size());
         assertTrue(result.get(0).isSuccess());
@@ -75,11 +80,12 @@ class LoginAttemptRepositoryTest {
     }
 
     @Test
-    void findByUsernameAndSuccessOrderByAttemptTimeDesc_ShouldReturnFailedAttempts() {
+    void findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc_ShouldReturnFailedAttempts() {
         loginAttemptRepository.save(successfulAttempt);
         loginAttemptRepository.save(failedAttempt);
 
-        List<LoginAttempt> result = loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", false);
+        List<LoginAttempt> result = loginAttemptRepository
+            .findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc("testuser", false, Limit.of(10));
 
         assertEquals(1, result.size());
         assertFalse(result.get(0).isSuccess());
@@ -137,5 +143,30 @@ class LoginAttemptRepositoryTest {
         assertEquals("192.168.1.1", result.get(0).getIpAddress());
         assertFalse(result.get(0).isSuccess());
     }
-}
 
+    @Test
+    void findAttemptsByResultBefore_ShouldPageWithKeysetCursor_WhenAttemptsShareTheSameTime() {
+        LocalDateTime sameTime = LocalDateTime.now().minusHours(1).withNano(0);
+        for (int i = 1; i <= 7; i++) {
+            LoginAttempt attempt = new LoginAttempt();
+            attempt.setUsername("testuser");
+            attempt.setIpAddress("192.168.1.1");
+            attempt.setSuccess(true);
+            // Lote gravado no mesmo instante: só o id distingue as tentativas
+            attempt.setAttemptTime(i <= 4 ? sameTime : sameTime.minusHours(i));
+            loginAttemptRepository.save(attempt);
+        }
+
+        List<LoginHistoryView> firstPage = loginAttemptRepository
+            .findTop5ByUsernameAndSuccessOrderByAttemptTimeDescIdDesc("testuser", true, LoginHistoryView.class)
+            .subList(0, 3);
+        LoginHistoryView last = firstPage.get(firstPage.size() - 1);
+        List<LoginAttempt> secondPage = loginAttemptRepository.findAttemptsByResultBefore(
+            "testuser", true, last.getAttemptTime(), new ObjectId(last.getId()), Limit.of(5));
+
+        assertEquals(4, secondPage.size());
+        assertEquals(sameTime, secondPage.get(0).getAttemptTime());
+        assertTrue(new ObjectId(secondPage.get(0).getId()).compareTo(new ObjectId(last.getId())) < 0);
+        assertTrue(firstPage.stream().noneMatch(view -> view.getId().equals(secondPage.get(0).getId())));
+    }
+}
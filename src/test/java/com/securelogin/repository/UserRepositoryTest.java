@@ -1,10 +1,15 @@
 package com.securelogin.repository;
 
+import com.securelogin.config.MongoConversionsConfig;
+import com.securelogin.dto.UserLockStatusView;
+import com.securelogin.dto.UserProfileView;
 import com.securelogin.entity.User;
+import com.securelogin.service.RoleSetInterner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
@@ -16,6 +21,7 @@ import java.util.HashSet;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
+@Import({MongoConversionsConfig.class, RoleSetInterner.class})
 @TestPropertySource(properties = {
     "spring.data.mongodb.uri=mongodb://localhost:27017/test-db"
 })
@@ -145,6 +151,7 @@ class UserRepositoryTest {
         assertEquals(1, result.size());
         assertEquals("adminuser", result.get(0).getUsername());
         assertTrue(result.get(0).getRoles().contains("ADMIN"));
+        assertSame(result.get(0).getRoleSet(), userRepository.findByUsername("adminuser").get().getRoleSet());
     }
 
     @Test
@@ -169,4 +176,21 @@ class UserRepositoryTest {
         assertEquals(1, result.size());
         assertEquals("testuser", result.get(0).getUsername());
     }
+
+    @Test
+    void findByUsername_ShouldReadOnlyProjectedFields_WhenProjectionRequested() {
+        testUser.setAccountNonLocked(false);
+        testUser.setLockedUntil(LocalDateTime.now().plusMinutes(10));
+        userRepository.save(testUser);
+
+        Optional<UserProfileView> profile = userRepository.findByUsername("testuser", UserProfileView.class);
+        Optional<UserLockStatusView> lockStatus = userRepository.findByUsername("testuser", UserLockStatusView.class);
+
+        assertTrue(profile.isPresent());
+        assertEquals("test@example.com", profile.get().getEmail());
+        assertTrue(profile.get().getIsActive());
+        assertFalse(profile.get().isUnlocked());
+        assertTrue(lockStatus.isPresent());
+        assertTrue(lockStatus.get().isLocked());
+    }
 }
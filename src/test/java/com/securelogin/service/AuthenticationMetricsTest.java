@@ -0,0 +1,74 @@
+package com.securelogin.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthenticationMetrics authenticationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        authenticationMetrics = new AuthenticationMetrics(meterRegistry);
+    }
+
+    @Test
+    void record_ShouldTimePhaseWithSuccessOutcome_WhenActionCompletes() {
+        String result = authenticationMetrics.record(AuthenticationMetrics.Phase.USER_LOOKUP, () -> "usuario");
+
+        assertEquals("usuario", result);
+        assertEquals(1, phaseTimer("user_lookup", "success").count());
+        assertEquals(0, phaseTimer("user_lookup", "error").count());
+    }
+
+    @Test
+    void record_ShouldTimePhaseWithErrorOutcome_AndRethrow_WhenActionFails() {
+        assertThrows(BadCredentialsException.class, () ->
+            authenticationMetrics.record(AuthenticationMetrics.Phase.PASSWORD, () -> {
+                throw new BadCredentialsException("Credenciais inválidas");
+            }));
+
+        assertEquals(1, phaseTimer("password", "error").count());
+    }
+
+    @Test
+    void countAttempt_ShouldTagFailuresByReason() {
+        authenticationMetrics.countAttempt(false, "invalid_credentials");
+        authenticationMetrics.countAttempt(false, "invalid_credentials");
+        authenticationMetrics.countAttempt(false, "account_locked");
+        authenticationMetrics.countAttempt(true, null);
+
+        assertEquals(2, attempts("failure", "invalid_credentials"));
+        assertEquals(1, attempts("failure", "account_locked"));
+        assertEquals(1, attempts("success", "none"));
+    }
+
+    @Test
+    void phaseTimers_ShouldPublishPercentiles() {
+        authenticationMetrics.record(AuthenticationMetrics.Phase.SESSION, () -> { });
+
+        assertEquals(3, phaseTimer("session", "success").takeSnapshot().percentileValues().length);
+    }
+
+    private Timer phaseTimer(String phase, String outcome) {
+        return meterRegistry.get(AuthenticationMetrics.PHASE_TIMER)
+            .tag("phase", phase)
+            .tag("outcome", outcome)
+            .timer();
+    }
+
+    private double attempts(String result, String reason) {
+        return meterRegistry.get(AuthenticationMetrics.ATTEMPTS_COUNTER)
+            .tag("result", result)
+            .tag("reason", reason)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,152 @@
+package com.securelogin.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.BulkUserJobRequest;
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.entity.User;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUserJobServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private LoginLockoutService loginLockoutService;
+
+    private BulkUserJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getBulkJobs().setChunkSize(2);
+
+        jobService = new BulkUserJobService(mongoTemplate, new RoleRegistry(null, new RoleSetInterner()), principalCache,
+                loginLockoutService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.destroy();
+    }
+
+    @Test
+    void run_ShouldUpdateEachChunkWithSingleUpdateMany() {
+        BulkUserJobRequest request = request(BulkUserJobRequest.Action.UNLOCK);
+        request.setLocked(true);
+        when(mongoTemplate.count(any(Query.class), eq(User.class))).thenReturn(3L);
+        when(mongoTemplate.find(any(Query.class), eq(User.class)))
+                .thenReturn(Arrays.asList(user("a1", "ana"), user("a2", "bruno")))
+                .thenReturn(Collections.singletonList(user("a3", "carla")));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null), UpdateResult.acknowledged(1, 1L, null));
+
+        BulkUserJobService.Job job = runNow(request);
+
+        assertEquals(BulkUserJobService.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertEquals(3, job.getModified());
+        assertEquals(100, job.getProgress());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), update.capture(), eq(User.class));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("lockedUntil"));
+        verify(loginLockoutService).clear("carla");
+        verify(principalCache).invalidate("ana");
+        verify(mongoTemplate, never()).save(any());
+    }
+
+    @Test
+    void run_ShouldPurgeLoginAttemptsOfMatchedUsers() {
+        BulkUserJobRequest request = request(BulkUserJobRequest.Action.PURGE_LOGIN_ATTEMPTS);
+        request.setIds(Arrays.asList("a1", "a2"));
+        when(mongoTemplate.find(any(Query.class), eq(User.class)))
+                .thenReturn(Collections.singletonList(user("a1", "ana")));
+        when(mongoTemplate.remove(any(Query.class), eq(LoginAttempt.class))).thenReturn(DeleteResult.acknowledged(40));
+
+        BulkUserJobService.Job job = runNow(request);
+
+        assertEquals(40, job.getLoginAttemptsDeleted());
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(User.class));
+    }
+
+    @Test
+    void run_ShouldMarkJobFailed_WhenMongoFails() {
+        BulkUserJobRequest request = request(BulkUserJobRequest.Action.DEACTIVATE);
+        request.setRole("USER");
+        when(mongoTemplate.count(any(Query.class), eq(User.class))).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        BulkUserJobService.Job job = runNow(request);
+
+        assertEquals(BulkUserJobService.Status.FAILED, job.getStatus());
+        assertEquals("timeout", job.getFailure());
+        assertTrue(job.isFinished());
+    }
+
+    @Test
+    void toCriteria_ShouldCombineFilters() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        BulkUserJobRequest request = request(BulkUserJobRequest.Action.DEACTIVATE);
+        request.setRole("ROLE_USER");
+        request.setCreatedAfter(now.minusDays(7));
+        request.setCreatedBefore(now);
+
+        Document filter = jobService.toCriteria(request, now).getCriteriaObject();
+
+        List<?> clauses = filter.getList("$and", Object.class);
+        assertEquals(new Document("roles", "USER"), clauses.get(0));
+        assertEquals(new Document("createdAt", new Document("$gt", now.minusDays(7)).append("$lt", now)), clauses.get(1));
+    }
+
+    @Test
+    void submit_ShouldRejectRequestWithoutFilter() {
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(request(BulkUserJobRequest.Action.ACTIVATE)));
+        assertTrue(jobService.findAll().isEmpty());
+    }
+
+    private BulkUserJobService.Job runNow(BulkUserJobRequest request) {
+        Criteria filter = jobService.toCriteria(request, LocalDateTime.now());
+        BulkUserJobService.Job job = new BulkUserJobService.Job("job-1", request);
+        jobService.run(job, filter);
+        return job;
+    }
+
+    private static BulkUserJobRequest request(BulkUserJobRequest.Action action) {
+        BulkUserJobRequest request = new BulkUserJobRequest();
+        request.setAction(action);
+        return request;
+    }
+
+    private static User user(String id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,132 @@
+package com.securelogin.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserLockStatusView;
+import com.securelogin.entity.User;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ExecutableFindOperation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LockExpiryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    private LockExpiryService lockExpiryService;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().getLockExpiry().setTick(Duration.ofSeconds(1));
+        properties.getSecurity().getLockExpiry().setBatchSize(2);
+
+        lockExpiryService = new LockExpiryService(mongoTemplate, principalCache, properties);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void expire_ShouldUnlockDueUsersInBatches() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null), UpdateResult.acknowledged(1, 1L, null));
+        lockExpiryService.schedule("ana", now.plusSeconds(5));
+        lockExpiryService.schedule("bruno", now.plusSeconds(10));
+        lockExpiryService.schedule("carla", now.plusSeconds(10));
+        lockExpiryService.schedule("daniel", now.plusMinutes(30));
+
+        lockExpiryService.expire(millis(now.plusSeconds(4)));
+        verifyNoInteractions(mongoTemplate);
+
+        lockExpiryService.expire(millis(now.plusSeconds(11)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(query.capture(), update.capture(), eq(User.class));
+        Document filter = query.getAllValues().get(0).getQueryObject();
+        assertEquals(Arrays.asList("ana", "bruno"), filter.get("username", Document.class).get("$in"));
+        assertTrue(filter.containsKey("lockedUntil"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("lockedUntil"));
+        verify(principalCache).invalidate("carla");
+        assertEquals(3, lockExpiryService.getStats().getUnlocked());
+        assertEquals(1, lockExpiryService.getStats().getScheduled());
+    }
+
+    @Test
+    void expire_ShouldRetryBatch_WhenUpdateFails() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(User.class)))
+                .thenThrow(new DataAccessResourceFailureException("timeout"))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        lockExpiryService.schedule("ana", now.plusSeconds(1));
+
+        lockExpiryService.expire(millis(now.plusSeconds(2)));
+        assertEquals(1, lockExpiryService.getStats().getScheduled());
+
+        lockExpiryService.expire(millis(now.plusSeconds(3)));
+
+        assertEquals(1, lockExpiryService.getStats().getUnlocked());
+        assertEquals(1, lockExpiryService.getStats().getFailedBatches());
+    }
+
+    @Test
+    void rebuild_ShouldScheduleStoredLocks_IncludingExpiredOnes() {
+        stubLockedUsers(lockedUser("ana", now.minusMinutes(5)), lockedUser("bruno", now.plusMinutes(5)));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        lockExpiryService.rebuild();
+        lockExpiryService.expire(millis(now.plusSeconds(1)));
+
+        verify(principalCache).invalidate("ana");
+        verify(principalCache, never()).invalidate("bruno");
+        assertEquals(1, lockExpiryService.getStats().getScheduled());
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubLockedUsers(UserLockStatusView... users) {
+        ExecutableFindOperation.ExecutableFind<User> find = mock(ExecutableFindOperation.ExecutableFind.class);
+        ExecutableFindOperation.FindWithQuery<UserLockStatusView> projected =
+                mock(ExecutableFindOperation.FindWithQuery.class);
+        ExecutableFindOperation.TerminatingFind<UserLockStatusView> matching =
+                mock(ExecutableFindOperation.TerminatingFind.class);
+        when(mongoTemplate.query(User.class)).thenReturn(find);
+        when(find.as(UserLockStatusView.class)).thenReturn(projected);
+        when(projected.matching(any(Query.class))).thenReturn(matching);
+        when(matching.stream()).thenReturn(Stream.of(users));
+    }
+
+    private static UserLockStatusView lockedUser(String username, LocalDateTime lockedUntil) {
+        UserLockStatusView user = mock(UserLockStatusView.class);
+        when(user.getUsername()).thenReturn(username);
+        when(user.getLockedUntil()).thenReturn(lockedUntil);
+        return user;
+    }
+}
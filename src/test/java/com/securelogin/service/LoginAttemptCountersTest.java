@@ -0,0 +1,142 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.LoginAttempt;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptCountersTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private LoginAttemptCounters loginAttemptCounters;
+
+    @BeforeEach
+    void setUp() {
+        loginAttemptCounters = new LoginAttemptCounters(mongoTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seed_ShouldLoadBucketsFromSingleAggregation() {
+        long now = System.currentTimeMillis();
+        AggregationResults<Document> results = new AggregationResults<>(Arrays.asList(
+                bucket(now - TimeUnit.MINUTES.toMillis(5), true, 7),
+                bucket(now - TimeUnit.HOURS.toMillis(2), false, 3),
+                bucket(now - TimeUnit.HOURS.toMillis(30), false, 100)), new Document());
+        ArgumentCaptor<TypedAggregation<LoginAttempt>> captor = ArgumentCaptor.forClass(TypedAggregation.class);
+        when(mongoTemplate.aggregate(captor.capture(), eq(Document.class))).thenReturn(results);
+
+        loginAttemptCounters.seed();
+
+        assertEquals(7, loginAttemptCounters.getSuccessfulAttempts());
+        assertEquals(3, loginAttemptCounters.getFailedAttempts());
+        assertEquals(LoginAttempt.class, captor.getValue().getInputType());
+        verify(mongoTemplate, times(1)).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    void seed_ShouldKeepEmptyCounters_WhenAggregationFails() {
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenThrow(new RuntimeException("indisponível"));
+
+        loginAttemptCounters.seed();
+        loginAttemptCounters.record(false);
+
+        assertEquals(0, loginAttemptCounters.getSuccessfulAttempts());
+        assertEquals(1, loginAttemptCounters.getFailedAttempts());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_ShouldReplaceRecentMinutes_WithTotalsFromAllNodes() {
+        long now = System.currentTimeMillis();
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(Arrays.asList(
+                        bucket(now, true, 2),
+                        bucket(now - TimeUnit.HOURS.toMillis(3), false, 4)), new Document()))
+                .thenReturn(new AggregationResults<>(Arrays.asList(
+                        bucket(now, true, 5)), new Document()));
+        loginAttemptCounters.seed();
+        loginAttemptCounters.record(true);
+        assertEquals(3, loginAttemptCounters.getSuccessfulAttempts());
+
+        // Outro nó gravou mais duas tentativas no mesmo minuto
+        loginAttemptCounters.refresh();
+
+        assertEquals(5, loginAttemptCounters.getSuccessfulAttempts());
+        assertEquals(4, loginAttemptCounters.getFailedAttempts());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_ShouldSeedAgain_WhenFirstLoadFailed() {
+        long now = System.currentTimeMillis();
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenThrow(new RuntimeException("indisponível"))
+                .thenReturn(new AggregationResults<>(Arrays.asList(
+                        bucket(now - TimeUnit.HOURS.toMillis(20), false, 6)), new Document()));
+        loginAttemptCounters.seed();
+
+        loginAttemptCounters.refresh();
+
+        assertEquals(6, loginAttemptCounters.getFailedAttempts());
+    }
+
+    @Test
+    void record_ShouldCountSuccessesAndFailuresSeparately() {
+        loginAttemptCounters.record(true);
+        loginAttemptCounters.record(true);
+        loginAttemptCounters.record(false);
+
+        assertEquals(2, loginAttemptCounters.getSuccessfulAttempts());
+        assertEquals(1, loginAttemptCounters.getFailedAttempts());
+    }
+
+    @Test
+    void slidingWindowCounter_ShouldIgnoreAdditionsToStaleMinutes() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(LoginAttemptCounters.WINDOW_MINUTES);
+        long minute = 30_000_000L;
+
+        counter.add(minute, 4);
+        counter.add(minute - LoginAttemptCounters.WINDOW_MINUTES, 9);
+
+        assertEquals(4, counter.sum(minute));
+    }
+
+    @Test
+    void slidingWindowCounter_ShouldReplaceCount_WhenSet() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(LoginAttemptCounters.WINDOW_MINUTES);
+        long minute = 30_000_000L;
+
+        counter.add(minute, 4);
+        counter.set(minute, 9);
+        counter.set(minute - LoginAttemptCounters.WINDOW_MINUTES, 1);
+
+        assertEquals(9, counter.sum(minute));
+    }
+
+    private static Document bucket(long millis, boolean success, int count) {
+        Date minute = new Date(TimeUnit.MINUTES.toMillis(TimeUnit.MILLISECONDS.toMinutes(millis)));
+        return new Document("_id", new Document("minute", minute).append("success", success))
+                .append("count", count);
+    }
+}
@@ -0,0 +1,127 @@
+package com.securelogin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securelogin.dto.LoginAttemptExportRequest;
+import com.securelogin.entity.LoginAttempt;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.securelogin.service.LoginAttemptExportService.firstIdAt;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptExportServiceTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 3, 10, 14, 30);
+    private static final Instant NOW = Instant.parse("2024-03-11T00:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private LoginAttemptExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new LoginAttemptExportService(mongoTemplate, objectMapper, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void export_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(LoginAttempt.class))).thenReturn(Stream.of(
+                attempt("a1", "ana", true), attempt("a2", "bruno", false)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(new Query(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n", -1);
+        assertEquals(2, count);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        LoginAttempt second = objectMapper.readValue(lines[1], LoginAttempt.class);
+        assertEquals("bruno", second.getUsername());
+        assertEquals(TIME, second.getAttemptTime());
+    }
+
+    @Test
+    void toQuery_ShouldCombineFilters_AndSortByIdBeforeSettleWindow() {
+        LoginAttemptExportRequest request = new LoginAttemptExportRequest();
+        request.setFrom(TIME.minusDays(1));
+        request.setIpAddress("10.0.0.1");
+        request.setLimit(500);
+
+        Query query = exportService.toQuery(request);
+
+        List<?> clauses = query.getQueryObject().getList("$and", Object.class);
+        Instant from = TIME.minusDays(1).toInstant(ZoneOffset.UTC);
+        assertEquals(new Document("id", new Document("$lt", firstIdAt(NOW.minus(LoginAttemptExportService.SETTLE_WINDOW)))
+                .append("$gte", firstIdAt(from))), clauses.get(0));
+        assertEquals(new Document("attemptTime", new Document("$gte", TIME.minusDays(1))), clauses.get(1));
+        assertEquals(new Document("ipAddress", "10.0.0.1"), clauses.get(2));
+        assertEquals(new Document("id", 1), query.getSortObject());
+        assertEquals("_id_", query.getHint());
+        assertEquals(500, query.getLimit());
+    }
+
+    @Test
+    void toQuery_ShouldResumeAfterTokenId_WithoutLookingItUp() {
+        ObjectId token = new ObjectId();
+        LoginAttemptExportRequest request = new LoginAttemptExportRequest();
+        request.setFrom(TIME);
+        request.setAfter(token.toHexString());
+
+        Document filter = exportService.toQuery(request).getQueryObject();
+
+        Document id = ((Document) filter.getList("$and", Object.class).get(0)).get("id", Document.class);
+        assertEquals(token, id.get("$gt"));
+        assertFalse(id.containsKey("$gte"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void toQuery_ShouldRejectInvalidToken() {
+        LoginAttemptExportRequest request = new LoginAttemptExportRequest();
+        request.setAfter("nao-e-um-id");
+
+        assertThrows(IllegalArgumentException.class, () -> exportService.toQuery(request));
+    }
+
+    @Test
+    void firstIdAt_ShouldBeLowestObjectIdOfThatSecond() {
+        Instant instant = Instant.parse("2024-03-10T14:30:00Z");
+
+        ObjectId first = firstIdAt(instant);
+
+        assertEquals(instant, first.getDate().toInstant());
+        assertTrue(first.compareTo(new ObjectId(Date.from(instant))) <= 0);
+        assertTrue(first.compareTo(firstIdAt(instant.minusSeconds(1))) > 0);
+    }
+
+    private static LoginAttempt attempt(String id, String username, boolean success) {
+        LoginAttempt attempt = new LoginAttempt(username, "10.0.0.1", success, "JUnit");
+        attempt.setId(id);
+        attempt.setAttemptTime(TIME);
+        return attempt;
+    }
+}
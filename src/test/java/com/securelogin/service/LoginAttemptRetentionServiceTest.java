@@ -0,0 +1,164 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptRetentionServiceTest {
+
+    private static final Instant HOUR = Instant.parse("2024-03-10T14:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @TempDir
+    Path archiveDirectory;
+
+    private AppProperties properties;
+
+    private LoginAttemptRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties();
+        properties.getAudit().getArchive().setDirectory(archiveDirectory.toString());
+
+        retentionService = new LoginAttemptRetentionService(mongoTemplate, properties);
+    }
+
+    @Test
+    void archive_ShouldWriteHourAsGzipJsonLines_PartitionedByDate() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("login_attempts"))).thenReturn(Stream.of(
+                new Document("username", "ana").append("success", true),
+                new Document("username", "bruno").append("success", false)));
+
+        retentionService.archive(HOUR);
+        retentionService.archive(HOUR);
+
+        Path file = archiveDirectory.resolve("2024-03-10").resolve("login_attempts-14.jsonl.gz");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().collect(Collectors.toList());
+            assertEquals(2, lines.size());
+            assertEquals("bruno", Document.parse(lines.get(1)).getString("username"));
+        }
+        // Horas já arquivadas não são relidas
+        verify(mongoTemplate, times(1)).stream(any(Query.class), eq(Document.class), eq("login_attempts"));
+        assertEquals(2, retentionService.getStats().getArchivedAttempts());
+    }
+
+    @Test
+    void archive_ShouldNotCreateFile_WhenHourHasNoAttempts() {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("login_attempts"))).thenReturn(Stream.empty());
+
+        retentionService.archive(HOUR);
+
+        assertFalse(Files.exists(archiveDirectory.resolve("2024-03-10").resolve("login_attempts-14.jsonl.gz")));
+        assertFalse(Files.exists(archiveDirectory.resolve("2024-03-10").resolve("login_attempts-14.jsonl.gz.part")));
+    }
+
+    @Test
+    void run_ShouldResumeFromSavedState_AndArchiveOnlyHoursCloseToExpiry() {
+        properties.getAudit().setRetention(Duration.ofHours(6));
+        properties.getAudit().getArchive().setLead(Duration.ofHours(1));
+        LoginAttemptRetentionService service = spy(retentionService);
+        doNothing().when(service).rollup(any(Instant.class));
+        doNothing().when(service).archive(any(Instant.class));
+        when(mongoTemplate.findById("login_attempts", Document.class, "audit_retention_state")).thenReturn(
+                new Document("_id", "login_attempts")
+                        .append("rolled_up_until", Date.from(HOUR.minus(2, ChronoUnit.HOURS)))
+                        .append("archived_until", Date.from(HOUR.minus(8, ChronoUnit.HOURS))));
+        when(mongoTemplate.indexOps("login_attempts")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(Collections.emptyList());
+
+        service.run(HOUR.plus(10, ChronoUnit.MINUTES));
+
+        verify(service).rollup(HOUR.minus(2, ChronoUnit.HOURS));
+        verify(service).rollup(HOUR.minus(1, ChronoUnit.HOURS));
+        verify(service, never()).rollup(HOUR);
+        // Expiram na próxima hora: tentativas anteriores a HOUR - 5h
+        verify(service, times(3)).archive(any(Instant.class));
+        verify(service).archive(HOUR.minus(6, ChronoUnit.HOURS));
+
+        ArgumentCaptor<Document> state = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate, times(5)).save(state.capture(), eq("audit_retention_state"));
+        assertEquals(Date.from(HOUR), state.getValue().getDate("rolled_up_until"));
+        assertEquals(Date.from(HOUR.minus(5, ChronoUnit.HOURS)), state.getValue().getDate("archived_until"));
+
+        // Arquivado só até HOUR - 5h: o TTL cobre o atraso até a próxima execução, não a retenção
+        ArgumentCaptor<IndexDefinition> ttl = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps).ensureIndex(ttl.capture());
+        assertEquals(Duration.ofHours(7).getSeconds(), ttl.getValue().getIndexOptions().get("expireAfterSeconds"));
+    }
+
+    @Test
+    void run_ShouldLowerTtlToRetention_OnlyOnceArchivePassedHorizon() {
+        properties.getAudit().setRetention(Duration.ofHours(6));
+        properties.getAudit().getArchive().setLead(Duration.ofHours(1));
+        when(mongoTemplate.findById("login_attempts", Document.class, "audit_retention_state")).thenReturn(
+                new Document("_id", "login_attempts")
+                        .append("rolled_up_until", Date.from(HOUR))
+                        .append("archived_until", Date.from(HOUR.minus(4, ChronoUnit.HOURS))));
+        when(mongoTemplate.indexOps("login_attempts")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(Collections.singletonList(IndexInfo.indexInfoOf(
+                new Document("name", "attempt_time_1")
+                        .append("key", new Document("attempt_time", 1))
+                        .append("expireAfterSeconds", Duration.ofHours(7).getSeconds()))));
+
+        retentionService.run(HOUR.plus(10, ChronoUnit.MINUTES));
+
+        verify(mongoTemplate).executeCommand(new Document("collMod", "login_attempts")
+                .append("index", new Document("name", "attempt_time_1")
+                        .append("expireAfterSeconds", Duration.ofHours(6).getSeconds())));
+        assertEquals(6, retentionService.getStats().getExpireAfterHours());
+    }
+
+    @Test
+    void run_ShouldSkip_WhenAnotherNodeHoldsTheLease() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("audit_retention_state")))
+                .thenThrow(new DuplicateKeyException("login_attempts_lease"));
+
+        retentionService.run(HOUR);
+
+        verify(mongoTemplate, never()).findById(any(), any(), any());
+        verify(mongoTemplate, never()).indexOps(anyString());
+        assertFalse(retentionService.getStats().isLeader());
+    }
+}
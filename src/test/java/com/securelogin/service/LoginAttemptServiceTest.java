@@ -1,13 +1,18 @@
 package com.securelogin.service;
 
+import com.securelogin.dto.LoginHistoryView;
 import com.securelogin.entity.LoginAttempt;
 import com.securelogin.repository.LoginAttemptRepository;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -15,6 +20,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +30,12 @@ class LoginAttemptServiceTest {
     @Mock
     private LoginAttemptRepository loginAttemptRepository;
 
+    @Mock
+    private LoginAttemptWriter loginAttemptWriter;
+
+    @Spy
+    private LoginAttemptCounters loginAttemptCounters = new LoginAttemptCounters(null);
+
     @InjectMocks
     private LoginAttemptService loginAttemptService;
 
@@ -51,47 +63,86 @@ class LoginAttemptServiceTest {
     }
 
     @Test
-    void recordLoginAttempt_ShouldSaveAttempt_WhenValidData() {
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenReturn(successfulAttempt);
-
+    void recordLoginAttempt_ShouldSubmitAttempt_WhenValidData() {
         loginAttemptService.recordLoginAttempt("testuser", "192.168.1.1", true, "Mozilla/5.0");
 
-        verify(loginAttemptRepository).save(any(LoginAttempt.class));
+        verify(loginAttemptWriter).submit(any(LoginAttempt.class));
+        verify(loginAttemptRepository, never()).save(any(LoginAttempt.class));
     }
 
     @Test
-    void recordLoginAttempt_ShouldSaveAttemptWithFailureReason_WhenProvided() {
-        when(loginAttemptRepository.save(any(LoginAttempt.class))).thenReturn(failedAttempt);
+    void recordLoginAttempt_ShouldSubmitAttemptWithFailureReason_WhenProvided() {
+        ArgumentCaptor<LoginAttempt> captor = ArgumentCaptor.forClass(LoginAttempt.class);
 
         loginAttemptService.recordLoginAttempt("testuser", "192.168.1.1", false, "Mozilla/5.0", "Invalid credentials");
 
-        verify(loginAttemptRepository).save(any(LoginAttempt.class));
+        verify(loginAttemptWriter).submit(captor.capture());
+        assertFalse(captor.getValue().isSuccess());
+        assertEquals("Invalid credentials", captor.getValue().getFailureReason());
+        verify(loginAttemptRepository, never()).save(any(LoginAttempt.class));
     }
 
     @Test
-    void getSuccessfulLoginAttemptsByUsername_ShouldReturnSuccessfulAttempts() {
+    void getSuccessfulLoginAttemptsByUsername_ShouldReturnFirstPage_WhenNoCursor() {
         List<LoginAttempt> attempts = Arrays.asList(successfulAttempt);
-        when(loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", true))
+        when(loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc("testuser", true, Limit.of(20)))
             .thenReturn(attempts);
 
-        List<LoginAttempt> result = loginAttemptService.getSuccessfulLoginAttemptsByUsername("testuser");
+        List<LoginAttempt> result = loginAttemptService.getSuccessfulLoginAttemptsByUsername("testuser", null, null, 20);
 
         assertEquals(1, result.size());
         assertTrue(result.get(0).isSuccess());
-        verify(loginAttemptRepository).findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", true);
     }
 
     @Test
-    void getFailedLoginAttemptsByUsername_ShouldReturnFailedAttempts() {
-        List<LoginAttempt> attempts = Arrays.asList(failedAttempt);
-        when(loginAttemptRepository.findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", false))
-            .thenReturn(attempts);
+    void getRecentSuccessfulLogins_ShouldUseTopFiveQuery() {
+        LoginHistoryView view = mock(LoginHistoryView.class);
+        when(loginAttemptRepository.findTop5ByUsernameAndSuccessOrderByAttemptTimeDescIdDesc("testuser", true, LoginHistoryView.class))
+            .thenReturn(Arrays.asList(view));
 
-        List<LoginAttempt> result = loginAttemptService.getFailedLoginAttemptsByUsername("testuser");
+        List<LoginHistoryView> result = loginAttemptService.getRecentSuccessfulLogins("testuser");
 
         assertEquals(1, result.size());
-        assertFalse(result.get(0).isSuccess());
-        verify(loginAttemptRepository).findByUsernameAndSuccessOrderByAttemptTimeDesc("testuser", false);
+        verify(loginAttemptRepository, never()).findByUsernameAndSuccessOrderByAttemptTimeDescIdDesc(
+            anyString(), anyBoolean(), any(Limit.class));
+    }
+
+    @Test
+    void getLoginHistory_ShouldPushLimitDown_WhenFirstPage() {
+        LoginHistoryView view = mock(LoginHistoryView.class);
+        when(loginAttemptRepository.findByUsernameOrderByAttemptTimeDescIdDesc("testuser", Limit.of(20), LoginHistoryView.class))
+            .thenReturn(Arrays.asList(view, view));
+
+        List<LoginHistoryView> result = loginAttemptService.getLoginHistory("testuser", null, null, 20);
+
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void getFailedLoginAttemptsByUsername_ShouldUseKeysetCursor_WhenBeforeProvided() {
+        LocalDateTime before = LocalDateTime.now().minusDays(1);
+        ObjectId beforeId = new ObjectId();
+        when(loginAttemptRepository.findAttemptsByResultBefore(
+                "testuser", false, before, beforeId, Limit.of(LoginAttemptService.MAX_PAGE_SIZE)))
+            .thenReturn(Arrays.asList(failedAttempt));
+
+        List<LoginAttempt> result = loginAttemptService.getFailedLoginAttemptsByUsername(
+            "testuser", before, beforeId.toHexString(), 10_000);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getLoginHistory_ShouldRejectCursorWithoutId() {
+        assertThrows(IllegalArgumentException.class,
+            () -> loginAttemptService.getLoginHistory("testuser", LocalDateTime.now(), null, 20));
+        verifyNoInteractions(loginAttemptRepository);
+    }
+
+    @Test
+    void getLoginHistory_ShouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class,
+            () -> loginAttemptService.getLoginHistory("testuser", null, null, 0));
     }
 
     @Test
@@ -109,11 +160,8 @@ class LoginAttemptServiceTest {
 
     @Test
     void generateSecurityReport_ShouldReturnCorrectReport() {
-        List<LoginAttempt> allAttempts = Arrays.asList(successfulAttempt, failedAttempt);
-        List<LoginAttempt> failedAttempts = Arrays.asList(failedAttempt);
-
-        when(loginAttemptRepository.findRecentAttempts(any(LocalDateTime.class))).thenReturn(allAttempts);
-        when(loginAttemptRepository.findFailedAttemptsSince(any(LocalDateTime.class))).thenReturn(failedAttempts);
+        loginAttemptService.recordLoginAttempt("testuser", "192.168.1.1", true, "Mozilla/5.0");
+        loginAttemptService.recordLoginAttempt("testuser", "192.168.1.1", false, "Mozilla/5.0", "Invalid credentials");
 
         LoginAttemptService.SecurityReport report = loginAttemptService.generateSecurityReport();
 
@@ -123,13 +171,12 @@ class LoginAttemptServiceTest {
         assertEquals(1, report.getFailedAttempts());
         assertEquals(50.0, report.getSuccessRate(), 0.1);
         assertEquals(50.0, report.getFailureRate(), 0.1);
+        verify(loginAttemptRepository, never()).findRecentAttempts(any(LocalDateTime.class));
+        verify(loginAttemptRepository, never()).findFailedAttemptsSince(any(LocalDateTime.class));
     }
 
     @Test
     void generateSecurityReport_ShouldHandleEmptyAttempts() {
-        when(loginAttemptRepository.findRecentAttempts(any(LocalDateTime.class))).thenReturn(Arrays.asList());
-        when(loginAttemptRepository.findFailedAttemptsSince(any(LocalDateTime.class))).thenReturn(Arrays.asList());
-
         LoginAttemptService.SecurityReport report = loginAttemptService.generateSecurityReport();
 
         assertNotNull(report);
@@ -0,0 +1,110 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.entity.LoginAttempt;
+import com.securelogin.repository.LoginAttemptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptWriterTest {
+
+    @Mock
+    private LoginAttemptRepository loginAttemptRepository;
+
+    private LoginAttemptWriter loginAttemptWriter;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getAudit().setQueueCapacity(3);
+        properties.getAudit().setBatchSize(2);
+        properties.getAudit().setFlushInterval(Duration.ofMillis(50));
+        properties.getAudit().setOfferTimeout(Duration.ofMillis(1));
+
+        loginAttemptWriter = new LoginAttemptWriter(loginAttemptRepository, properties);
+    }
+
+    @Test
+    void submit_ShouldDropAttempt_WhenQueueIsFull() {
+        assertTrue(loginAttemptWriter.submit(attempt("user1")));
+        assertTrue(loginAttemptWriter.submit(attempt("user2")));
+        assertTrue(loginAttemptWriter.submit(attempt("user3")));
+
+        assertFalse(loginAttemptWriter.submit(attempt("user4")));
+
+        LoginAttemptWriter.Stats stats = loginAttemptWriter.getStats();
+        assertEquals(3, stats.getQueueDepth());
+        assertEquals(3, stats.getAccepted());
+        assertEquals(1, stats.getDropped());
+        verifyNoInteractions(loginAttemptRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_ShouldWriteQueuedAttemptsInBatches_WhenWriterStops() {
+        List<Integer> batchSizes = new ArrayList<>();
+        ArgumentCaptor<List<LoginAttempt>> captor = ArgumentCaptor.forClass(List.class);
+        when(loginAttemptRepository.insert(captor.capture())).thenAnswer(invocation -> {
+            batchSizes.add(((List<LoginAttempt>) invocation.getArgument(0)).size());
+            return invocation.getArgument(0);
+        });
+
+        loginAttemptWriter.submit(attempt("user1"));
+        loginAttemptWriter.submit(attempt("user2"));
+        loginAttemptWriter.submit(attempt("user3"));
+
+        loginAttemptWriter.start();
+        loginAttemptWriter.stop();
+
+        LoginAttemptWriter.Stats stats = loginAttemptWriter.getStats();
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(3, stats.getWritten());
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 2));
+        assertFalse(loginAttemptWriter.isRunning());
+    }
+
+    @Test
+    void stop_ShouldCountFailedAttempts_WhenInsertFails() {
+        when(loginAttemptRepository.insert(anyList())).thenThrow(new RuntimeException("indisponível"));
+
+        loginAttemptWriter.submit(attempt("user1"));
+
+        loginAttemptWriter.start();
+        loginAttemptWriter.stop();
+
+        assertEquals(1, loginAttemptWriter.getStats().getFailed());
+        assertEquals(0, loginAttemptWriter.getStats().getWritten());
+    }
+
+    @Test
+    void submit_ShouldWriteInCallerThread_AfterWriterStopped() {
+        loginAttemptWriter.start();
+        loginAttemptWriter.stop();
+
+        assertTrue(loginAttemptWriter.submit(attempt("atrasado")));
+
+        verify(loginAttemptRepository).insert(anyList());
+        assertEquals(1, loginAttemptWriter.getStats().getWritten());
+        // Para depois da parada do servidor web, cuja fase é a do encerramento gracioso - 1024
+        assertTrue(loginAttemptWriter.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private LoginAttempt attempt(String username) {
+        return new LoginAttempt(username, "192.168.1.1", false, "Mozilla/5.0");
+    }
+}
@@ -0,0 +1,156 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.entity.User;
+import com.securelogin.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginLockoutServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    @Mock
+    private LockExpiryService lockExpiryService;
+
+    private LoginLockoutService loginLockoutService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().setMaxLoginAttempts(3);
+        properties.getSecurity().setMaxIpAttempts(5);
+        properties.getSecurity().setLockTimeMinutes(30);
+        properties.getSecurity().setFailureWindowMinutes(15);
+
+        loginLockoutService = new LoginLockoutService(properties, userRepository, principalCache, usernameFilter,
+                lockExpiryService);
+    }
+
+    @Test
+    void recordFailure_ShouldLockAndPersist_WhenUsernameReachesMaxAttempts() {
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+        when(userRepository.lockByUsername(eq("testuser"), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1L);
+
+        loginLockoutService.recordFailure("testuser", "10.0.0.1");
+        loginLockoutService.recordFailure("testuser", "10.0.0.2");
+        assertFalse(loginLockoutService.isLocked("testuser", "10.0.0.3"));
+
+        loginLockoutService.recordFailure("testuser", "10.0.0.3");
+
+        assertTrue(loginLockoutService.isLocked("testuser", "10.0.0.4"));
+        verify(userRepository).lockByUsername(eq("testuser"), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(lockExpiryService).schedule(eq("testuser"), any(LocalDateTime.class));
+        verify(principalCache).invalidate("testuser");
+    }
+
+    @Test
+    void recordFailure_ShouldPersistLockOnlyOnce() {
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+
+        for (int i = 0; i < 6; i++) {
+            loginLockoutService.recordFailure("testuser", null);
+        }
+
+        verify(userRepository, times(1)).lockByUsername(eq("testuser"), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void recordFailure_ShouldLockUnknownUsernameOnlyInMemory() {
+        when(usernameFilter.mightContain("ghost")).thenReturn(false);
+
+        for (int i = 0; i < 3; i++) {
+            loginLockoutService.recordFailure("ghost", null);
+        }
+
+        assertTrue(loginLockoutService.isLocked("ghost", null));
+        verify(userRepository, never()).lockByUsername(anyString(), any(), any());
+    }
+
+    @Test
+    void recordFailure_ShouldLockIp_WhenIpReachesMaxAttempts() {
+        for (int i = 0; i < 5; i++) {
+            loginLockoutService.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        assertTrue(loginLockoutService.isLocked("anotheruser", "10.0.0.1"));
+        assertFalse(loginLockoutService.isLocked("anotheruser", "10.0.0.2"));
+    }
+
+    @Test
+    void recordSuccess_ShouldResetUsernameFailures() {
+        loginLockoutService.recordFailure("testuser", null);
+        loginLockoutService.recordFailure("testuser", null);
+
+        loginLockoutService.recordSuccess("testuser");
+        loginLockoutService.recordFailure("testuser", null);
+
+        assertFalse(loginLockoutService.isLocked("testuser", null));
+    }
+
+    @Test
+    void clear_ShouldReleaseLockedUsername() {
+        for (int i = 0; i < 3; i++) {
+            loginLockoutService.recordFailure("testuser", null);
+        }
+
+        loginLockoutService.clear("testuser");
+
+        assertFalse(loginLockoutService.isLocked("testuser", null));
+    }
+
+    @Test
+    void getRemainingAttempts_ShouldDecreaseWithFailures_AndResetOnSuccess() {
+        assertEquals(3, loginLockoutService.getRemainingAttempts("testuser"));
+
+        loginLockoutService.recordFailure("testuser", null);
+        loginLockoutService.recordFailure("testuser", null);
+        assertEquals(1, loginLockoutService.getRemainingAttempts("testuser"));
+
+        loginLockoutService.recordSuccess("testuser");
+        assertEquals(3, loginLockoutService.getRemainingAttempts("testuser"));
+    }
+
+    @Test
+    void slidingWindowCounter_ShouldForgetFailuresOutsideWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(15);
+
+        counter.increment(1000);
+        counter.increment(1000);
+        counter.increment(1010);
+
+        assertEquals(3, counter.sum(1010));
+        assertEquals(1, counter.sum(1015));
+        assertEquals(0, counter.sum(1025));
+    }
+
+    @Test
+    void user_ShouldBeNonLocked_WhenLockedUntilHasPassed() {
+        User user = new User();
+        user.setAccountNonLocked(false);
+        user.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+        assertTrue(user.isAccountNonLocked());
+
+        user.setLockedUntil(LocalDateTime.now().plusMinutes(1));
+        assertFalse(user.isAccountNonLocked());
+    }
+}
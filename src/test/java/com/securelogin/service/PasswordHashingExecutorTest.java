@@ -0,0 +1,126 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().getHashing().setPoolSize(1);
+        properties.getSecurity().getHashing().setQueueCapacity(1);
+        properties.getSecurity().getHashing().setDeadline(Duration.ofMillis(500));
+
+        executor = new PasswordHashingExecutor(properties);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void execute_ShouldReturnResult_WhenPoolIsIdle() {
+        String result = executor.execute(() -> "hash");
+
+        assertEquals("hash", result);
+        assertEquals(1, executor.getStats().getCompleted());
+    }
+
+    @Test
+    void execute_ShouldRejectImmediately_WhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> executor.execute(() -> true));
+        waitForQueueDepth(1);
+
+        PasswordHashingExecutor.HashingRejectedException exception = assertThrows(
+                PasswordHashingExecutor.HashingRejectedException.class,
+                () -> executor.execute(() -> true));
+
+        assertEquals(PasswordHashingExecutor.Reason.QUEUE_FULL, exception.getReason());
+        assertEquals(1, executor.getStats().getRejected());
+    }
+
+    @Test
+    void execute_ShouldRejectAndFreeQueueSlot_WhenDeadlineExpires() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+
+        PasswordHashingExecutor.HashingRejectedException exception = assertThrows(
+                PasswordHashingExecutor.HashingRejectedException.class,
+                () -> executor.execute(() -> true));
+
+        assertEquals(PasswordHashingExecutor.Reason.DEADLINE_EXCEEDED, exception.getReason());
+        assertEquals(0, executor.getStats().getQueueDepth());
+        assertTrue(executor.getStats().getTimedOut() >= 1);
+    }
+
+    @Test
+    void execute_ShouldPropagateTaskException() {
+        assertThrows(IllegalArgumentException.class, () ->
+            executor.execute(() -> { throw new IllegalArgumentException("hash inválido"); }));
+    }
+
+    @Test
+    void submit_ShouldCompleteWithoutBlockingCaller() throws Exception {
+        CompletableFuture<String> result = executor.submit(() -> "hash");
+
+        assertEquals("hash", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, executor.getStats().getCompleted());
+        // O prazo é cancelado pela thread que completou o futuro, logo após o resultado
+        long deadline = System.currentTimeMillis() + 1000;
+        while (executor.pendingDeadlines() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.pendingDeadlines());
+    }
+
+    @Test
+    void submit_ShouldFailAndFreeQueueSlot_WhenDeadlineExpires() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        executor.submit(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> queued = executor.submit(() -> true);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+
+        assertEquals(PasswordHashingExecutor.Reason.DEADLINE_EXCEEDED,
+                ((PasswordHashingExecutor.HashingRejectedException) exception.getCause()).getReason());
+        assertEquals(0, executor.getStats().getQueueDepth());
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (executor.getStats().getQueueDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
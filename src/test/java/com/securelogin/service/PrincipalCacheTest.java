@@ -0,0 +1,71 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private PrincipalCache principalCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(100, Duration.ofMinutes(5));
+        testUser = new User();
+        testUser.setUsername("testuser");
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndServeFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        principalCache.get("testuser", username -> {
+            loads.incrementAndGet();
+            return Optional.of(testUser);
+        });
+        Optional<User> cached = principalCache.get("testuser", username -> {
+            loads.incrementAndGet();
+            return Optional.of(testUser);
+        });
+
+        assertSame(testUser, cached.get());
+        assertEquals(1, loads.get());
+        assertEquals(1, principalCache.getStats().getHits());
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingUser() {
+        assertFalse(principalCache.get("ghost", username -> Optional.empty()).isPresent());
+        assertEquals(0, principalCache.getStats().getSize());
+    }
+
+    @Test
+    void get_ShouldDiscardLoadedValue_WhenInvalidatedDuringLoad() {
+        Optional<User> loaded = principalCache.get("testuser", username -> {
+            principalCache.invalidate(username);
+            return Optional.of(testUser);
+        });
+
+        assertTrue(loaded.isPresent());
+        assertEquals(0, principalCache.getStats().getSize());
+    }
+
+    @Test
+    void invalidateById_ShouldEvictCachedUserWithThatId() {
+        testUser.setId("65f0c0ffee0000000000abcd");
+        principalCache.get("testuser", username -> Optional.of(testUser));
+
+        principalCache.invalidateById("65f0c0ffee00000000000000");
+        assertEquals(1, principalCache.getStats().getSize());
+
+        principalCache.invalidateById("65f0c0ffee0000000000abcd");
+        assertEquals(0, principalCache.getStats().getSize());
+    }
+}
@@ -0,0 +1,127 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.BoundedPasswordEncoder;
+import com.securelogin.entity.User;
+import com.securelogin.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Spy
+    private UsernameBloomFilter usernameFilter = new UsernameBloomFilter(new AppProperties(), null);
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId("1");
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password123");
+        testUser.setFullName("Test User");
+        testUser.setActive(true);
+        testUser.setRoles(new HashSet<>(Arrays.asList("USER")));
+    }
+
+    @Test
+    void findByUsername_ShouldReturnUser_WhenUserExistsAndIsActive() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+
+        StepVerifier.create(userService.findByUsername("testuser"))
+                .expectNext(testUser)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByUsername_ShouldBeEmpty_WhenUserIsInactive() {
+        testUser.setActive(false);
+        when(userRepository.findByUsername("testuser")).thenReturn(Mono.just(testUser));
+
+        StepVerifier.create(userService.findByUsername("testuser"))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByUsername_ShouldSkipDatabase_WhenFilterRejectsUsername() {
+        doReturn(false).when(usernameFilter).mightContain("ghost");
+
+        StepVerifier.create(userService.findByUsername("ghost"))
+                .verifyComplete();
+
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void createUser_ShouldEncodePasswordOnHashingPool_AndRegisterUsername() {
+        when(userRepository.existsByUsername("testuser")).thenReturn(Mono.just(false));
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+        when(passwordEncoder.encodeAsync("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}hash"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(userService.createUser(testUser))
+                .assertNext(saved -> {
+                    assertEquals("{bcrypt}hash", saved.getPassword());
+                    assertNotNull(saved.getCreatedAt());
+                })
+                .verifyComplete();
+
+        verify(usernameFilter).put("testuser");
+    }
+
+    @Test
+    void createUser_ShouldFail_WhenUsernameAlreadyExists() {
+        when(userRepository.existsByUsername("testuser")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(userService.createUser(testUser))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().equals("Nome de usuário já existe: testuser"))
+                .verify();
+
+        verify(passwordEncoder, never()).encodeAsync(any());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void updatePassword_ShouldUpdateOnlyPasswordField() {
+        when(userRepository.updatePasswordByUsername(eq("testuser"), eq("{bcrypt}novo"), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(1L));
+
+        StepVerifier.create(userService.updatePassword(testUser, "{bcrypt}novo"))
+                .expectNext(testUser)
+                .verifyComplete();
+
+        assertEquals("{bcrypt}novo", testUser.getPassword());
+        verify(userRepository, never()).save(any(User.class));
+    }
+}
@@ -0,0 +1,115 @@
+package com.securelogin.service;
+
+import com.securelogin.entity.Role;
+import com.securelogin.entity.RoleSet;
+import com.securelogin.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private RoleSetInterner roleSetInterner;
+
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleSetInterner = new RoleSetInterner();
+        roleRegistry = new RoleRegistry(mongoTemplate, roleSetInterner);
+    }
+
+    @Test
+    void intern_ShouldShareInstance_ForSameRoleCombination() {
+        RoleSet first = roleSetInterner.intern(Arrays.asList("ADMIN", "USER"));
+        RoleSet second = roleSetInterner.intern(Arrays.asList("USER", "ADMIN"));
+
+        assertSame(first, second);
+        assertSame(first.getAuthorities(), second.getAuthorities());
+        assertEquals("ROLE_ADMIN", first.getAuthorities().iterator().next().getAuthority());
+        assertEquals(1, roleRegistry.getStats().getInternedCombinations());
+    }
+
+    @Test
+    void getAuthorities_ShouldReuseList_AcrossCalls() {
+        User user = userWithRoles("ADMIN", "USER");
+
+        assertSame(user.getAuthorities(), user.getAuthorities());
+    }
+
+    @Test
+    void setRoles_ShouldReplaceRoleSet() {
+        User user = userWithRoles("USER");
+        RoleSet before = user.getRoleSet();
+
+        user.setRoles(new HashSet<>(Arrays.asList("USER", "MODERATOR")));
+
+        assertNotSame(before, user.getRoleSet());
+        assertTrue(user.getRoleSet().contains("MODERATOR"));
+        assertEquals(new HashSet<>(Arrays.asList("USER", "MODERATOR")), user.getRoles());
+    }
+
+    @Test
+    void resolve_ShouldAcceptAnyRole_BeforeFirstLoad() {
+        assertEquals(Optional.of("AUDITOR"), roleRegistry.resolve("ROLE_AUDITOR"));
+        assertFalse(roleRegistry.getStats().isReady());
+    }
+
+    @Test
+    void resolve_ShouldRejectUndefinedRole_AfterRefresh() {
+        when(mongoTemplate.findAll(Role.class)).thenReturn(Arrays.asList(
+                new Role("ADMIN", "Administrador"), new Role("USER", "Usuário")));
+
+        roleRegistry.refresh();
+
+        assertEquals(Optional.of("ADMIN"), roleRegistry.resolve("ROLE_ADMIN"));
+        assertEquals(Optional.empty(), roleRegistry.resolve("AUDITOR"));
+        assertEquals(2, roleRegistry.getStats().getDefinedRoles());
+    }
+
+    @Test
+    void hasRole_ShouldUseInternedRoleSet() {
+        when(mongoTemplate.findAll(Role.class)).thenReturn(Arrays.asList(
+                new Role("ADMIN", "Administrador"), new Role("USER", "Usuário")));
+        roleRegistry.refresh();
+        User user = userWithRoles("USER");
+
+        assertTrue(roleRegistry.hasRole(user, "USER"));
+        assertFalse(roleRegistry.hasRole(user, "ADMIN"));
+        assertFalse(roleRegistry.hasRole(user, null));
+    }
+
+    @Test
+    void refresh_ShouldKeepPreviousRoles_WhenMongoFails() {
+        when(mongoTemplate.findAll(Role.class))
+                .thenReturn(Arrays.asList(new Role("USER", "Usuário")))
+                .thenThrow(new RuntimeException("timeout"));
+
+        roleRegistry.refresh();
+        roleRegistry.refresh();
+
+        assertTrue(roleRegistry.getRoles().containsKey("USER"));
+        assertEquals(1, roleRegistry.getStats().getFailures());
+    }
+
+    private static User userWithRoles(String... roles) {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setRoles(new HashSet<>(Arrays.asList(roles)));
+        return user;
+    }
+}
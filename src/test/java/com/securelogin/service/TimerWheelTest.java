@@ -0,0 +1,55 @@
+package com.securelogin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void advance_ShouldExpireItemsAtTheirDeadline_AcrossLevels() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000);
+        wheel.schedule("a", 1010);
+        wheel.schedule("b", 1000 + 64 * 64 + 5);
+        wheel.schedule("c", 1000 + 64 * 64 * 64 * 3);
+
+        assertEquals(Collections.emptyList(), advance(wheel, 1009));
+        assertEquals(Collections.singletonList("a"), advance(wheel, 1010));
+        assertEquals(Collections.emptyList(), advance(wheel, 1000 + 64 * 64 + 4));
+        assertEquals(Collections.singletonList("b"), advance(wheel, 1000 + 64 * 64 + 5));
+        assertEquals(Collections.emptyList(), advance(wheel, 1000 + 64 * 64 * 64 * 3 - 1));
+        assertEquals(Collections.singletonList("c"), advance(wheel, 1000 + 64 * 64 * 64 * 3));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldReturnPastDeadlinesImmediately() {
+        TimerWheel<String> wheel = new TimerWheel<>(500);
+        wheel.schedule("vencido", 100);
+        wheel.schedule("agora", 500);
+
+        assertEquals(Arrays.asList("vencido", "agora"), advance(wheel, 500));
+    }
+
+    @Test
+    void advance_ShouldRescheduleDeadlinesBeyondTheLastLevel() {
+        long farAway = (1L << 24) + 100;
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        wheel.schedule("distante", farAway);
+
+        assertEquals(Collections.emptyList(), advance(wheel, farAway - 1));
+        assertEquals(1, wheel.size());
+        assertEquals(Collections.singletonList("distante"), advance(wheel, farAway));
+    }
+
+    private static List<String> advance(TimerWheel<String> wheel, long tick) {
+        List<String> expired = new ArrayList<>();
+        wheel.advance(tick, expired);
+        return expired;
+    }
+}
@@ -0,0 +1,199 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.TokenConfig;
+import com.securelogin.dto.TokenResponse;
+import com.securelogin.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    private TokenService tokenService;
+    private JwtEncoder jwtEncoder;
+    private JwtDecoder accessTokenDecoder;
+    private JwtDecoder refreshTokenDecoder;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        TokenConfig tokenConfig = new TokenConfig();
+        SecretKey key = tokenConfig.tokenSigningKey(properties, new MockEnvironment().withProperty(
+                "spring.profiles.active", TokenConfig.DEV_PROFILE));
+        String issuer = properties.getSecurity().getToken().getIssuer();
+
+        jwtEncoder = tokenConfig.jwtEncoder(key);
+        tokenService = new TokenService(jwtEncoder, key, userService, refreshTokenStore, properties);
+        accessTokenDecoder = TokenConfig.createDecoder(key, issuer, TokenConfig.ACCESS_TOKEN);
+        refreshTokenDecoder = TokenConfig.createDecoder(key, issuer, TokenConfig.REFRESH_TOKEN);
+
+        testUser = new User("testuser", "test@example.com", "hash", "Test User",
+                new HashSet<>(Arrays.asList("USER", "ADMIN")));
+    }
+
+    @Test
+    void issue_ShouldEmbedUsernameAndRoles_InAccessToken() {
+        TokenResponse response = tokenService.issue(testUser);
+
+        Jwt jwt = accessTokenDecoder.decode(response.getAccessToken());
+        assertEquals("testuser", jwt.getSubject());
+        assertTrue(jwt.getClaimAsStringList(TokenConfig.ROLES_CLAIM).containsAll(Arrays.asList("ROLE_USER", "ROLE_ADMIN")));
+        assertEquals("Bearer", response.getTokenType());
+        assertEquals(900, response.getExpiresIn());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void issue_ShouldRegisterRefreshToken_InNewFamily() {
+        TokenResponse first = tokenService.issue(testUser);
+        TokenResponse second = tokenService.issue(testUser);
+
+        ArgumentCaptor<String> family = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenStore).register(eq(refreshTokenDecoder.decode(first.getRefreshToken()).getId()),
+                family.capture(), eq("testuser"), any(Instant.class));
+        verify(refreshTokenStore).register(eq(refreshTokenDecoder.decode(second.getRefreshToken()).getId()),
+                family.capture(), eq("testuser"), any(Instant.class));
+        assertNotEquals(family.getAllValues().get(0), family.getAllValues().get(1));
+    }
+
+    @Test
+    void refresh_ShouldIssueNewPair_WithCurrentRoles() {
+        TokenResponse issued = tokenService.issue(testUser);
+        testUser.setRoles(Collections.singleton("USER"));
+        when(refreshTokenStore.redeem(anyString(), any(Instant.class))).thenReturn(Optional.of("family-1"));
+        when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
+
+        TokenResponse refreshed = tokenService.refresh(issued.getRefreshToken());
+
+        Jwt jwt = accessTokenDecoder.decode(refreshed.getAccessToken());
+        assertEquals(Collections.singletonList("ROLE_USER"), jwt.getClaimAsStringList(TokenConfig.ROLES_CLAIM));
+    }
+
+    @Test
+    void refresh_ShouldRotateRefreshToken_InSameFamily() {
+        TokenResponse issued = tokenService.issue(testUser);
+        String issuedId = refreshTokenDecoder.decode(issued.getRefreshToken()).getId();
+        when(refreshTokenStore.redeem(eq(issuedId), any(Instant.class))).thenReturn(Optional.of("family-1"));
+        when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
+
+        TokenResponse refreshed = tokenService.refresh(issued.getRefreshToken());
+
+        String refreshedId = refreshTokenDecoder.decode(refreshed.getRefreshToken()).getId();
+        assertNotEquals(issuedId, refreshedId);
+        verify(refreshTokenStore).register(eq(refreshedId), eq("family-1"), eq("testuser"), any(Instant.class));
+    }
+
+    @Test
+    void refresh_ShouldReject_WhenTokenWasAlreadyUsedOrRevoked() {
+        TokenResponse issued = tokenService.issue(testUser);
+        when(refreshTokenStore.redeem(anyString(), any(Instant.class))).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(issued.getRefreshToken()));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void refresh_ShouldRejectTokenWithoutId() {
+        Instant now = Instant.now();
+        String legacy = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(),
+                JwtClaimsSet.builder()
+                        .issuer(new AppProperties().getSecurity().getToken().getIssuer())
+                        .subject("testuser")
+                        .issuedAt(now)
+                        .expiresAt(now.plusSeconds(60))
+                        .claim(TokenConfig.TOKEN_USE_CLAIM, TokenConfig.REFRESH_TOKEN)
+                        .build())).getTokenValue();
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(legacy));
+        verify(refreshTokenStore, never()).redeem(anyString(), any(Instant.class));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void revoke_ShouldRevokeRefreshTokenFamily() {
+        TokenResponse issued = tokenService.issue(testUser);
+
+        tokenService.revoke(issued.getRefreshToken());
+
+        verify(refreshTokenStore).revoke(refreshTokenDecoder.decode(issued.getRefreshToken()).getId());
+    }
+
+    @Test
+    void revoke_ShouldIgnoreInvalidToken() {
+        TokenResponse issued = tokenService.issue(testUser);
+
+        tokenService.revoke(issued.getAccessToken());
+
+        verify(refreshTokenStore, never()).revoke(anyString());
+    }
+
+    @Test
+    void refresh_ShouldRejectAccessToken() {
+        TokenResponse issued = tokenService.issue(testUser);
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(issued.getAccessToken()));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void refresh_ShouldRejectLockedUser() {
+        TokenResponse issued = tokenService.issue(testUser);
+        testUser.setAccountNonLocked(false);
+        testUser.setLockedUntil(LocalDateTime.now().plusMinutes(30));
+        when(refreshTokenStore.redeem(anyString(), any(Instant.class))).thenReturn(Optional.of("family-1"));
+        when(userService.loadUserByUsername("testuser")).thenReturn(testUser);
+
+        assertThrows(LockedException.class, () -> tokenService.refresh(issued.getRefreshToken()));
+    }
+
+    @Test
+    void accessTokenDecoder_ShouldRejectRefreshToken() {
+        TokenResponse issued = tokenService.issue(testUser);
+
+        assertThrows(JwtException.class,
+                () -> accessTokenDecoder.decode(issued.getRefreshToken()));
+    }
+
+    @Test
+    void tokenSigningKey_ShouldRequireSecret_OutsideDevProfile() {
+        assertThrows(IllegalStateException.class,
+                () -> new TokenConfig().tokenSigningKey(new AppProperties(), new MockEnvironment()));
+    }
+}
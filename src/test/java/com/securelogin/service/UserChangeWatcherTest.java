@@ -0,0 +1,112 @@
+package com.securelogin.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.securelogin.config.AppProperties;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeWatcherTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private Clock clock;
+
+    private UserChangeWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().getUserChanges().setPollInterval(Duration.ofMillis(1));
+
+        lenient().when(mongoTemplate.getCollection("users")).thenReturn(collection);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        watcher = new UserChangeWatcher(mongoTemplate, usernameFilter, principalCache, properties, clock);
+    }
+
+    @Test
+    void apply_ShouldAddInsertedUsernameToFilter() {
+        watcher.apply(change(OperationType.INSERT, new Document("username", "nova")));
+
+        verify(usernameFilter).put("nova");
+        verifyNoInteractions(principalCache);
+        assertEquals(1, watcher.getStats().getChanges());
+    }
+
+    @Test
+    void apply_ShouldInvalidateCachedPrincipalById_OnUpdate() {
+        ObjectId id = new ObjectId();
+        ChangeStreamDocument<Document> update = change(OperationType.UPDATE, null);
+        when(update.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonObjectId(id)));
+
+        watcher.apply(update);
+
+        verify(principalCache).invalidateById(id.toHexString());
+        verifyNoInteractions(usernameFilter);
+    }
+
+    @Test
+    void poll_ShouldApplyUsersUpdatedSinceLastPoll() throws Exception {
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("username", "importado"));
+
+        // A primeira consulta apenas marca o início; o filtro é construído na inicialização
+        watcher.poll();
+        verify(collection, never()).find(any(Bson.class));
+
+        watcher.poll();
+        verify(usernameFilter).put("importado");
+        verify(principalCache).invalidate("importado");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(OperationType operation, Document fullDocument) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(operation);
+        lenient().when(change.getFullDocument()).thenReturn(fullDocument);
+        return change;
+    }
+}
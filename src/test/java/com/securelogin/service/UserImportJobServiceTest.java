@@ -0,0 +1,96 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportJobServiceTest {
+
+    @Mock
+    private UserImportService userImportService;
+
+    private UserImportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new UserImportJobService(userImportService, new AppProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.destroy();
+    }
+
+    @Test
+    void run_ShouldPublishReportAndProgress_AndDeleteTemporaryFile() throws Exception {
+        UserImportReport report = new UserImportReport();
+        report.setNextOffset(1500);
+        report.setCompleted(true);
+        when(userImportService.importUsers(any(InputStream.class), eq(UserImportService.Format.CSV), eq(500L),
+                any(LongConsumer.class))).thenAnswer(invocation -> {
+                    invocation.getArgument(3, LongConsumer.class).accept(1500);
+                    return report;
+                });
+        Path file = file("username,email,password,fullName\n");
+        UserImportJobService.Job job = new UserImportJobService.Job("job-1", UserImportService.Format.CSV, 500);
+
+        jobService.run(job, file);
+
+        assertEquals(UserImportJobService.Status.COMPLETED, job.getStatus());
+        assertEquals(1500, job.getNextOffset());
+        assertSame(report, job.getReport());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void run_ShouldMarkJobFailed_WhenImportStopsEarly() throws Exception {
+        UserImportReport report = new UserImportReport();
+        report.setFailure("timeout");
+        when(userImportService.importUsers(any(InputStream.class), any(), anyLong(), any(LongConsumer.class)))
+                .thenReturn(report);
+        UserImportJobService.Job job = new UserImportJobService.Job("job-1", UserImportService.Format.JSONL, 0);
+
+        jobService.run(job, file("{}\n"));
+
+        assertEquals(UserImportJobService.Status.FAILED, job.getStatus());
+        assertEquals("timeout", job.getFailure());
+        assertTrue(job.isFinished());
+    }
+
+    @Test
+    void run_ShouldMarkJobFailed_WhenImportThrows() throws Exception {
+        when(userImportService.importUsers(any(InputStream.class), any(), anyLong(), any(LongConsumer.class)))
+                .thenThrow(new DataAccessResourceFailureException("sem conexão"));
+        UserImportJobService.Job job = new UserImportJobService.Job("job-1", UserImportService.Format.CSV, 0);
+
+        jobService.run(job, file("username\n"));
+
+        assertEquals(UserImportJobService.Status.FAILED, job.getStatus());
+        assertEquals("sem conexão", job.getFailure());
+        assertNull(job.getReport());
+    }
+
+    private static Path file(String content) throws Exception {
+        Path file = Files.createTempFile("user-import-test-", ".tmp");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,199 @@
+package com.securelogin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.BoundedPasswordEncoder;
+import com.securelogin.dto.UserImportReport;
+import com.securelogin.entity.Role;
+import com.securelogin.entity.User;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final String HEADER = "username,email,password,full_name,roles\n";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    private RoleRegistry roleRegistry;
+
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getBulkImport().setBatchSize(2);
+        properties.getBulkImport().setParallelism(2);
+
+        roleRegistry = new RoleRegistry(mongoTemplate, new RoleSetInterner());
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        lenient().when(bulkOperations.execute()).thenAnswer(invocation -> BulkWriteResult.acknowledged(2, 0, 0, 0,
+                Collections.emptyList(), Collections.emptyList()));
+
+        importService = new UserImportService(mongoTemplate,
+                new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), null),
+                usernameFilter, roleRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.destroy();
+    }
+
+    @Test
+    void importUsers_ShouldInsertCsvRowsInBatches_WithHashedPasswords() throws Exception {
+        String csv = HEADER
+                + "ana,ana@example.com,senha123,Ana Souza,\n"
+                + "bruno,bruno@example.com,senha123,\"Lima, Bruno\",ADMIN;USER\n"
+                + "carla,carla@example.com,senha123,Carla Dias,USER\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), UserImportService.Format.CSV, 0);
+
+        assertTrue(report.isCompleted());
+        assertEquals(3, report.getRead());
+        assertEquals(3, report.getNextOffset());
+        List<User> firstBatch = captureInsertedBatches().get(0);
+        assertEquals("Lima, Bruno", firstBatch.get(1).getFullName());
+        assertTrue(firstBatch.get(1).getRoleSet().contains("ADMIN"));
+        assertTrue(firstBatch.get(0).getRoles().contains("USER"));
+        assertTrue(new BCryptPasswordEncoder().matches("senha123", firstBatch.get(0).getPassword()));
+        verify(usernameFilter).put("carla");
+    }
+
+    @Test
+    void importUsers_ShouldReportDuplicates_FromBulkWriteErrors() throws Exception {
+        BulkWriteError duplicate = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: secure-login.users index: email dup key", new BsonDocument(), 1);
+        MongoBulkWriteException cause = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList(), Collections.emptyList()),
+                Collections.singletonList(duplicate), null, new ServerAddress(), Collections.emptySet());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException(cause.getMessage(), cause));
+        String csv = HEADER
+                + "ana,ana@example.com,senha123,Ana Souza,\n"
+                + "bruno,ana@example.com,senha123,Bruno Lima,\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), UserImportService.Format.CSV, 0);
+
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(new UserImportReport.RowError(2, "bruno", "Email já existe"), report.getErrors().get(0));
+    }
+
+    @Test
+    void importUsers_ShouldRejectInvalidRows_WithoutInsertingThem() throws Exception {
+        when(mongoTemplate.findAll(Role.class)).thenReturn(Collections.singletonList(new Role("USER", "Usuário")));
+        roleRegistry.refresh();
+        String jsonl = "{\"username\":\"ana\",\"email\":\"ana@example.com\",\"password\":\"senha123\",\"fullName\":\"Ana Souza\"}\n"
+                + "{\"username\":\"bruno\",\"email\":\"invalido\",\"password\":\"senha123\",\"fullName\":\"Bruno Lima\"}\n"
+                + "{\"username\":\"carla\",\"email\":\"carla@example.com\",\"password\":\"senha123\",\"fullName\":\"Carla Dias\",\"roles\":[\"ROOT\"]}\n"
+                + "nao e json\n";
+
+        UserImportReport report = importService.importUsers(stream(jsonl), UserImportService.Format.JSONL, 0);
+
+        assertEquals(4, report.getRead());
+        assertEquals(3, report.getInvalid());
+        assertEquals("Role desconhecida: ROOT", report.getErrors().get(1).getReason());
+        List<List<User>> batches = captureInsertedBatches();
+        assertEquals(1, batches.size());
+        assertEquals("ana", batches.get(0).get(0).getUsername());
+    }
+
+    @Test
+    void importUsers_ShouldSkipRowsBeforeOffset() throws Exception {
+        String csv = HEADER
+                + "ana,ana@example.com,senha123,Ana Souza,\n"
+                + "\n"
+                + "bruno,bruno@example.com,senha123,Bruno Lima,\n"
+                + "carla,carla@example.com,senha123,Carla Dias,\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), UserImportService.Format.CSV, 2);
+
+        assertEquals(1, report.getRead());
+        assertEquals(3, report.getNextOffset());
+        assertEquals("carla", captureInsertedBatches().get(0).get(0).getUsername());
+    }
+
+    @Test
+    void importUsers_ShouldStopAtLastCompletedBatch_WhenMongoFails() throws Exception {
+        when(bulkOperations.execute())
+                .thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, Collections.emptyList(), Collections.emptyList()))
+                .thenThrow(new DataAccessResourceFailureException("timeout"));
+        String csv = HEADER
+                + "ana,ana@example.com,senha123,Ana Souza,\n"
+                + "bruno,bruno@example.com,senha123,Bruno Lima,\n"
+                + "carla,carla@example.com,senha123,Carla Dias,\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), UserImportService.Format.CSV, 0);
+
+        assertFalse(report.isCompleted());
+        assertEquals(2, report.getNextOffset());
+        assertEquals("timeout", report.getFailure());
+    }
+
+    @Test
+    void importUsers_ShouldKeepLineBreaksInsideQuotedCsvFields() throws Exception {
+        String csv = HEADER
+                + "ana,ana@example.com,senha123,\"Ana\nSouza\",\n"
+                + "bruno,bruno@example.com,senha123,\"Bruno \"\"Lima\"\"\",USER\n";
+
+        UserImportReport report = importService.importUsers(stream(csv), UserImportService.Format.CSV, 0);
+
+        assertEquals(2, report.getRead());
+        assertEquals(0, report.getInvalid());
+        List<User> users = captureInsertedBatches().get(0);
+        assertEquals("Ana\nSouza", users.get(0).getFullName());
+        assertEquals("Bruno \"Lima\"", users.get(1).getFullName());
+    }
+
+    @Test
+    void splitCsv_ShouldHandleQuotedFields() {
+        assertEquals(Arrays.asList("a", "b, c", "d \"e\"", ""), UserImportService.splitCsv("a,\"b, c\",\"d \"\"e\"\"\","));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<List<User>> captureInsertedBatches() {
+        ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, atLeastOnce()).insert(batches.capture());
+        return (List) batches.getAllValues();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,34 @@
 package com.securelogin.service;
 
+import com.securelogin.config.AppProperties;
+import com.securelogin.dto.UserLockStatusView;
+import com.securelogin.dto.UserProfileView;
+import com.securelogin.dto.UserSummaryView;
 import com.securelogin.entity.User;
 import com.securelogin.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +45,21 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(5));
+
+    @Mock
+    private LoginLockoutService loginLockoutService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private UsernameBloomFilter usernameFilter = new UsernameBloomFilter(new AppProperties(), null);
+
+    @Spy
+    private RoleRegistry roleRegistry = new RoleRegistry(null, new RoleSetInterner());
+
     @InjectMocks
     private UserService userService;
 
@@ -87,6 +116,80 @@ class UserServiceTest {
             userService.loadUserByUsername("inactiveuser"));
     }
 
+    @Test
+    void loadUserByUsername_ShouldServeRepeatedLookupsFromCache() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        userService.loadUserByUsername("testuser");
+        userService.loadUserByUsername("testuser");
+        userService.hasRole("testuser", "USER");
+
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(2, principalCache.getStats().getHits());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUsers() {
+        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nonexistent"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nonexistent"));
+
+        verify(userRepository, times(2)).findByUsername("nonexistent");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldSkipDatabase_WhenFilterRulesUsernameOut() {
+        doReturn(false).when(usernameFilter).mightContain("unknown");
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("unknown"));
+
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void createUser_ShouldAddUsernameToFilter() {
+        User newUser = new User();
+        newUser.setUsername("newuser");
+        newUser.setEmail("new@example.com");
+        newUser.setPassword("password123");
+
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.createUser(newUser);
+
+        verify(usernameFilter).put("newuser");
+    }
+
+    @Test
+    void deactivateUser_ShouldInvalidateCachedPrincipal() {
+        User deactivated = new User();
+        deactivated.setUsername("testuser");
+        deactivated.setActive(false);
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(testUser))
+                .thenReturn(Optional.of(deactivated));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(User.class))).thenReturn(testUser);
+        userService.loadUserByUsername("testuser");
+
+        userService.deactivateUser("1");
+
+        verify(principalCache).invalidate("testuser");
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("testuser"));
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void updatePassword_ShouldStoreNewHashWithTargetedUpdate() {
+        UserDetails result = userService.updatePassword(testUser, "{bcrypt}new_hash");
+
+        assertEquals("{bcrypt}new_hash", result.getPassword());
+        verify(userRepository).updatePasswordByUsername(eq("testuser"), eq("{bcrypt}new_hash"), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void createUser_ShouldCreateUser_WhenValidData() {
         User newUser = new User();
@@ -167,15 +270,33 @@ class UserServiceTest {
         updateData.setFullName("Updated Name");
         updateData.setEmail("updated@example.com");
 
-        when(userRepository.findById("1")).thenReturn(Optional.of(testUser));
-        when(userRepository.existsByEmail("updated@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(User.class))).thenReturn(testUser);
 
         User result = userService.updateUser("1", updateData);
 
         assertNotNull(result);
-        verify(userRepository).findById("1");
-        verify(userRepository).save(any(User.class));
+        Document changes = captureUpdate().getUpdateObject().get("$set", Document.class);
+        assertEquals("Updated Name", changes.get("fullName"));
+        assertEquals("updated@example.com", changes.get("email"));
+        assertTrue(changes.containsKey("updatedAt"));
+        assertFalse(changes.containsKey("password"));
+        assertFalse(changes.containsKey("roles"));
+        verify(userRepository, never()).findById(anyString());
+        verify(userRepository, never()).save(any(User.class));
+        verify(principalCache).invalidate("testuser");
+    }
+
+    @Test
+    void updateUser_ShouldThrowException_WhenEmailBelongsToAnotherUser() {
+        User updateData = new User();
+        updateData.setEmail("taken@example.com");
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(User.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key error index: email"));
+
+        assertThrows(IllegalArgumentException.class, () ->
+            userService.updateUser("1", updateData));
     }
 
     @Test
@@ -183,8 +304,6 @@ class UserServiceTest {
         User updateData = new User();
         updateData.setFullName("Updated Name");
 
-        when(userRepository.findById("999")).thenReturn(Optional.empty());
-
         assertThrows(IllegalArgumentException.class, () -> 
             userService.updateUser("999", updateData));
     }
@@ -208,26 +327,87 @@ class UserServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findProfileByUsername_ShouldUseProfileProjection() {
+        UserProfileView profile = mock(UserProfileView.class);
+        when(userRepository.findByUsername("testuser", UserProfileView.class)).thenReturn(Optional.of(profile));
+
+        Optional<UserProfileView> result = userService.findProfileByUsername("testuser");
+
+        assertTrue(result.isPresent());
+        verify(userRepository, never()).findByUsername("testuser");
+    }
+
+    @Test
+    void findActiveUsers_ShouldUseSummaryProjection() {
+        UserSummaryView summary = mock(UserSummaryView.class);
+        when(userRepository.findByIsActiveTrue(UserSummaryView.class)).thenReturn(Arrays.asList(summary));
+
+        List<UserSummaryView> result = userService.findActiveUsers();
+
+        assertEquals(1, result.size());
+        verify(userRepository, never()).findByIsActiveTrue();
+    }
+
+    @Test
+    void findLockStatus_ShouldReportExpiredLockAsUnlocked() {
+        UserLockStatusView status = mock(UserLockStatusView.class);
+        when(status.getIsAccountNonLocked()).thenReturn(false);
+        when(status.getLockedUntil()).thenReturn(LocalDateTime.now().minusMinutes(1));
+        when(status.isLocked()).thenCallRealMethod();
+        when(userRepository.findByUsername("testuser", UserLockStatusView.class)).thenReturn(Optional.of(status));
+
+        Optional<UserLockStatusView> result = userService.findLockStatus("testuser");
+
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isLocked());
+    }
+
     @Test
     void deactivateUser_ShouldDeactivateUser_WhenUserExists() {
-        when(userRepository.findById("1")).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(User.class))).thenReturn(testUser);
 
         userService.deactivateUser("1");
 
-        assertFalse(testUser.isActive());
-        verify(userRepository).save(testUser);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), eq(User.class));
+        Document changes = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(false, changes.get("isActive"));
+        assertEquals(2, changes.size());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void deactivateUser_ShouldThrowException_WhenUserNotFound() {
+        assertThrows(IllegalArgumentException.class, () -> userService.deactivateUser("999"));
+        verify(principalCache, never()).invalidate(anyString());
     }
 
     @Test
     void activateUser_ShouldActivateUser_WhenUserExists() {
-        when(userRepository.findById("2")).thenReturn(Optional.of(inactiveUser));
-        when(userRepository.save(any(User.class))).thenReturn(inactiveUser);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(User.class))).thenReturn(inactiveUser);
 
         userService.activateUser("2");
 
-        assertTrue(inactiveUser.isActive());
-        verify(userRepository).save(inactiveUser);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), eq(User.class));
+        assertEquals(true, update.getValue().getUpdateObject().get("$set", Document.class).get("isActive"));
+        verify(principalCache).invalidate("inactiveuser");
+    }
+
+    @Test
+    void unlockUser_ShouldClearLockAndInMemoryState() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(User.class))).thenReturn(testUser);
+
+        userService.unlockUser("1");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), eq(User.class));
+        Document changes = update.getValue().getUpdateObject();
+        assertEquals(true, changes.get("$set", Document.class).get("isAccountNonLocked"));
+        assertTrue(changes.get("$unset", Document.class).containsKey("lockedUntil"));
+        verify(userRepository, never()).save(any(User.class));
+        verify(loginLockoutService).clear("testuser");
     }
 
     @Test
@@ -248,6 +428,23 @@ class UserServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void hasRole_ShouldAcceptPrefixedRoleName() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        assertTrue(userService.hasRole("testuser", "ROLE_USER"));
+    }
+
+    @Test
+    void findByRole_ShouldQueryWithRoleName_WhenPrefixed() {
+        when(userRepository.findByRole("USER")).thenReturn(Arrays.asList(testUser));
+
+        List<User> result = userService.findByRole("ROLE_USER");
+
+        assertEquals(1, result.size());
+        verify(userRepository).findByRole("USER");
+    }
+
     @Test
     void hasRole_ShouldReturnFalse_WhenUserNotFound() {
         when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
@@ -278,4 +475,11 @@ class UserServiceTest {
         verify(userRepository).existsByUsername("admin");
         verify(userRepository, never()).save(any(User.class));
     }
+
+    private Update captureUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(User.class));
+        return update.getValue();
+    }
 }
\ No newline at end of file
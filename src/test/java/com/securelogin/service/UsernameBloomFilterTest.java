@@ -0,0 +1,97 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameBloomFilterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private UsernameBloomFilter usernameFilter;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().getUsernameFilter().setExpectedInsertions(10_000);
+        properties.getSecurity().getUsernameFilter().setFalsePositiveRate(0.01);
+        usernameFilter = new UsernameBloomFilter(properties, mongoTemplate);
+    }
+
+    @Test
+    void mightContain_ShouldAcceptEverything_BeforeFirstBuild() {
+        assertTrue(usernameFilter.mightContain("anyone"));
+        assertFalse(usernameFilter.getStats().isReady());
+    }
+
+    @Test
+    void rebuild_ShouldLoadUsernamesFromUsersCollection() {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+            .thenReturn(Stream.of(new Document("username", "admin"), new Document("username", "testuser")));
+
+        usernameFilter.rebuild();
+
+        assertTrue(usernameFilter.getStats().isReady());
+        assertTrue(usernameFilter.mightContain("admin"));
+        assertTrue(usernameFilter.mightContain("testuser"));
+        assertFalse(usernameFilter.mightContain("attacker"));
+        assertEquals(1, usernameFilter.getStats().getDefiniteMisses());
+    }
+
+    @Test
+    void put_ShouldMakeNewUsernameVisible_AfterBuild() {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.empty());
+        usernameFilter.rebuild();
+
+        usernameFilter.put("newuser");
+
+        assertTrue(usernameFilter.mightContain("newuser"));
+    }
+
+    @Test
+    void put_ShouldReachRebuiltFilter_WhenCalledDuringRebuild() {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+            .thenReturn(Stream.of("admin").map(username -> {
+                usernameFilter.put("concurrent");
+                return new Document("username", username);
+            }));
+
+        usernameFilter.rebuild();
+
+        assertTrue(usernameFilter.mightContain("concurrent"));
+        assertTrue(usernameFilter.mightContain("admin"));
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegativesAndBoundedFalsePositives() {
+        UsernameBloomFilter.BloomFilter filter = new UsernameBloomFilter.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+            if (filter.mightContain("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200, "Falsos positivos: " + falsePositives);
+    }
+}
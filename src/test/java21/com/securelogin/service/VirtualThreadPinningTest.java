@@ -0,0 +1,127 @@
+package com.securelogin.service;
+
+import com.securelogin.config.AppProperties;
+import com.securelogin.config.BoundedPasswordEncoder;
+import com.securelogin.entity.User;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa os caminhos da autenticação em threads virtuais e falha se algum evento
+ * {@code jdk.VirtualThreadPinned} for registrado pelo JFR
+ */
+class VirtualThreadPinningTest {
+
+    private static final int REQUESTS = 200;
+
+    private final List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+    private RecordingStream recording;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+        recording.startAsync();
+
+        AppProperties properties = new AppProperties();
+        properties.getSecurity().getHashing().setPoolSize(2);
+        properties.getSecurity().getHashing().setQueueCapacity(REQUESTS);
+        properties.getSecurity().getHashing().setDeadline(Duration.ofSeconds(30));
+        hashingExecutor = new PasswordHashingExecutor(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.destroy();
+        recording.close();
+    }
+
+    @Test
+    void passwordEncoder_ShouldHashOnPlatformThreads_WhenCalledFromVirtualThreads() throws Exception {
+        List<Boolean> hashedOnVirtualThread = new CopyOnWriteArrayList<>();
+        PasswordEncoder delegate = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashedOnVirtualThread.add(Thread.currentThread().isVirtual());
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashedOnVirtualThread.add(Thread.currentThread().isVirtual());
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        PasswordEncoder encoder = new BoundedPasswordEncoder(delegate, hashingExecutor);
+
+        List<Boolean> callerWasVirtual = runOnVirtualThreads(() -> {
+            assertTrue(encoder.matches("senha", "senha"));
+            return Thread.currentThread().isVirtual();
+        });
+
+        assertTrue(callerWasVirtual.stream().allMatch(Boolean::booleanValue));
+        assertEquals(REQUESTS, hashedOnVirtualThread.size());
+        assertFalse(hashedOnVirtualThread.contains(true));
+        assertNoPinning();
+    }
+
+    @Test
+    void principalCache_ShouldNotPinCarrier_WhenLoaderBlocks() throws Exception {
+        PrincipalCache principalCache = new PrincipalCache(1000, Duration.ofMinutes(5));
+
+        runOnVirtualThreads(() -> principalCache.get("user-" + (Thread.currentThread().threadId() % 10), username -> {
+            sleep(Duration.ofMillis(20));
+            User user = new User();
+            user.setUsername(username);
+            return Optional.of(user);
+        }));
+
+        assertNoPinning();
+    }
+
+    private <T> List<T> runOnVirtualThreads(Callable<T> task) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> executor.submit(task))
+                    .toList();
+
+            List<T> results = new CopyOnWriteArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+
+    private void assertNoPinning() {
+        // Eventos pendentes no buffer só chegam ao consumidor após um flush
+        recording.stop();
+        assertTrue(pinnedEvents.isEmpty(), () -> "Threads virtuais presas à portadora: " + pinnedEvents);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}